@@ -0,0 +1,33 @@
+package dashboard.IMS.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration class for the application task executor in platform-thread mode, the default.
+ * Spring Boot only defines the executor when there is no other Executor bean, so the report job and
+ * dashboard query executors would otherwise leave Spring MVC running async requests, such as the streamed
+ * report downloads, on a new platform thread each. VirtualThreadConfig defines it in virtual-thread mode.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "false", matchIfMissing = true)
+public class ApplicationTaskExecutorConfig {
+
+    /**
+     * Defines the bounded pool that runs async requests and other application tasks.
+     *
+     * @param builder Spring Boot's builder, which applies the spring.task.execution.pool properties.
+     * @return The application task executor.
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+}
@@ -0,0 +1,44 @@
+package dashboard.IMS.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuration class for the concurrent dashboard queries.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Configuration
+public class DashboardQueryConfig {
+
+    /**
+     * Defines the bounded pool that runs the independent queries of a page at the same time.
+     * When the pool and its queue are full, the request thread runs the query itself, so pages
+     * slow down under load instead of failing. In virtual-thread mode its threads are virtual.
+     *
+     * @param poolSize       The number of queries run at the same time.
+     * @param queueCapacity  The number of queries waiting to run.
+     * @param virtualThreads Whether to run the queries on virtual threads.
+     * @return The dashboard query executor.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor dashboardQueryExecutor(@Value("${ims.dashboard.query-pool-size:8}") int poolSize,
+                                                         @Value("${ims.dashboard.query-queue-capacity:100}") int queueCapacity,
+                                                         @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-query-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("dashboard-query-", 1).factory());
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,42 @@
+package dashboard.IMS.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration class for the asynchronous report jobs.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Configuration
+public class ReportJobConfig {
+
+    /**
+     * Defines the bounded pool that renders report jobs, apart from the request threads.
+     * Jobs submitted while the pool and its queue are full are rejected.
+     * In virtual-thread mode the pool keeps its bounds but its threads are virtual.
+     *
+     * @param poolSize       The number of reports rendered at the same time.
+     * @param queueCapacity  The number of reports waiting to be rendered.
+     * @param virtualThreads Whether to render reports on virtual threads.
+     * @return The report job executor.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor reportJobExecutor(@Value("${ims.report-jobs.pool-size:2}") int poolSize,
+                                                    @Value("${ims.report-jobs.queue-capacity:20}") int queueCapacity,
+                                                    @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("report-job-");
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("report-job-", 1).factory());
+        }
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -0,0 +1,15 @@
+package dashboard.IMS.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration class that enables the scheduled tasks of every service.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,63 @@
+package dashboard.IMS.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Configuration class for the virtual-thread mode, turned on with spring.threads.virtual.enabled.
+ * Spring Boot then runs Tomcat requests and scheduled tasks on virtual threads, and ReportJobConfig
+ * and DashboardQueryConfig run report jobs and dashboard queries on them. This class defines the
+ * application task executor on virtual threads too, and limits how many of those threads use the
+ * database at once.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    /**
+     * Defines the application task executor on virtual threads. Spring Boot only defines it when there is
+     * no other Executor bean, so the report job and dashboard query executors would otherwise leave Spring MVC
+     * running async requests, such as streamed report downloads, on a new platform thread each.
+     *
+     * @param builder Spring Boot's builder, which applies the spring.task.execution.simple properties.
+     * @return The application task executor.
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public SimpleAsyncTaskExecutor applicationTaskExecutor(SimpleAsyncTaskExecutorBuilder builder) {
+        return builder.virtualThreads(true).threadNamePrefix("task-").build();
+    }
+
+    /**
+     * Wraps the DataSource so no more connections are open at once than the limit,
+     * which defaults to the size of the connection pool.
+     *
+     * @param maxConcurrency The number of connections open at the same time.
+     * @param acquireTimeout How long a thread waits for a connection before failing.
+     * @return The post-processor wrapping the DataSource.
+     */
+    @Bean
+    public static BeanPostProcessor jdbcConcurrencyLimiter(@Value("${ims.jdbc.max-concurrency:10}") int maxConcurrency,
+                                                           @Value("${ims.jdbc.acquire-timeout:PT30S}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                    return new ConcurrencyLimitedDataSource(dataSource, maxConcurrency, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
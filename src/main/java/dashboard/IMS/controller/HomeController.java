@@ -1,11 +1,11 @@
 package dashboard.IMS.controller;
 
+import dashboard.IMS.dto.DashboardDTO;
 import dashboard.IMS.dto.UserDTO;
-import dashboard.IMS.entity.Product;
-import dashboard.IMS.entity.ProductVariation;
 import dashboard.IMS.repository.ProductRepository;
 import dashboard.IMS.repository.ProductVariationRepository;
 import dashboard.IMS.repository.SalesRepository;
+import dashboard.IMS.service.DashboardService;
 import dashboard.IMS.service.ProductService;
 import dashboard.IMS.service.SalesService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,9 +15,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
 
 /**
@@ -45,6 +42,9 @@ public class HomeController {
     @Autowired
     private SalesService salesService;
 
+    @Autowired
+    private DashboardService dashboardService;
+
     public HomeController(ProductService productService) {
         this.productService = productService;
     }
@@ -79,77 +79,14 @@ public class HomeController {
 
         System.out.println("Profile Picture Path: " + authenticatedUser.getProfilePicture());
 
-        // Retrieve products owned by the logged-in user from the database
-        List<Product> products = productRepository.findByUserIdAndDeletedFalse(authenticatedUser.getId());
-
-
-        // Retrieve all product variations owned by the logged-in user from the database
-        List<ProductVariation> productVariations = productVariationRepository.findAllByProductUserId(authenticatedUser.getId());
-
-        // Retrieve total quantities of product variations owned by the logged-in user
-        List<Object[]> totalQuantities = productVariationRepository.getTotalQuantitiesByProductUserId(authenticatedUser.getId());
-
-        // Create a map to store total quantities for each product
-        Map<Integer, Integer> productTotalQuantities = new HashMap<>();
-        for (Object[] row : totalQuantities) {
-            if (row.length < 2) {
-                // Handle the case when the row doesn't contain enough elements
-                // Maybe log an error or skip this row
-                continue; // Skip this row and continue with the next one
-            }
-
-            Integer productId;
-            if (row[0] instanceof ProductVariation) {
-                productId = ((ProductVariation) row[0]).getProduct().getId();
-            } else if (row[0] instanceof Integer) {
-                productId = (Integer) row[0];
-            } else {
-                // Handle the case when the type of row[0] is unexpected
-                // Maybe log an error or skip this row
-                continue; // Skip this row and continue with the next one
-            }
-
-            Integer totalQuantity = ((Number) row[1]).intValue();
-            productTotalQuantities.put(productId, totalQuantity);
-        }
-
-        // Extract the first image URL for each product
-        Map<Integer, String> productImageUrls = new HashMap<>();
-        for (Product product : products) {
-            String imageUrls = product.getImageUrls(); // Get the comma-separated list
-            System.out.println("Product ID: " + product.getId());
-            System.out.println("Image URLs: " + imageUrls);
-            if (imageUrls != null && !imageUrls.isEmpty()) {
-                // Remove square brackets if present
-                imageUrls = imageUrls.replaceAll("\\[|\\]", "");
-                String[] imageUrlArray = imageUrls.split(","); // Split by comma
-                System.out.println("Image URL Array Length: " + imageUrlArray.length);
-                if (imageUrlArray.length > 0) {
-                    String firstImageUrl = imageUrlArray[0].trim(); // Get the first URL
-                    // Remove leading backslash if present
-                    if (firstImageUrl.startsWith("/")) {
-                        firstImageUrl = firstImageUrl.substring(1);
-                    }
-                    System.out.println("First Image URL: " + firstImageUrl);
-                    productImageUrls.put(product.getId(), firstImageUrl);
-                } else {
-                    System.out.println("No image URLs found for product ID: " + product.getId());
-                }
-            } else {
-                System.out.println("No image URLs found for product ID: " + product.getId());
-            }
-
-            // Retrieve associated product variations for each product
-            List<ProductVariation> associatedProductVariations = productVariationRepository.findByProductId(product.getId());
-            // Set the retrieved product variations to the current product
-            product.setProductVariations(associatedProductVariations);
-        }
+        // Retrieve the products owned by the logged-in user with their variations, image URLs and total quantities
+        DashboardDTO dashboard = dashboardService.getDashboard(authenticatedUser.getId());
 
         // Pass the product variations to the view
-        model.addAttribute("productVariations", productVariations);
-        model.addAttribute("products", products);
-        model.addAttribute("productImageUrls", productImageUrls);
-        model.addAttribute("productTotalQuantities", productTotalQuantities); // Pass total quantities as an attribute
+        model.addAttribute("productVariations", dashboard.getProductVariations());
+        model.addAttribute("products", dashboard.getProducts());
+        model.addAttribute("productImageUrls", dashboard.getProductImageUrls());
+        model.addAttribute("productTotalQuantities", dashboard.getProductTotalQuantities()); // Pass total quantities as an attribute
 
 
         // Check if message exists in flash attributes
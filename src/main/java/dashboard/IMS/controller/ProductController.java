@@ -1,9 +1,11 @@
 package dashboard.IMS.controller;
 
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
+import dashboard.IMS.dto.DashboardDTO;
+import dashboard.IMS.dto.ProductListPageDTO;
 import dashboard.IMS.dto.ProductVariationDTO;
 import dashboard.IMS.dto.UserDTO;
+import dashboard.IMS.entity.Money;
 import dashboard.IMS.entity.Product;
 import dashboard.IMS.entity.ProductVariation;
 import dashboard.IMS.entity.Sales;
@@ -13,6 +15,8 @@ import dashboard.IMS.repository.ProductRepository;
 
 import dashboard.IMS.repository.ProductVariationRepository;
 import dashboard.IMS.repository.SalesRepository;
+import dashboard.IMS.service.DashboardAssemblyService;
+import dashboard.IMS.service.DashboardService;
 import dashboard.IMS.service.ProductService;
 import dashboard.IMS.service.ProductVariationService;
 import dashboard.IMS.service.SalesService;
@@ -65,6 +69,12 @@ public class ProductController {
     @Autowired
     private SalesRepository salesRepository;
 
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private DashboardAssemblyService dashboardAssemblyService;
+
     private final ProductService productService;
     private final ProductVariationService productVariationService;
 
@@ -94,90 +104,27 @@ public class ProductController {
         }
 
         Pageable pageable = PageRequest.of(page, 5); // 5 items per page
-        Page<Product> productsPage = productService.getProducts(pageable);
-        model.addAttribute("productsPage", productsPage);
+
+        // The products page, the user's cached dashboard and sales records are loaded at the same time
+        ProductListPageDTO productListPage = dashboardAssemblyService.getProductListPage(loggedInUser.getId(), pageable);
+        model.addAttribute("productsPage", productListPage.getProductsPage());
 
         // Add the authenticatedUser to the model if needed for the view
         model.addAttribute("loggedInUser", loggedInUser);
 
         model.addAttribute("profilePicture", loggedInUser.getProfilePicture());
 
-        // Retrieve products owned by the logged-in user from the database
-        List<Product> products = productRepository.findByUserIdAndDeletedFalse(loggedInUser.getId());
-
-        // Retrieve all product variations owned by the logged-in user from the database
-        List<ProductVariation> productVariations = productVariationRepository.findAllByProductUserId(loggedInUser.getId());
-
-        // Retrieve total quantities of product variations owned by the logged-in user
-        List<Object[]> totalQuantities = productVariationRepository.getTotalQuantitiesByProductUserId(loggedInUser.getId());
-
-        // Create a map to store total quantities for each product
-        Map<Integer, Integer> productTotalQuantities = new HashMap<>();
-        for (Object[] row : totalQuantities) {
-            if (row.length < 2) {
-                // Handle the case when the row doesn't contain enough elements
-                // Maybe log an error or skip this row
-                continue; // Skip this row and continue with the next one
-            }
-
-            Integer productId;
-            if (row[0] instanceof ProductVariation) {
-                productId = ((ProductVariation) row[0]).getProduct().getId();
-            } else if (row[0] instanceof Integer) {
-                productId = (Integer) row[0];
-            } else {
-                // Handle the case when the type of row[0] is unexpected
-                // Maybe log an error or skip this row
-                continue; // Skip this row and continue with the next one
-            }
-
-            Integer totalQuantity = ((Number) row[1]).intValue();
-            productTotalQuantities.put(productId, totalQuantity);
-        }
-
-        // Extract the first image URL for each product
-        Map<Integer, String> productImageUrls = new HashMap<>();
-        for (Product product : products) {
-            String imageUrls = product.getImageUrls(); // Get the comma-separated list
-            System.out.println("Product ID: " + product.getId());
-            System.out.println("Image URLs: " + imageUrls);
-            if (imageUrls != null && !imageUrls.isEmpty()) {
-                // Remove square brackets if present
-                imageUrls = imageUrls.replaceAll("\\[|\\]", "");
-                String[] imageUrlArray = imageUrls.split(","); // Split by comma
-                System.out.println("Image URL Array Length: " + imageUrlArray.length);
-                if (imageUrlArray.length > 0) {
-                    String firstImageUrl = imageUrlArray[0].trim(); // Get the first URL
-                    // Remove leading backslash if present
-                    if (firstImageUrl.startsWith("/")) {
-                        firstImageUrl = firstImageUrl.substring(1);
-                    }
-                    System.out.println("First Image URL: " + firstImageUrl);
-                    productImageUrls.put(product.getId(), firstImageUrl);
-                } else {
-                    System.out.println("No image URLs found for product ID: " + product.getId());
-                }
-            } else {
-                System.out.println("No image URLs found for product ID: " + product.getId());
-            }
-
-            // Retrieve associated product variations for each product
-            List<ProductVariation> associatedProductVariations = productVariationRepository.findByProductId(product.getId());
-            // Set the retrieved product variations to the current product
-            product.setProductVariations(associatedProductVariations);
-        }
-
-        // Retrieve sales records associated with the logged-in user
-        List<Sales> salesRecords = salesRepository.findByUserId(loggedInUser.getId());
+        // Products, variations, image URLs and total quantities come from the user's cached dashboard
+        DashboardDTO dashboard = productListPage.getDashboard();
 
         // Pass the sales records to the view
-        model.addAttribute("salesRecords", salesRecords);
+        model.addAttribute("salesRecords", productListPage.getSalesRecords());
 
         // Pass the product variations to the view
-        model.addAttribute("productVariations", productVariations);
-        model.addAttribute("products", products);
-        model.addAttribute("productImageUrls", productImageUrls);
-        model.addAttribute("productTotalQuantities", productTotalQuantities); // Pass total quantities as an attribute
+        model.addAttribute("productVariations", dashboard.getProductVariations());
+        model.addAttribute("products", dashboard.getProducts());
+        model.addAttribute("productImageUrls", dashboard.getProductImageUrls());
+        model.addAttribute("productTotalQuantities", dashboard.getProductTotalQuantities()); // Pass total quantities as an attribute
 
         // Check if message exists in flash attributes
         if (model.containsAttribute("message")) {
@@ -256,8 +203,8 @@ public class ProductController {
             Product newProduct = new Product();
             newProduct.setProductName(productName);
             newProduct.setProductDescription(productDescription);
-            newProduct.setCostPrice(BigDecimal.valueOf(cost));
-            newProduct.setSellingPrice(BigDecimal.valueOf(sellingPrice));
+            newProduct.setCostPrice(Money.of(BigDecimal.valueOf(cost)));
+            newProduct.setSellingPrice(Money.of(BigDecimal.valueOf(sellingPrice)));
             // Save the new product
             Product savedProduct = productRepository.save(newProduct);
 
@@ -310,6 +257,7 @@ public class ProductController {
             // Set the deleted flag to true instead of deleting the product
             productToDelete.setDeleted(true);
             productRepository.save(productToDelete);
+            dashboardService.evict(loggedInUser.getId());
 
             // Add success message
             redirectAttributes.addFlashAttribute("message", "Successfully deleted the item");
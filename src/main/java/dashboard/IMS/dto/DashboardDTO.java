@@ -0,0 +1,29 @@
+package dashboard.IMS.dto;
+
+import dashboard.IMS.entity.Product;
+import dashboard.IMS.entity.ProductVariation;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Transfer Object (DTO) class for the product dashboard.
+ * Holds the products, variations, image URLs and total quantities shown on the index and product list pages.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardDTO {
+
+    private List<Product> products;
+    private List<ProductVariation> productVariations;
+    private Map<Integer, String> productImageUrls;
+    private Map<Integer, Integer> productTotalQuantities;
+
+}
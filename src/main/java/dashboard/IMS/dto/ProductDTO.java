@@ -24,6 +24,8 @@ public class ProductDTO {
     private BigDecimal costPrice;
     private BigDecimal sellingPrice;
     private String imageUrls;
+    private List<String> imageUrlList;
+    private String primaryImageUrl;
     private Integer userId; // Add userId field to ProductDTO
 
 }
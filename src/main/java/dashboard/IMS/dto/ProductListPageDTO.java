@@ -0,0 +1,28 @@
+package dashboard.IMS.dto;
+
+import dashboard.IMS.entity.Product;
+import dashboard.IMS.entity.Sales;
+import lombok.*;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) class for the product list page.
+ * Holds the page of products, the user's dashboard data and the user's sales records.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductListPageDTO {
+
+    private Page<Product> productsPage;
+    private DashboardDTO dashboard;
+    private List<Sales> salesRecords;
+
+}
@@ -0,0 +1,28 @@
+package dashboard.IMS.dto;
+
+/**
+ * File formats the sales report can be exported to.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+public enum ReportFormat {
+    PDF("application/pdf", "pdf"),
+    EXCEL("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+    private final String contentType;
+    private final String extension;
+
+    ReportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
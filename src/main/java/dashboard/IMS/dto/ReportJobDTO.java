@@ -0,0 +1,40 @@
+package dashboard.IMS.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object for an asynchronous sales report export.
+ * The status fields are updated by the report job thread while the job is polled.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobDTO {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private String id;
+    private ReportFormat format;
+    // The filters the report was requested with, or null for all of the user's sales
+    private SalesReportFilter filter;
+    private String fileName;
+    private LocalDateTime createdAt;
+    private volatile Status status;
+    private volatile LocalDateTime completedAt;
+    private volatile String error;
+
+    @JsonIgnore
+    private Integer userId;
+
+    @JsonIgnore
+    private Path file;
+}
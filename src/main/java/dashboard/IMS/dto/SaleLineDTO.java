@@ -0,0 +1,22 @@
+package dashboard.IMS.dto;
+
+import lombok.*;
+
+/**
+ * Data Transfer Object (DTO) class for a single line of a batch sale.
+ * Represents the product variation and quantity of one cart item.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleLineDTO {
+
+    private Integer productVariationId;
+    private Integer quantity;
+
+}
@@ -0,0 +1,54 @@
+package dashboard.IMS.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Periods the sales totals can be grouped by.
+ * Weeks start on Monday and months on their first day.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+public enum SalesPeriod {
+    DAY(ChronoUnit.DAYS, 30),
+    WEEK(ChronoUnit.WEEKS, 12),
+    MONTH(ChronoUnit.MONTHS, 12);
+
+    private final ChronoUnit unit;
+    private final int defaultLength;
+
+    SalesPeriod(ChronoUnit unit, int defaultLength) {
+        this.unit = unit;
+        this.defaultLength = defaultLength;
+    }
+
+    /**
+     * Returns the first day of the period that contains a day.
+     *
+     * @param date The day.
+     * @return The first day of its period.
+     */
+    public LocalDate startOf(LocalDate date) {
+        switch (this) {
+            case WEEK:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return date.withDayOfMonth(1);
+            default:
+                return date;
+        }
+    }
+
+    /**
+     * Returns the first day of the default range ending on a day, such as the last 30 days or the last 12 months.
+     *
+     * @param to The last day of the range.
+     * @return The first day of the range.
+     */
+    public LocalDate defaultFrom(LocalDate to) {
+        return startOf(to.minus(defaultLength - 1L, unit));
+    }
+}
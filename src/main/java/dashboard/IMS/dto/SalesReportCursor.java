@@ -0,0 +1,58 @@
+package dashboard.IMS.dto;
+
+import dashboard.IMS.entity.Sales;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the sales report: the transaction date and ID of the last sale on a page.
+ * The next page starts with the sales that sort after it, newest first.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+public record SalesReportCursor(LocalDateTime transactionDate, Integer id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Creates the cursor that continues the report after a sale.
+     *
+     * @param sales The last sale of a page.
+     * @return The cursor of the next page.
+     */
+    public static SalesReportCursor after(Sales sales) {
+        return new SalesReportCursor(sales.getTransactionDate(), sales.getId());
+    }
+
+    /**
+     * Encodes the cursor as an opaque URL-safe token.
+     *
+     * @return The encoded cursor.
+     */
+    public String encode() {
+        String value = transactionDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor token created by {@link #encode()}.
+     *
+     * @param token The encoded cursor.
+     * @return The cursor.
+     * @throws IllegalArgumentException If the token is not a valid cursor.
+     */
+    public static SalesReportCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = value.lastIndexOf(SEPARATOR);
+            return new SalesReportCursor(LocalDateTime.parse(value.substring(0, separatorIndex)),
+                    Integer.valueOf(value.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid sales report cursor.", e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package dashboard.IMS.dto;
+
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Filter for the sales report and exports, bound from the request parameters.
+ * Every field is optional; a null field is not applied.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesReportFilter {
+    // First day to include
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+    // Last day to include
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+    private Integer productId;
+    private Integer productVariationId;
+    // True for refunds only, false for sales only
+    private Boolean isRefund;
+
+    /**
+     * @return The start of the first day to include, or null.
+     */
+    public LocalDateTime fromDateTime() {
+        return from == null ? null : from.atStartOfDay();
+    }
+
+    /**
+     * @return The start of the day after the last day to include, or null.
+     */
+    public LocalDateTime toDateTimeExclusive() {
+        return to == null ? null : to.plusDays(1).atStartOfDay();
+    }
+
+    /**
+     * Describes the filter for report cache keys, using only characters that are safe in file names.
+     *
+     * @return The filter as a string, or "all" if nothing is filtered.
+     */
+    public String toKey() {
+        if (from == null && to == null && productId == null && productVariationId == null && isRefund == null) {
+            return "all";
+        }
+        return (from == null ? "" : from.toString()) + "_" + (to == null ? "" : to.toString())
+                + "_p" + (productId == null ? "" : productId)
+                + "_v" + (productVariationId == null ? "" : productVariationId)
+                + "_r" + (isRefund == null ? "" : isRefund);
+    }
+}
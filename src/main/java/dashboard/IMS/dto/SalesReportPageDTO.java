@@ -0,0 +1,27 @@
+package dashboard.IMS.dto;
+
+import dashboard.IMS.entity.Sales;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for one page of the sales report, read with keyset pagination.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesReportPageDTO {
+    private List<Sales> sales;
+    private int pageSize;
+    private boolean hasNext;
+    // Cursor of the next page, or null on the last page
+    private String nextCursor;
+    // Total number of sales, only counted when requested
+    private Long totalCount;
+}
@@ -0,0 +1,11 @@
+package dashboard.IMS.dto;
+
+/**
+ * High-water mark of a user's sales: the highest sales ID and the number of sales.
+ * Every sale or refund inserts a Sales record, so any change to the report changes this version.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+public record SalesReportVersion(Integer maxSalesId, Long salesCount) {
+}
@@ -0,0 +1,26 @@
+package dashboard.IMS.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object for the total of one group of sales from the analytics engine.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesSliceDTO {
+    // ID of the product, product variation, color or size; null when grouped by period
+    private Integer id;
+    // First day of the day, week or month; null when grouped by ID
+    private LocalDate periodStart;
+    // Quantity, or amount of money
+    private BigDecimal value;
+}
@@ -0,0 +1,40 @@
+package dashboard.IMS.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object for the sales and refund totals of one day, week or month.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesTotalsDTO {
+    // First day of the period
+    private LocalDate periodStart;
+    private Long quantitySold;
+    private Long quantityRefunded;
+    private BigDecimal totalRevenue;
+    private BigDecimal totalCost;
+    private BigDecimal totalProfit;
+
+    /**
+     * Adds the totals of another period to this one.
+     *
+     * @param other The totals to add.
+     */
+    public void add(SalesTotalsDTO other) {
+        quantitySold += other.quantitySold;
+        quantityRefunded += other.quantityRefunded;
+        totalRevenue = totalRevenue.add(other.totalRevenue);
+        totalCost = totalCost.add(other.totalCost);
+        totalProfit = totalProfit.add(other.totalProfit);
+    }
+}
@@ -0,0 +1,31 @@
+package dashboard.IMS.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object for the sales of one product variation over a window of days,
+ * as listed by the top sellers and slow movers.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VariationSalesDTO {
+    private Integer productVariationId;
+    private Integer productId;
+    private String productName;
+    private String colorName;
+    private String sizeName;
+    // Units sold in the window, net of refunds
+    private Long quantitySold;
+    private BigDecimal totalRevenue;
+    private BigDecimal totalProfit;
+    // Units currently in stock
+    private Integer quantityInStock;
+}
@@ -0,0 +1,31 @@
+package dashboard.IMS.entity;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class for Backfill Marker.
+ * Records that a one-time backfill of a derived table, such as sales_summary, has completed,
+ * so it is not run again on later starts.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "backfill_marker")
+public class BackfillMarker {
+
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+}
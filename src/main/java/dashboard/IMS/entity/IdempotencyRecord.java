@@ -0,0 +1,43 @@
+package dashboard.IMS.entity;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class for Idempotency Record.
+ * Holds the response to a request sent with an Idempotency-Key header, so a retry of the request
+ * with the same key gets the same response instead of being executed again.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "idempotency_record",
+        indexes = @Index(name = "idx_idempotency_record_created_at", columnList = "created_at"))
+public class IdempotencyRecord {
+
+    // The ID of the user and the Idempotency-Key, so keys of different users never collide
+    @Id
+    @Column(name = "idempotency_key", length = 300)
+    private String idempotencyKey;
+
+    // SHA-256 of the request the key was first used for
+    @Column(name = "fingerprint", nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(name = "status_code", nullable = false)
+    private int statusCode;
+
+    @Column(name = "response_body", length = 1000)
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,127 @@
+package dashboard.IMS.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amount of money as a whole number of cents.
+ * Arithmetic is done on the long, so sale and refund totals are exact and add no BigDecimal garbage;
+ * amounts are only converted to BigDecimal at the database, JSON and report boundaries.
+ * The static methods work on plain cents for loops that should not create objects at all.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+public record Money(long cents) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    /**
+     * Converts an amount to money, rounding half up to whole cents.
+     *
+     * @param amount The amount, or null.
+     * @return The money, or null if the amount is null.
+     */
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        return amount == null ? null : new Money(toCents(amount));
+    }
+
+    /**
+     * Parses an amount such as "12.50", so request parameters and form fields bind to money.
+     *
+     * @param amount The amount as text.
+     * @return The money.
+     * @throws NumberFormatException If the text is not a number.
+     */
+    public static Money valueOf(String amount) {
+        return of(new BigDecimal(amount.trim()));
+    }
+
+    /**
+     * Converts money to a BigDecimal with two decimal places, passing null through.
+     *
+     * @param money The money, or null.
+     * @return The amount, or null.
+     */
+    public static BigDecimal amountOf(Money money) {
+        return money == null ? null : money.toBigDecimal();
+    }
+
+    /**
+     * Converts an amount to whole cents, rounding half up.
+     *
+     * @param amount The amount.
+     * @return The amount in cents.
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * Returns the share of a total that belongs to part of a quantity, rounded half up to whole cents.
+     * The total is multiplied before dividing, so no per-unit rounding error is multiplied with it.
+     *
+     * @param totalCents The total in cents.
+     * @param part       The part of the quantity.
+     * @param whole      The whole quantity; must be positive.
+     * @return The share of the total in cents.
+     */
+    public static long prorateCents(long totalCents, long part, long whole) {
+        long numerator = Math.multiplyExact(totalCents, part);
+        long quotient = numerator / whole;
+        long remainder = numerator % whole;
+        if (Math.abs(remainder) * 2 >= whole) {
+            quotient += Long.signum(numerator);
+        }
+        return quotient;
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money times(long quantity) {
+        return new Money(Math.multiplyExact(cents, quantity));
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(cents));
+    }
+
+    /**
+     * Returns the share of this total that belongs to part of a quantity, rounded half up to whole cents.
+     *
+     * @param part  The part of the quantity.
+     * @param whole The whole quantity; must be positive.
+     * @return The share of this total.
+     */
+    public Money prorate(long part, long whole) {
+        return new Money(prorateCents(cents, part, whole));
+    }
+
+    /**
+     * @return The amount with two decimal places.
+     */
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,27 @@
+package dashboard.IMS.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * JPA converter storing {@link Money} in the existing DECIMAL money columns,
+ * so the columns and their data stay as they are.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money money) {
+        return Money.amountOf(money);
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal amount) {
+        return Money.of(amount);
+    }
+}
@@ -1,9 +1,11 @@
 package dashboard.IMS.entity;
 
+import dashboard.IMS.utilities.ImageUrlUtil;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -32,19 +34,36 @@ public class Product {
     @Column(name = "product_desc")
     private String productDescription;
 
+    @Convert(converter = MoneyConverter.class)
     @Column(name = "cost_price", precision = 10, scale = 2)
-    private BigDecimal costPrice;
+    private Money costPrice;
 
+    @Convert(converter = MoneyConverter.class)
     @Column(name = "selling_price", precision = 10, scale = 2)
-    private BigDecimal sellingPrice;
+    private Money sellingPrice;
 
+    // Legacy String.valueOf(List) form of the image URLs, only read to migrate older products
     @Column(name = "image_urls")
     private String imageUrls;
 
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "image_url_list")
+    private List<String> imageUrlList;
+
+    // First image URL without its leading slash, computed when the image URLs are set
+    @Column(name = "primary_image_url")
+    private String primaryImageUrl;
+
     // Bidirectional one-to-many relationship with ProductVariation
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ProductVariation> productVariations;
 
+    // Setter for imageUrlList, keeping primaryImageUrl in step with it
+    public void setImageUrlList(List<String> imageUrlList) {
+        this.imageUrlList = imageUrlList;
+        this.primaryImageUrl = ImageUrlUtil.primaryImageUrl(imageUrlList);
+    }
+
     // Setter for productVariations
     public void setProductVariations(List<ProductVariation> productVariations) {
         this.productVariations = productVariations;
@@ -1,5 +1,6 @@
 package dashboard.IMS.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.*;
 
 import jakarta.persistence.*;
@@ -26,6 +27,7 @@ public class ProductVariation {
 
     @ManyToOne(cascade = CascadeType.REMOVE) // Enable cascading deletion
     @JoinColumn(name = "product_id")
+    @JsonIgnoreProperties("productVariations") // Don't serialize the product's variations back again
     private Product product;
 
     @ManyToOne
@@ -39,6 +41,11 @@ public class ProductVariation {
     @Column(name="quantity")
     private int quantity;
 
+    // Units held by active stock reservations. Only changed by the reservation updates of
+    // ProductVariationRepository, never by saving the entity, so a save cannot overwrite a concurrent hold.
+    @Column(name = "reserved_quantity", nullable = false, updatable = false)
+    private int reservedQuantity;
+
     @ManyToOne
     @JoinColumn(name = "user_id") // assuming this is the column name for the user ID
     private User user;  // Reference to the User who created this variation
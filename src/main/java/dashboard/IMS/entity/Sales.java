@@ -3,7 +3,6 @@ package dashboard.IMS.entity;
 import lombok.*;
 
 import jakarta.persistence.*;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
@@ -12,7 +11,16 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "sales")
+@Table(name = "sales", indexes = {
+        // Keyset pagination of the sales report, newest first
+        @Index(name = "idx_sales_user_date_id", columnList = "user_id, transaction_date, id"),
+        // Loading a user's sales newer than a sales ID into the analytics engine
+        @Index(name = "idx_sales_user_id", columnList = "user_id, id"),
+        // Sales report filtered by product variation
+        @Index(name = "idx_sales_user_variation_date", columnList = "user_id, product_variation_id, transaction_date"),
+        // Finding which journaled write-behind sales are already inserted
+        @Index(name = "idx_sales_journal_sequence", columnList = "journal_sequence")
+})
 public class Sales {
 
     @Id
@@ -33,18 +41,25 @@ public class Sales {
     @Column(name = "quantity_refunded")
     private Integer quantityRefunded = 0;
 
+    @Convert(converter = MoneyConverter.class)
     @Column(name = "total_revenue")
-    private BigDecimal totalRevenue;
+    private Money totalRevenue;
 
+    @Convert(converter = MoneyConverter.class)
     @Column(name = "total_cost")
-    private BigDecimal totalCost;
+    private Money totalCost;
 
+    @Convert(converter = MoneyConverter.class)
     @Column(name = "total_profit")
-    private BigDecimal totalProfit;
+    private Money totalProfit;
 
     @Column(name = "transaction_date")
     private LocalDateTime transactionDate;
 
+    // Position of a write-behind sale in the sales journal; null for sales inserted directly
+    @Column(name = "journal_sequence")
+    private Long journalSequence;
+
     @Transient
     private String productName;
 
@@ -0,0 +1,56 @@
+package dashboard.IMS.entity;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Entity class for Sales Daily Rollup.
+ * Holds the sales and refund totals of one product variation for one user on one day,
+ * updated in the same transaction as every sale and refund.
+ * The unique key starts with the user and day, so a date range is read as one index range.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "sales_daily_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_sales_daily_rollup_user_date_variation",
+                columnNames = {"user_id", "sales_date", "product_variation_id"}))
+public class SalesDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(name = "product_variation_id", nullable = false)
+    private Integer productVariationId;
+
+    @Column(name = "quantity_sold", nullable = false)
+    private int quantitySold;
+
+    @Column(name = "quantity_refunded", nullable = false)
+    private int quantityRefunded;
+
+    @Column(name = "total_revenue", precision = 38, scale = 2, nullable = false)
+    private BigDecimal totalRevenue;
+
+    @Column(name = "total_cost", precision = 38, scale = 2, nullable = false)
+    private BigDecimal totalCost;
+
+    @Column(name = "total_profit", precision = 38, scale = 2, nullable = false)
+    private BigDecimal totalProfit;
+}
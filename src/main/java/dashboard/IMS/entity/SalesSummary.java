@@ -0,0 +1,60 @@
+package dashboard.IMS.entity;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Entity class for Sales Summary.
+ * Holds the running sales and refund totals of one product variation for one user,
+ * updated in the same transaction as every sale and refund.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "sales_summary",
+        uniqueConstraints = @UniqueConstraint(name = "uk_sales_summary_user_variation",
+                columnNames = {"user_id", "product_variation_id"}))
+public class SalesSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "product_variation_id", nullable = false)
+    private Integer productVariationId;
+
+    @Column(name = "quantity_sold", nullable = false)
+    private int quantitySold;
+
+    @Column(name = "quantity_refunded", nullable = false)
+    private int quantityRefunded;
+
+    @Column(name = "total_revenue", precision = 38, scale = 2, nullable = false)
+    private BigDecimal totalRevenue;
+
+    @Column(name = "total_cost", precision = 38, scale = 2, nullable = false)
+    private BigDecimal totalCost;
+
+    @Column(name = "total_profit", precision = 38, scale = 2, nullable = false)
+    private BigDecimal totalProfit;
+
+    /**
+     * Returns the quantity that has been sold and not yet refunded.
+     *
+     * @return The quantity left to refund.
+     */
+    public int getQuantityRefundable() {
+        return quantitySold - quantityRefunded;
+    }
+}
@@ -0,0 +1,55 @@
+package dashboard.IMS.entity;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class for Stock Movement.
+ * One append-only row per change to the stock of a product variation; rows are never updated or deleted,
+ * so the stock of a variation at any time is the sum of its movements up to then.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "stock_movement",
+        indexes = {
+                @Index(name = "idx_stock_movement_variation_id", columnList = "product_variation_id, id"),
+                @Index(name = "idx_stock_movement_moved_at", columnList = "moved_at"),
+                @Index(name = "idx_stock_movement_journal_sequence", columnList = "journal_sequence")
+        })
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "product_variation_id", nullable = false)
+    private Integer productVariationId;
+
+    @Column(name = "user_id")
+    private Integer userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "movement_type", length = 20, nullable = false)
+    private StockMovementType movementType;
+
+    // Positive when stock is added, negative when it is taken out
+    @Column(name = "quantity_change", nullable = false)
+    private int quantityChange;
+
+    @Column(name = "moved_at", nullable = false)
+    private LocalDateTime movedAt;
+
+    // Journal position of the write-behind sale this movement belongs to, committed with the stock change,
+    // so a journaled sale whose transaction rolled back is recognized on replay
+    @Column(name = "journal_sequence")
+    private Long journalSequence;
+}
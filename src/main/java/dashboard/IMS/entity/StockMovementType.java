@@ -0,0 +1,11 @@
+package dashboard.IMS.entity;
+
+/**
+ * Reasons the stock of a product variation changes.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+public enum StockMovementType {
+    SALE, REFUND, RESTOCK, ADJUSTMENT
+}
@@ -0,0 +1,45 @@
+package dashboard.IMS.entity;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class for Stock Reservation.
+ * Holds a quantity of a product variation for a user during checkout until it is committed as a sale,
+ * released, or expires. The held quantity is also counted in the variation's reserved quantity,
+ * so the stock available to sell is read from the variation row alone.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "stock_reservation",
+        indexes = @Index(name = "idx_stock_reservation_expires_at", columnList = "expires_at"))
+public class StockReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "product_variation_id", nullable = false)
+    private Integer productVariationId;
+
+    @Column(name = "quantity", nullable = false)
+    private int quantity;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,42 @@
+package dashboard.IMS.entity;
+
+import lombok.*;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class for Stock Snapshot.
+ * The stock of a product variation after all of its movements up to and including the last movement ID,
+ * taken periodically so the stock at a past time is a snapshot plus the few movements after it.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "stock_snapshot",
+        indexes = @Index(name = "idx_stock_snapshot_variation_movement", columnList = "product_variation_id, last_movement_id"))
+public class StockSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "product_variation_id", nullable = false)
+    private Integer productVariationId;
+
+    @Column(name = "quantity", nullable = false)
+    private int quantity;
+
+    @Column(name = "last_movement_id", nullable = false)
+    private Integer lastMovementId;
+
+    // Time of the latest movement included, so the snapshot holds for any time from then on
+    @Column(name = "snapshot_at", nullable = false)
+    private LocalDateTime snapshotAt;
+}
@@ -1,7 +1,9 @@
 package dashboard.IMS.mapper;
 
 import dashboard.IMS.dto.ProductDTO;
+import dashboard.IMS.entity.Money;
 import dashboard.IMS.entity.Product;
+import dashboard.IMS.utilities.ImageUrlUtil;
 import org.springframework.stereotype.Component;
 
 /**
@@ -24,9 +26,15 @@ public class ProductMapper {
         product.setId(productDTO.getId());
         product.setProductName(productDTO.getProductName());
         product.setProductDescription(productDTO.getProductDescription());
-        product.setCostPrice(productDTO.getCostPrice());
-        product.setSellingPrice(productDTO.getSellingPrice());
+        product.setCostPrice(Money.of(productDTO.getCostPrice()));
+        product.setSellingPrice(Money.of(productDTO.getSellingPrice()));
         product.setImageUrls(productDTO.getImageUrls());
+        // Also sets the primary image URL; a DTO with only the legacy string gets its list parsed from it
+        if (productDTO.getImageUrlList() != null) {
+            product.setImageUrlList(productDTO.getImageUrlList());
+        } else if (productDTO.getImageUrls() != null) {
+            product.setImageUrlList(ImageUrlUtil.parseLegacyImageUrls(productDTO.getImageUrls()));
+        }
         return product;
     }
 
@@ -41,9 +49,11 @@ public class ProductMapper {
         productDTO.setId(product.getId());
         productDTO.setProductName(product.getProductName());
         productDTO.setProductDescription(product.getProductDescription());
-        productDTO.setCostPrice(product.getCostPrice());
-        productDTO.setSellingPrice(product.getSellingPrice());
+        productDTO.setCostPrice(Money.amountOf(product.getCostPrice()));
+        productDTO.setSellingPrice(Money.amountOf(product.getSellingPrice()));
         productDTO.setImageUrls(product.getImageUrls());
+        productDTO.setImageUrlList(product.getImageUrlList());
+        productDTO.setPrimaryImageUrl(product.getPrimaryImageUrl());
         return productDTO;
     }
 }
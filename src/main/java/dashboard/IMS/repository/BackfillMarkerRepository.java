@@ -0,0 +1,33 @@
+package dashboard.IMS.repository;
+
+import dashboard.IMS.entity.BackfillMarker;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for BackfillMarker entity.
+ * Provides access to the markers of completed one-time backfills.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Repository
+public interface BackfillMarkerRepository extends JpaRepository<BackfillMarker, String> {
+
+    /**
+     * Inserts a marker, failing with a duplicate key if it already exists, unlike save, which would
+     * overwrite it.
+     *
+     * @param name        The name of the backfill.
+     * @param completedAt When the backfill completed.
+     * @return The number of markers inserted.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO backfill_marker (name, completed_at) VALUES (:name, :completedAt)", nativeQuery = true)
+    int insert(@Param("name") String name, @Param("completedAt") LocalDateTime completedAt);
+}
@@ -0,0 +1,55 @@
+package dashboard.IMS.repository;
+
+import dashboard.IMS.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for IdempotencyRecord entity.
+ * Provides access to the stored responses of requests sent with an Idempotency-Key.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Deletes the records created before a time.
+     *
+     * @param cutoff The time before which records have expired.
+     * @return The number of records deleted.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Deletes the record of a key if it was created before a time.
+     *
+     * @param idempotencyKey The user ID and Idempotency-Key of the record.
+     * @param cutoff         The time before which records have expired.
+     * @return The number of records deleted.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :idempotencyKey AND r.createdAt < :cutoff")
+    int deleteExpired(@Param("idempotencyKey") String idempotencyKey, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Inserts a record, failing with a duplicate key if the key already has one, unlike save, which would
+     * overwrite it.
+     *
+     * @return The number of records inserted.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_record (idempotency_key, fingerprint, status_code, response_body, created_at) " +
+            "VALUES (:idempotencyKey, :fingerprint, :statusCode, :responseBody, :createdAt)", nativeQuery = true)
+    int insert(@Param("idempotencyKey") String idempotencyKey, @Param("fingerprint") String fingerprint,
+               @Param("statusCode") int statusCode, @Param("responseBody") String responseBody,
+               @Param("createdAt") LocalDateTime createdAt);
+}
@@ -5,6 +5,8 @@ import dashboard.IMS.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -28,4 +30,29 @@ public interface ProductRepository extends JpaRepository<Product, Integer> {
     Product findProductByProductName(String productName);
     Page<Product> findByDeletedFalse(Pageable pageable);
 
+    /**
+     * Retrieves the user's products that are not deleted, together with their variations,
+     * colors and sizes, in a single query.
+     *
+     * @param userId The ID of the user who owns the products.
+     * @return The user's products with their variations loaded.
+     */
+    @Query("SELECT DISTINCT p FROM Product p " +
+            "LEFT JOIN FETCH p.productVariations pv " +
+            "LEFT JOIN FETCH pv.color " +
+            "LEFT JOIN FETCH pv.size " +
+            "WHERE p.user.id = :userId AND p.deleted = false " +
+            "ORDER BY p.id")
+    List<Product> findWithVariationsByUserId(@Param("userId") Integer userId);
+
+    /**
+     * Retrieves a page of the products whose image URLs are only stored in the legacy string form,
+     * in ID order after a product ID.
+     *
+     * @param afterId  The ID of the last product of the previous page, or 0 for the first page.
+     * @param pageable The page size.
+     * @return The next products to migrate to the image URL list.
+     */
+    List<Product> findByImageUrlListIsNullAndImageUrlsIsNotNullAndIdGreaterThanOrderById(Integer afterId, Pageable pageable);
+
 }
@@ -1,10 +1,16 @@
 package dashboard.IMS.repository;
 
+import dashboard.IMS.dto.VariationSalesDTO;
 import dashboard.IMS.entity.ProductVariation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,4 +41,113 @@ public interface ProductVariationRepository extends JpaRepository<ProductVariati
     List<Object[]> getTotalQuantitiesByProductUserId(Integer userId);
 
     Optional<ProductVariation> findByIdAndProductUserId(Integer productVariationId, Integer id);
+
+    /**
+     * Retrieves the given product variations owned by the user, together with their product,
+     * color and size, in a single query.
+     *
+     * @param productVariationIds The IDs of the product variations.
+     * @param userId              The ID of the user who owns the products.
+     * @return The matching product variations.
+     */
+    @Query("SELECT pv FROM ProductVariation pv " +
+            "JOIN FETCH pv.product p " +
+            "LEFT JOIN FETCH pv.color " +
+            "LEFT JOIN FETCH pv.size " +
+            "WHERE pv.id IN :productVariationIds AND p.user.id = :userId")
+    List<ProductVariation> findAllWithProductByIdInAndUserId(@Param("productVariationIds") Collection<Integer> productVariationIds,
+                                                             @Param("userId") Integer userId);
+
+    /**
+     * Atomically subtracts the given quantity from a product variation's stock,
+     * but only if at least that much stock is available to sell, i.e. not held by reservations.
+     *
+     * @param productVariationId The ID of the product variation.
+     * @param quantity           The quantity to subtract.
+     * @return 1 if the stock was decremented, 0 if the variation was not found or the stock was insufficient.
+     */
+    @Modifying
+    @Query("UPDATE ProductVariation pv " +
+            "SET pv.quantity = pv.quantity - :quantity " +
+            "WHERE pv.id = :productVariationId AND pv.quantity - pv.reservedQuantity >= :quantity")
+    int decrementQuantityIfAvailable(@Param("productVariationId") Integer productVariationId, @Param("quantity") int quantity);
+
+    /**
+     * Atomically holds the given quantity of a product variation's stock for a reservation,
+     * but only if at least that much stock is available to sell.
+     *
+     * @param productVariationId The ID of the product variation.
+     * @param quantity           The quantity to hold.
+     * @return 1 if the stock was held, 0 if the variation was not found or the stock was insufficient.
+     */
+    @Modifying
+    @Query("UPDATE ProductVariation pv " +
+            "SET pv.reservedQuantity = pv.reservedQuantity + :quantity " +
+            "WHERE pv.id = :productVariationId AND pv.quantity - pv.reservedQuantity >= :quantity")
+    int reserveQuantityIfAvailable(@Param("productVariationId") Integer productVariationId, @Param("quantity") int quantity);
+
+    /**
+     * Atomically stops holding the given quantity of a product variation's stock,
+     * when a reservation is released or expires.
+     *
+     * @param productVariationId The ID of the product variation.
+     * @param quantity           The quantity held by the reservation.
+     * @return The number of rows updated.
+     */
+    @Modifying
+    @Query("UPDATE ProductVariation pv " +
+            "SET pv.reservedQuantity = pv.reservedQuantity - :quantity " +
+            "WHERE pv.id = :productVariationId AND pv.reservedQuantity >= :quantity")
+    int releaseReservedQuantity(@Param("productVariationId") Integer productVariationId, @Param("quantity") int quantity);
+
+    /**
+     * Atomically subtracts the given quantity held by a reservation from a product variation's stock,
+     * when the reservation is committed as a sale.
+     *
+     * @param productVariationId The ID of the product variation.
+     * @param quantity           The quantity held by the reservation.
+     * @return 1 if the stock was decremented, 0 if the variation was not found or did not hold that much.
+     */
+    @Modifying
+    @Query("UPDATE ProductVariation pv " +
+            "SET pv.quantity = pv.quantity - :quantity, pv.reservedQuantity = pv.reservedQuantity - :quantity " +
+            "WHERE pv.id = :productVariationId AND pv.reservedQuantity >= :quantity AND pv.quantity >= :quantity")
+    int commitReservedQuantity(@Param("productVariationId") Integer productVariationId, @Param("quantity") int quantity);
+
+    /**
+     * Atomically adds the given quantity back to a product variation's stock.
+     *
+     * @param productVariationId The ID of the product variation.
+     * @param quantity           The quantity to add.
+     * @return The number of rows updated.
+     */
+    @Modifying
+    @Query("UPDATE ProductVariation pv SET pv.quantity = pv.quantity + :quantity WHERE pv.id = :productVariationId")
+    int incrementQuantity(@Param("productVariationId") Integer productVariationId, @Param("quantity") int quantity);
+
+    boolean existsByIdAndProductUserId(Integer productVariationId, Integer userId);
+
+    /**
+     * Retrieves the user's product variations in stock with the fewest units sold since a date, net of refunds,
+     * including variations with no sales at all. Among equally slow variations, the most stock comes first.
+     * Variations of deleted products are left out. The sums are null for variations without sales.
+     *
+     * @param userId   The ID of the user who owns the product variations.
+     * @param since    The earliest transaction date to include.
+     * @param pageable The number of variations to retrieve, as page 0.
+     * @return The slowest moving variations in stock, fewest units sold first.
+     */
+    @Query("SELECT new dashboard.IMS.dto.VariationSalesDTO(pv.id, p.id, p.productName, c.name, sz.name, " +
+            "SUM(s.quantitySold), SUM(s.totalRevenue), SUM(s.totalProfit), pv.quantity) " +
+            "FROM ProductVariation pv " +
+            "JOIN pv.product p " +
+            "LEFT JOIN pv.color c " +
+            "LEFT JOIN pv.size sz " +
+            "LEFT JOIN Sales s ON s.productVariationId = pv.id AND s.transactionDate >= :since " +
+            "WHERE p.user.id = :userId AND p.deleted = false AND pv.quantity > 0 " +
+            "GROUP BY pv.id, p.id, p.productName, c.name, sz.name, pv.quantity " +
+            "ORDER BY COALESCE(SUM(s.quantitySold), 0), pv.quantity DESC, pv.id")
+    List<VariationSalesDTO> findSlowMovers(@Param("userId") Integer userId,
+                                           @Param("since") LocalDateTime since,
+                                           Pageable pageable);
 }
@@ -0,0 +1,41 @@
+package dashboard.IMS.repository;
+
+import dashboard.IMS.dto.SalesTotalsDTO;
+import dashboard.IMS.entity.SalesDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for SalesDailyRollup entity.
+ * Provides access to the daily sales totals of each product variation.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Repository
+public interface SalesDailyRollupRepository extends JpaRepository<SalesDailyRollup, Integer> {
+
+    /**
+     * Retrieves the user's totals of each day in a range, summed over all product variations.
+     * Days without sales or refunds are left out.
+     *
+     * @param userId The ID of the user who owns the sales.
+     * @param from   The first day to include.
+     * @param to     The last day to include.
+     * @return The totals of each day, oldest first.
+     */
+    @Query("SELECT new dashboard.IMS.dto.SalesTotalsDTO(r.salesDate, SUM(r.quantitySold), SUM(r.quantityRefunded), " +
+            "SUM(r.totalRevenue), SUM(r.totalCost), SUM(r.totalProfit)) " +
+            "FROM SalesDailyRollup r " +
+            "WHERE r.userId = :userId AND r.salesDate >= :from AND r.salesDate <= :to " +
+            "GROUP BY r.salesDate " +
+            "ORDER BY r.salesDate")
+    List<SalesTotalsDTO> findDailyTotals(@Param("userId") Integer userId,
+                                         @Param("from") LocalDate from,
+                                         @Param("to") LocalDate to);
+}
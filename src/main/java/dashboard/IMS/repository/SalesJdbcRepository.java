@@ -0,0 +1,296 @@
+package dashboard.IMS.repository;
+
+import dashboard.IMS.entity.Money;
+import dashboard.IMS.entity.Sales;
+import dashboard.IMS.utilities.SalesColumnStore;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Repository for bulk sales writes.
+ * Uses JDBC batching because Sales IDs are generated by the database,
+ * which keeps Hibernate from batching the inserts itself.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Repository
+public class SalesJdbcRepository {
+
+    private static final String DECREMENT_QUANTITY_SQL =
+            "UPDATE product_variation SET quantity = quantity - ? WHERE id = ? AND quantity - reserved_quantity >= ?";
+
+    private static final String ADD_REFUNDED_QUANTITY_SQL =
+            "UPDATE sales SET quantity_refunded = COALESCE(quantity_refunded, 0) + ? " +
+                    "WHERE id = ? AND quantity_sold - COALESCE(quantity_refunded, 0) >= ?";
+
+    private static final String INSERT_SALES_SQL =
+            "INSERT INTO sales (product_variation_id, quantity_sold, quantity_refunded, total_revenue, total_cost, " +
+                    "total_profit, transaction_date, user_id, is_refund, journal_sequence) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_SALES_SUMMARY_SQL =
+            "INSERT INTO sales_summary (user_id, product_variation_id, quantity_sold, quantity_refunded, " +
+                    "total_revenue, total_cost, total_profit) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE quantity_sold = quantity_sold + VALUES(quantity_sold), " +
+                    "quantity_refunded = quantity_refunded + VALUES(quantity_refunded), " +
+                    "total_revenue = total_revenue + VALUES(total_revenue), " +
+                    "total_cost = total_cost + VALUES(total_cost), " +
+                    "total_profit = total_profit + VALUES(total_profit)";
+
+    private static final String DELETE_SALES_SUMMARIES_SQL = "DELETE FROM sales_summary";
+
+    private static final String REBUILD_SALES_SUMMARY_SQL =
+            "INSERT INTO sales_summary (user_id, product_variation_id, quantity_sold, quantity_refunded, " +
+                    "total_revenue, total_cost, total_profit) " +
+                    "SELECT user_id, product_variation_id, " +
+                    "COALESCE(SUM(CASE WHEN is_refund = 1 THEN 0 ELSE quantity_sold END), 0), " +
+                    "COALESCE(SUM(CASE WHEN is_refund = 1 THEN -quantity_sold ELSE 0 END), 0), " +
+                    "COALESCE(SUM(total_revenue), 0), COALESCE(SUM(total_cost), 0), COALESCE(SUM(total_profit), 0) " +
+                    "FROM sales WHERE user_id IS NOT NULL AND product_variation_id IS NOT NULL " +
+                    "GROUP BY user_id, product_variation_id";
+
+    private static final String UPSERT_DAILY_ROLLUP_SQL =
+            "INSERT INTO sales_daily_rollup (user_id, sales_date, product_variation_id, quantity_sold, quantity_refunded, " +
+                    "total_revenue, total_cost, total_profit) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE quantity_sold = quantity_sold + VALUES(quantity_sold), " +
+                    "quantity_refunded = quantity_refunded + VALUES(quantity_refunded), " +
+                    "total_revenue = total_revenue + VALUES(total_revenue), " +
+                    "total_cost = total_cost + VALUES(total_cost), " +
+                    "total_profit = total_profit + VALUES(total_profit)";
+
+    private static final String DELETE_DAILY_ROLLUPS_SQL = "DELETE FROM sales_daily_rollup";
+
+    private static final String REBUILD_DAILY_ROLLUP_SQL =
+            "INSERT INTO sales_daily_rollup (user_id, sales_date, product_variation_id, quantity_sold, quantity_refunded, " +
+                    "total_revenue, total_cost, total_profit) " +
+                    "SELECT user_id, DATE(transaction_date), product_variation_id, " +
+                    "COALESCE(SUM(CASE WHEN is_refund = 1 THEN 0 ELSE quantity_sold END), 0), " +
+                    "COALESCE(SUM(CASE WHEN is_refund = 1 THEN -quantity_sold ELSE 0 END), 0), " +
+                    "COALESCE(SUM(total_revenue), 0), COALESCE(SUM(total_cost), 0), COALESCE(SUM(total_profit), 0) " +
+                    "FROM sales WHERE user_id IS NOT NULL AND product_variation_id IS NOT NULL " +
+                    "AND transaction_date IS NOT NULL " +
+                    "GROUP BY user_id, DATE(transaction_date), product_variation_id";
+
+    private static final String SELECT_SALES_COLUMNS_SQL =
+            "SELECT s.id, s.product_variation_id, pv.product_id, pv.color_id, pv.size_id, s.quantity_sold, " +
+                    "s.total_revenue, s.total_cost, s.total_profit, s.transaction_date " +
+                    "FROM sales s LEFT JOIN product_variation pv ON pv.id = s.product_variation_id " +
+                    "WHERE s.user_id = ? AND s.id > ? ORDER BY s.id";
+
+    private static final String SELECT_JOURNAL_SEQUENCES_SQL =
+            "SELECT journal_sequence FROM sales WHERE journal_sequence BETWEEN ? AND ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SalesJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Decrements the stock of several product variations in one batch.
+     * Each variation is only decremented if it has at least the requested quantity not held by reservations.
+     *
+     * @param quantities A map of product variation IDs to the quantity to subtract.
+     * @return True if every variation was decremented, false if any had insufficient stock.
+     */
+    public boolean decrementQuantitiesIfAvailable(Map<Integer, Integer> quantities) {
+        List<Object[]> batchArgs = new ArrayList<>(quantities.size());
+        for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+            batchArgs.add(new Object[]{entry.getValue(), entry.getKey(), entry.getValue()});
+        }
+
+        return allUpdated(jdbcTemplate.batchUpdate(DECREMENT_QUANTITY_SQL, batchArgs));
+    }
+
+    /**
+     * Adds refunded quantities to several Sales records in one batch.
+     * Each record is only updated if it still has at least that many units left to refund.
+     *
+     * @param refundedQuantities A map of Sales IDs to the quantity being refunded.
+     * @return True if every record was updated, false if any was refunded concurrently.
+     */
+    public boolean addRefundedQuantities(Map<Integer, Integer> refundedQuantities) {
+        List<Object[]> batchArgs = new ArrayList<>(refundedQuantities.size());
+        for (Map.Entry<Integer, Integer> entry : refundedQuantities.entrySet()) {
+            batchArgs.add(new Object[]{entry.getValue(), entry.getKey(), entry.getValue()});
+        }
+        return allUpdated(jdbcTemplate.batchUpdate(ADD_REFUNDED_QUANTITY_SQL, batchArgs));
+    }
+
+    /**
+     * Inserts several Sales records in one batch.
+     *
+     * @param salesList The Sales records to insert. Each must have a user set.
+     */
+    public void insertAll(List<Sales> salesList) {
+        jdbcTemplate.batchUpdate(INSERT_SALES_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Sales sales = salesList.get(i);
+                ps.setObject(1, sales.getProductVariationId());
+                ps.setObject(2, sales.getQuantitySold());
+                ps.setObject(3, sales.getQuantityRefunded());
+                ps.setBigDecimal(4, Money.amountOf(sales.getTotalRevenue()));
+                ps.setBigDecimal(5, Money.amountOf(sales.getTotalCost()));
+                ps.setBigDecimal(6, Money.amountOf(sales.getTotalProfit()));
+                ps.setTimestamp(7, Timestamp.valueOf(sales.getTransactionDate()));
+                ps.setInt(8, sales.getUser().getId());
+                ps.setBoolean(9, sales.getIsRefund());
+                ps.setObject(10, sales.getJournalSequence());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return salesList.size();
+            }
+        });
+    }
+
+    /**
+     * Adds sales and refunds to the running totals of their product variations in one batch.
+     * Sales add to the sold quantity and refunds to the refunded quantity; the money totals
+     * of refunds are already negative.
+     *
+     * @param salesList The Sales records just inserted. Each must have a user set.
+     */
+    public void addToSalesSummaries(List<Sales> salesList) {
+        jdbcTemplate.batchUpdate(UPSERT_SALES_SUMMARY_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Sales sales = salesList.get(i);
+                boolean refund = sales.getIsRefund();
+                ps.setInt(1, sales.getUser().getId());
+                ps.setInt(2, sales.getProductVariationId());
+                ps.setInt(3, refund ? 0 : sales.getQuantitySold());
+                ps.setInt(4, refund ? -sales.getQuantitySold() : 0);
+                ps.setBigDecimal(5, zeroIfNull(sales.getTotalRevenue()));
+                ps.setBigDecimal(6, zeroIfNull(sales.getTotalCost()));
+                ps.setBigDecimal(7, zeroIfNull(sales.getTotalProfit()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return salesList.size();
+            }
+        });
+    }
+
+    /**
+     * Adds sales and refunds to the daily totals of their product variations in one batch.
+     * Each record is added to the day of its transaction date; the money totals of refunds are already negative.
+     *
+     * @param salesList The Sales records just inserted. Each must have a user set.
+     */
+    public void addToDailyRollups(List<Sales> salesList) {
+        jdbcTemplate.batchUpdate(UPSERT_DAILY_ROLLUP_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Sales sales = salesList.get(i);
+                boolean refund = sales.getIsRefund();
+                ps.setInt(1, sales.getUser().getId());
+                ps.setDate(2, Date.valueOf(sales.getTransactionDate().toLocalDate()));
+                ps.setInt(3, sales.getProductVariationId());
+                ps.setInt(4, refund ? 0 : sales.getQuantitySold());
+                ps.setInt(5, refund ? -sales.getQuantitySold() : 0);
+                ps.setBigDecimal(6, zeroIfNull(sales.getTotalRevenue()));
+                ps.setBigDecimal(7, zeroIfNull(sales.getTotalCost()));
+                ps.setBigDecimal(8, zeroIfNull(sales.getTotalProfit()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return salesList.size();
+            }
+        });
+    }
+
+    /**
+     * Replaces the daily totals of every product variation with totals built from the full sales history.
+     * Must run in a transaction, so the table is never seen empty.
+     *
+     * @return The number of rollup rows inserted.
+     */
+    public int rebuildDailyRollups() {
+        jdbcTemplate.update(DELETE_DAILY_ROLLUPS_SQL);
+        return jdbcTemplate.update(REBUILD_DAILY_ROLLUP_SQL);
+    }
+
+    /**
+     * Replaces the running totals of every product variation with totals built from the full sales history.
+     * Must run in a transaction, so the table is never seen empty.
+     *
+     * @return The number of summary rows inserted.
+     */
+    public int rebuildSalesSummaries() {
+        jdbcTemplate.update(DELETE_SALES_SUMMARIES_SQL);
+        return jdbcTemplate.update(REBUILD_SALES_SUMMARY_SQL);
+    }
+
+    /**
+     * Appends the user's sales newer than a sales ID to an analytics column store, with the product,
+     * color and size of each sale's variation. Rows are streamed straight into the store's arrays
+     * without creating entities. The store skips sales it already holds, so the range may overlap earlier loads.
+     *
+     * @param userId       The ID of the user who owns the sales.
+     * @param afterSalesId The ID to load sales after, or 0 to load all sales.
+     * @param store        The store to append to.
+     */
+    public void loadSalesColumns(Integer userId, int afterSalesId, SalesColumnStore store) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_SALES_COLUMNS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Makes the MySQL driver stream the rows instead of buffering the whole result
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setInt(1, userId);
+            ps.setInt(2, afterSalesId);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            Timestamp transactionDate = rs.getTimestamp(10);
+            store.append(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4), rs.getInt(5), rs.getInt(6),
+                    toCents(rs.getBigDecimal(7)), toCents(rs.getBigDecimal(8)), toCents(rs.getBigDecimal(9)),
+                    transactionDate == null ? 0 : (int) transactionDate.toLocalDateTime().toLocalDate().toEpochDay());
+        });
+    }
+
+    /**
+     * Finds the journal sequence numbers in a range whose write-behind sale is already inserted.
+     *
+     * @param from The lowest sequence number, inclusive.
+     * @param to   The highest sequence number, inclusive.
+     * @return The inserted sequence numbers.
+     */
+    public Set<Long> findJournalSequences(long from, long to) {
+        return new HashSet<>(jdbcTemplate.queryForList(SELECT_JOURNAL_SEQUENCES_SQL, Long.class, from, to));
+    }
+
+    private static long toCents(BigDecimal value) {
+        return value == null ? 0 : Money.toCents(value);
+    }
+
+    private static BigDecimal zeroIfNull(Money value) {
+        return value != null ? value.toBigDecimal() : BigDecimal.ZERO;
+    }
+
+    private static boolean allUpdated(int[] updateCounts) {
+        for (int updateCount : updateCounts) {
+            if (updateCount == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
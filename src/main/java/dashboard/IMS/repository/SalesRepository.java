@@ -1,15 +1,24 @@
 package dashboard.IMS.repository;
 
+import dashboard.IMS.dto.SalesReportVersion;
 import dashboard.IMS.dto.UserDTO;
+import dashboard.IMS.dto.VariationSalesDTO;
 import dashboard.IMS.entity.Sales;
 import dashboard.IMS.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Sales entity.
@@ -20,6 +29,18 @@ import java.util.Optional;
  */
 @Repository
 public interface SalesRepository extends JpaRepository<Sales, Integer> {
+
+    /**
+     * Optional sales report filters shared by the report queries; a null parameter is not applied.
+     * The date bounds keep a date-range report on its part of the (user_id, transaction_date, id) index.
+     */
+    String REPORT_FILTER = "AND (:from IS NULL OR s.transactionDate >= :from) " +
+            "AND (:to IS NULL OR s.transactionDate < :to) " +
+            "AND (:productVariationId IS NULL OR s.productVariationId = :productVariationId) " +
+            "AND (:productId IS NULL OR s.productVariationId IN " +
+            "(SELECT v.id FROM ProductVariation v WHERE v.product.id = :productId)) " +
+            "AND (:isRefund IS NULL OR s.isRefund = :isRefund) ";
+
     List<Sales> findByUserId(Integer userId);
 
     List<Sales> findAllByUser(UserDTO loggedInUser);
@@ -35,4 +56,174 @@ public interface SalesRepository extends JpaRepository<Sales, Integer> {
     List<Sales> findByProductVariationIdAndUserIdOrderByTransactionDateDesc(Integer productVariationId, Integer id);
 
     Page<Sales> findByUser(User user, Pageable pageable);
+
+    /**
+     * Retrieves the first page of the user's sales report, newest first, fetching the product variation,
+     * product, color and size of each sale in the same query.
+     * Served from the (user_id, transaction_date, id) index without an offset or count.
+     *
+     * @param userId             The ID of the user who owns the sales.
+     * @param from               The earliest transaction date to include, or null.
+     * @param to                 The transaction date before which to stop, or null.
+     * @param productId          The ID of the product to include, or null.
+     * @param productVariationId The ID of the product variation to include, or null.
+     * @param isRefund           True for refunds only, false for sales only, or null for both.
+     * @param pageable           The number of sales to retrieve, as page 0.
+     * @return The newest sales with their product details loaded.
+     */
+    @Query("SELECT s FROM Sales s " +
+            "LEFT JOIN FETCH s.productVariation pv " +
+            "LEFT JOIN FETCH pv.product " +
+            "LEFT JOIN FETCH pv.color " +
+            "LEFT JOIN FETCH pv.size " +
+            "WHERE s.user.id = :userId " +
+            REPORT_FILTER +
+            "ORDER BY s.transactionDate DESC, s.id DESC")
+    List<Sales> findReportFirstPage(@Param("userId") Integer userId,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to,
+                                    @Param("productId") Integer productId,
+                                    @Param("productVariationId") Integer productVariationId,
+                                    @Param("isRefund") Boolean isRefund,
+                                    Pageable pageable);
+
+    /**
+     * Retrieves the page of the user's sales report that follows a sale, newest first.
+     * Seeks past the (transactionDate, id) of the previous page's last sale, so every page costs the same.
+     *
+     * @param userId             The ID of the user who owns the sales.
+     * @param transactionDate    The transaction date of the previous page's last sale.
+     * @param id                 The ID of the previous page's last sale.
+     * @param from               The earliest transaction date to include, or null.
+     * @param to                 The transaction date before which to stop, or null.
+     * @param productId          The ID of the product to include, or null.
+     * @param productVariationId The ID of the product variation to include, or null.
+     * @param isRefund           True for refunds only, false for sales only, or null for both.
+     * @param pageable           The number of sales to retrieve, as page 0.
+     * @return The next sales with their product details loaded.
+     */
+    @Query("SELECT s FROM Sales s " +
+            "LEFT JOIN FETCH s.productVariation pv " +
+            "LEFT JOIN FETCH pv.product " +
+            "LEFT JOIN FETCH pv.color " +
+            "LEFT JOIN FETCH pv.size " +
+            "WHERE s.user.id = :userId " +
+            "AND (s.transactionDate < :transactionDate " +
+            "OR (s.transactionDate = :transactionDate AND s.id < :id)) " +
+            REPORT_FILTER +
+            "ORDER BY s.transactionDate DESC, s.id DESC")
+    List<Sales> findReportPageAfter(@Param("userId") Integer userId,
+                                    @Param("transactionDate") LocalDateTime transactionDate,
+                                    @Param("id") Integer id,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to,
+                                    @Param("productId") Integer productId,
+                                    @Param("productVariationId") Integer productVariationId,
+                                    @Param("isRefund") Boolean isRefund,
+                                    Pageable pageable);
+
+    long countByUserId(Integer userId);
+
+    /**
+     * Counts the user's sales that match the report filters.
+     *
+     * @param userId             The ID of the user who owns the sales.
+     * @param from               The earliest transaction date to include, or null.
+     * @param to                 The transaction date before which to stop, or null.
+     * @param productId          The ID of the product to include, or null.
+     * @param productVariationId The ID of the product variation to include, or null.
+     * @param isRefund           True for refunds only, false for sales only, or null for both.
+     * @return The number of matching sales.
+     */
+    @Query("SELECT COUNT(s) FROM Sales s WHERE s.user.id = :userId " + REPORT_FILTER)
+    long countReport(@Param("userId") Integer userId,
+                     @Param("from") LocalDateTime from,
+                     @Param("to") LocalDateTime to,
+                     @Param("productId") Integer productId,
+                     @Param("productVariationId") Integer productVariationId,
+                     @Param("isRefund") Boolean isRefund);
+
+    /**
+     * Retrieves the highest sales ID and the number of sales of the user, to tell whether a cached report is current.
+     *
+     * @param userId The ID of the user who owns the sales.
+     * @return The version of the user's sales.
+     */
+    @Query("SELECT new dashboard.IMS.dto.SalesReportVersion(MAX(s.id), COUNT(s)) FROM Sales s WHERE s.user.id = :userId")
+    SalesReportVersion findReportVersionByUserId(@Param("userId") Integer userId);
+
+    /**
+     * Streams the user's sales for the streaming exports, fetching the product variation,
+     * its product, color and size in the same query.
+     * Sales can be limited by the report filters; a null filter is not applied.
+     * The MySQL driver streams the rows one at a time instead of buffering the whole result;
+     * the stream must be consumed inside a transaction and closed afterwards.
+     *
+     * @param userId             The ID of the user who owns the sales.
+     * @param from               The earliest transaction date to include, or null.
+     * @param to                 The transaction date before which to stop, or null.
+     * @param productId          The ID of the product to include, or null.
+     * @param productVariationId The ID of the product variation to include, or null.
+     * @param isRefund           True for refunds only, false for sales only, or null for both.
+     * @return The user's sales with their product details loaded, oldest first.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM Sales s " +
+            "LEFT JOIN FETCH s.productVariation pv " +
+            "LEFT JOIN FETCH pv.product " +
+            "LEFT JOIN FETCH pv.color " +
+            "LEFT JOIN FETCH pv.size " +
+            "WHERE s.user.id = :userId " +
+            REPORT_FILTER +
+            "ORDER BY s.transactionDate, s.id")
+    Stream<Sales> streamReportByUserId(@Param("userId") Integer userId,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to,
+                                       @Param("productId") Integer productId,
+                                       @Param("productVariationId") Integer productVariationId,
+                                       @Param("isRefund") Boolean isRefund);
+
+    /**
+     * Retrieves the user's product variations with the most units sold since a date, net of refunds,
+     * with their product, color and size names. Variations of deleted products are left out.
+     *
+     * @param userId   The ID of the user who owns the sales.
+     * @param since    The earliest transaction date to include.
+     * @param pageable The number of variations to retrieve, as page 0.
+     * @return The best selling variations, most units sold first.
+     */
+    @Query("SELECT new dashboard.IMS.dto.VariationSalesDTO(pv.id, p.id, p.productName, c.name, sz.name, " +
+            "SUM(s.quantitySold), SUM(s.totalRevenue), SUM(s.totalProfit), pv.quantity) " +
+            "FROM Sales s " +
+            "JOIN s.productVariation pv " +
+            "JOIN pv.product p " +
+            "LEFT JOIN pv.color c " +
+            "LEFT JOIN pv.size sz " +
+            "WHERE s.user.id = :userId AND s.transactionDate >= :since AND p.deleted = false " +
+            "GROUP BY pv.id, p.id, p.productName, c.name, sz.name, pv.quantity " +
+            "HAVING SUM(s.quantitySold) > 0 " +
+            "ORDER BY SUM(s.quantitySold) DESC, SUM(s.totalRevenue) DESC, pv.id")
+    List<VariationSalesDTO> findTopSellers(@Param("userId") Integer userId,
+                                           @Param("since") LocalDateTime since,
+                                           Pageable pageable);
+
+    /**
+     * Retrieves a page of the user's sales of a product variation that still have units left to refund,
+     * newest first. Refunds walk these pages only until the requested quantity is covered.
+     *
+     * @param productVariationId The ID of the product variation.
+     * @param userId             The ID of the user who owns the sales.
+     * @param pageable           The page to retrieve.
+     * @return The refundable sales on the page.
+     */
+    @Query("SELECT s FROM Sales s " +
+            "WHERE s.productVariationId = :productVariationId AND s.user.id = :userId " +
+            "AND s.isRefund = false AND s.quantitySold > COALESCE(s.quantityRefunded, 0) " +
+            "ORDER BY s.transactionDate DESC, s.id DESC")
+    List<Sales> findRefundable(@Param("productVariationId") Integer productVariationId,
+                               @Param("userId") Integer userId,
+                               Pageable pageable);
 }
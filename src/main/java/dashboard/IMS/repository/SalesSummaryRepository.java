@@ -0,0 +1,23 @@
+package dashboard.IMS.repository;
+
+import dashboard.IMS.entity.SalesSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for SalesSummary entity.
+ * Provides access to the running sales totals of each product variation.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Repository
+public interface SalesSummaryRepository extends JpaRepository<SalesSummary, Integer> {
+
+    Optional<SalesSummary> findByUserIdAndProductVariationId(Integer userId, Integer productVariationId);
+
+    List<SalesSummary> findByUserId(Integer userId);
+}
@@ -0,0 +1,152 @@
+package dashboard.IMS.repository;
+
+import dashboard.IMS.entity.StockMovement;
+import dashboard.IMS.entity.StockMovementType;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Repository for the stock movement ledger writes.
+ * Movements are inserted with JDBC batches, and snapshots are computed by the database
+ * from the previous snapshot and the movements after it.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Repository
+public class StockMovementJdbcRepository {
+
+    private static final String INSERT_MOVEMENT_SQL =
+            "INSERT INTO stock_movement (product_variation_id, user_id, movement_type, quantity_change, moved_at, " +
+                    "journal_sequence) VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Only the stock not already accounted for by movements, so movements made before the opening are not counted twice
+    private static final String INSERT_OPENING_BALANCES_SQL =
+            "INSERT INTO stock_movement (product_variation_id, user_id, movement_type, quantity_change, moved_at) " +
+                    "SELECT pv.id, pv.user_id, '" + StockMovementType.ADJUSTMENT.name() + "', " +
+                    "pv.quantity - COALESCE(m.total_change, 0), ? " +
+                    "FROM product_variation pv LEFT JOIN (SELECT product_variation_id, SUM(quantity_change) AS total_change " +
+                    "FROM stock_movement GROUP BY product_variation_id) m ON m.product_variation_id = pv.id " +
+                    "WHERE pv.quantity <> COALESCE(m.total_change, 0)";
+
+    // Movements with an ID below the first one made after the cutoff, so a transaction that took
+    // an ID earlier but committed later is not skipped by the snapshot
+    private static final String SELECT_SETTLED_MOVEMENT_ID_SQL =
+            "SELECT COALESCE((SELECT MIN(id) - 1 FROM stock_movement WHERE moved_at >= ?), " +
+                    "(SELECT MAX(id) FROM stock_movement), 0)";
+
+    private static final String INSERT_SNAPSHOTS_SQL =
+            "INSERT INTO stock_snapshot (product_variation_id, quantity, last_movement_id, snapshot_at) " +
+                    "SELECT m.product_variation_id, " +
+                    "COALESCE(p.quantity, 0) + SUM(m.quantity_change), MAX(m.id), " +
+                    "GREATEST(COALESCE(p.snapshot_at, MAX(m.moved_at)), MAX(m.moved_at)) " +
+                    "FROM stock_movement m " +
+                    "LEFT JOIN stock_snapshot p ON p.product_variation_id = m.product_variation_id " +
+                    "AND p.last_movement_id = (SELECT MAX(s.last_movement_id) FROM stock_snapshot s " +
+                    "WHERE s.product_variation_id = m.product_variation_id) " +
+                    "WHERE m.id <= ? AND m.id > COALESCE(p.last_movement_id, 0) " +
+                    "GROUP BY m.product_variation_id, p.quantity, p.snapshot_at";
+
+    private static final String SELECT_MAX_JOURNAL_SEQUENCE_SQL =
+            "SELECT COALESCE(MAX(journal_sequence), 0) FROM stock_movement";
+
+    private static final String SELECT_JOURNAL_SEQUENCES_SQL =
+            "SELECT journal_sequence FROM stock_movement WHERE journal_sequence BETWEEN ? AND ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockMovementJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Appends several stock movements in one batch.
+     *
+     * @param movements The movements to append.
+     */
+    public void insertAll(List<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_MOVEMENT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StockMovement movement = movements.get(i);
+                ps.setObject(1, movement.getProductVariationId());
+                ps.setObject(2, movement.getUserId());
+                ps.setString(3, movement.getMovementType().name());
+                ps.setInt(4, movement.getQuantityChange());
+                ps.setTimestamp(5, Timestamp.valueOf(movement.getMovedAt()));
+                ps.setObject(6, movement.getJournalSequence());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return movements.size();
+            }
+        });
+    }
+
+    /**
+     * Appends one adjustment per product variation whose current stock differs from the sum of its movements,
+     * so the ledger of stock that existed before it was added starts from the right quantity. Running it again
+     * appends nothing unless stock was changed without a movement.
+     *
+     * @param movedAt The time of the opening movements.
+     * @return The number of movements appended.
+     */
+    public int insertOpeningBalances(LocalDateTime movedAt) {
+        return jdbcTemplate.update(INSERT_OPENING_BALANCES_SQL, Timestamp.valueOf(movedAt));
+    }
+
+    /**
+     * Finds the highest movement ID that every snapshot can include: all movements up to it
+     * were made before the cutoff.
+     *
+     * @param cutoff The time before which movements are settled.
+     * @return The highest settled movement ID, or 0 if there are none.
+     */
+    public int findSettledMovementId(LocalDateTime cutoff) {
+        Integer movementId = jdbcTemplate.queryForObject(SELECT_SETTLED_MOVEMENT_ID_SQL, Integer.class, Timestamp.valueOf(cutoff));
+        return movementId != null ? movementId : 0;
+    }
+
+    /**
+     * Takes a new snapshot of every product variation with movements after its latest snapshot,
+     * up to and including a movement ID.
+     *
+     * @param lastMovementId The highest movement ID to include.
+     * @return The number of snapshots taken.
+     */
+    public int insertSnapshots(int lastMovementId) {
+        return jdbcTemplate.update(INSERT_SNAPSHOTS_SQL, lastMovementId);
+    }
+
+    /**
+     * @return The highest journal sequence number of a committed write-behind sale, or 0 if none.
+     */
+    public long findMaxJournalSequence() {
+        Long journalSequence = jdbcTemplate.queryForObject(SELECT_MAX_JOURNAL_SEQUENCE_SQL, Long.class);
+        return journalSequence != null ? journalSequence : 0;
+    }
+
+    /**
+     * Finds the journal sequence numbers in a range whose write-behind sale committed its stock change.
+     *
+     * @param from The lowest sequence number, inclusive.
+     * @param to   The highest sequence number, inclusive.
+     * @return The committed sequence numbers.
+     */
+    public Set<Long> findJournalSequences(long from, long to) {
+        return new HashSet<>(jdbcTemplate.queryForList(SELECT_JOURNAL_SEQUENCES_SQL, Long.class, from, to));
+    }
+}
@@ -0,0 +1,35 @@
+package dashboard.IMS.repository;
+
+import dashboard.IMS.entity.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for StockMovement entity.
+ * Provides access to the stock movement ledger.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Integer> {
+
+    /**
+     * Sums the stock changes of a product variation after a movement, up to a time.
+     * Reads the (product_variation_id, id) index from the movement onwards only.
+     *
+     * @param productVariationId The ID of the product variation.
+     * @param afterMovementId    The ID of the last movement already counted, or 0.
+     * @param asOf               The latest time to include.
+     * @return The sum of the stock changes.
+     */
+    @Query("SELECT COALESCE(SUM(m.quantityChange), 0) FROM StockMovement m " +
+            "WHERE m.productVariationId = :productVariationId AND m.id > :afterMovementId AND m.movedAt <= :asOf")
+    long sumQuantityChanges(@Param("productVariationId") Integer productVariationId,
+                            @Param("afterMovementId") Integer afterMovementId,
+                            @Param("asOf") LocalDateTime asOf);
+}
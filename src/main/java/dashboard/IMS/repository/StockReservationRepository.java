@@ -0,0 +1,47 @@
+package dashboard.IMS.repository;
+
+import dashboard.IMS.entity.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for StockReservation entity.
+ * Provides access to the active stock reservations.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Integer> {
+
+    Optional<StockReservation> findByIdAndUserId(Integer id, Integer userId);
+
+    /**
+     * Retrieves the reservations that expired at or before a time, oldest first.
+     *
+     * @param now      The current time.
+     * @param pageable The number of reservations to retrieve, as page 0.
+     * @return The expired reservations.
+     */
+    @Query("SELECT r FROM StockReservation r WHERE r.expiresAt <= :now ORDER BY r.expiresAt")
+    List<StockReservation> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Deletes a reservation. Whoever deletes it owns its held quantity, so a reservation that is
+     * committed, released and reaped at the same time is only acted on once.
+     *
+     * @param id The ID of the reservation.
+     * @return 1 if the reservation was deleted, 0 if it was already gone.
+     */
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.id = :id")
+    int deleteReservation(@Param("id") Integer id);
+}
@@ -0,0 +1,22 @@
+package dashboard.IMS.repository;
+
+import dashboard.IMS.entity.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository interface for StockSnapshot entity.
+ * Provides access to the periodic stock snapshots of each product variation.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Integer> {
+
+    Optional<StockSnapshot> findFirstByProductVariationIdAndSnapshotAtLessThanEqualOrderByLastMovementIdDesc(Integer productVariationId,
+                                                                                                             LocalDateTime asOf);
+}
@@ -0,0 +1,155 @@
+package dashboard.IMS.restcontroller;
+
+import dashboard.IMS.dto.SalesPeriod;
+import dashboard.IMS.dto.SalesSliceDTO;
+import dashboard.IMS.dto.SalesTotalsDTO;
+import dashboard.IMS.dto.UserDTO;
+import dashboard.IMS.dto.VariationSalesDTO;
+import dashboard.IMS.service.SalesAnalyticsEngine;
+import dashboard.IMS.service.SalesAnalyticsService;
+import dashboard.IMS.utilities.SalesColumnStore.Dimension;
+import dashboard.IMS.utilities.SalesColumnStore.Measure;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * RestController class for sales analytics of the logged-in user.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsRestController {
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Autowired
+    private SalesAnalyticsEngine salesAnalyticsEngine;
+
+    /**
+     * Retrieves the sales and refund totals of each day, week or month with sales in a range.
+     *
+     * @param period  DAY, WEEK or MONTH.
+     * @param from    The first day to include, e.g. 2024-01-31; the last 30 days, 12 weeks or 12 months if absent.
+     * @param to      The last day to include; today if absent.
+     * @param request HTTP servlet request.
+     * @return The totals of each period, oldest first.
+     */
+    @GetMapping("/sales-totals")
+    public ResponseEntity<List<SalesTotalsDTO>> salesTotals(@RequestParam(defaultValue = "DAY") SalesPeriod period,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                            HttpServletRequest request) {
+        UserDTO loggedInUser = (UserDTO) request.getSession().getAttribute("loggedInUser");
+        if (loggedInUser == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : period.defaultFrom(end);
+        try {
+            return new ResponseEntity<>(salesAnalyticsService.getTotals(loggedInUser.getId(), period, start, end), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Slices the sales of the logged-in user: sums a measure by product, product variation, color, size or period,
+     * optionally keeping only the groups with the highest or lowest totals.
+     *
+     * @param groupBy   PRODUCT, PRODUCT_VARIATION, COLOR, SIZE, DAY, WEEK or MONTH.
+     * @param measure   QUANTITY, REVENUE, COST or PROFIT.
+     * @param from      The first day to include, e.g. 2024-01-31; the last 30 days if absent.
+     * @param to        The last day to include; today if absent.
+     * @param limit     The number of groups to keep, ordered by their totals; all groups, ordered by ID or period, if absent.
+     * @param ascending Whether to keep the lowest totals instead of the highest.
+     * @param request   HTTP servlet request.
+     * @return The total of each group.
+     */
+    @GetMapping("/slice")
+    public ResponseEntity<List<SalesSliceDTO>> slice(@RequestParam Dimension groupBy,
+                                                     @RequestParam(defaultValue = "PROFIT") Measure measure,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                     @RequestParam(required = false) Integer limit,
+                                                     @RequestParam(defaultValue = "false") boolean ascending,
+                                                     HttpServletRequest request) {
+        UserDTO loggedInUser = (UserDTO) request.getSession().getAttribute("loggedInUser");
+        if (loggedInUser == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : SalesPeriod.DAY.defaultFrom(end);
+        if (end.isBefore(start)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        List<SalesSliceDTO> slices = limit == null
+                ? salesAnalyticsEngine.groupBy(loggedInUser.getId(), groupBy, measure, start, end)
+                : salesAnalyticsEngine.topN(loggedInUser.getId(), groupBy, measure, limit, ascending, start, end);
+        return new ResponseEntity<>(slices, HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the product variations of the logged-in user with the most units sold in the last days.
+     *
+     * @param days    The number of days to look back, including today.
+     * @param limit   The maximum number of variations to return.
+     * @param request HTTP servlet request.
+     * @return The best selling variations, most units sold first.
+     */
+    @GetMapping("/top-sellers")
+    public ResponseEntity<List<VariationSalesDTO>> topSellers(@RequestParam(defaultValue = "30") int days,
+                                                              @RequestParam(defaultValue = "10") int limit,
+                                                              HttpServletRequest request) {
+        UserDTO loggedInUser = (UserDTO) request.getSession().getAttribute("loggedInUser");
+        if (loggedInUser == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+
+        try {
+            return new ResponseEntity<>(salesAnalyticsService.getTopSellers(loggedInUser.getId(), days, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Retrieves the product variations of the logged-in user in stock with the fewest units sold in the last days,
+     * including variations that did not sell at all.
+     *
+     * @param days    The number of days to look back, including today.
+     * @param limit   The maximum number of variations to return.
+     * @param request HTTP servlet request.
+     * @return The slowest moving variations, fewest units sold first.
+     */
+    @GetMapping("/slow-movers")
+    public ResponseEntity<List<VariationSalesDTO>> slowMovers(@RequestParam(defaultValue = "30") int days,
+                                                              @RequestParam(defaultValue = "10") int limit,
+                                                              HttpServletRequest request) {
+        UserDTO loggedInUser = (UserDTO) request.getSession().getAttribute("loggedInUser");
+        if (loggedInUser == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+
+        try {
+            return new ResponseEntity<>(salesAnalyticsService.getSlowMovers(loggedInUser.getId(), days, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+}
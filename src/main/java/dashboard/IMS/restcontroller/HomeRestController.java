@@ -1,11 +1,11 @@
 package dashboard.IMS.restcontroller;
 
+import dashboard.IMS.dto.DashboardDTO;
 import dashboard.IMS.dto.UserDTO;
-import dashboard.IMS.entity.Product;
-import dashboard.IMS.entity.ProductVariation;
 import dashboard.IMS.repository.ProductRepository;
 import dashboard.IMS.repository.ProductVariationRepository;
 import dashboard.IMS.repository.SalesRepository;
+import dashboard.IMS.service.DashboardService;
 import dashboard.IMS.service.ProductService;
 import dashboard.IMS.service.SalesService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,7 +16,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -45,6 +44,9 @@ public class HomeRestController {
     @Autowired
     private SalesService salesService;
 
+    @Autowired
+    private DashboardService dashboardService;
+
     public HomeRestController(ProductService productService) {
         this.productService = productService;
     }
@@ -75,62 +77,14 @@ public class HomeRestController {
         // Add the authenticatedUser to the data
         data.put("authenticatedUser", authenticatedUser);
 
-        // Retrieve products owned by the logged-in user from the database
-        List<Product> products = productRepository.findByUserIdAndDeletedFalse(authenticatedUser.getId());
-
-        // Retrieve all product variations owned by the logged-in user from the database
-        List<ProductVariation> productVariations = productVariationRepository.findAllByProductUserId(authenticatedUser.getId());
-
-        // Retrieve total quantities of product variations owned by the logged-in user
-        List<Object[]> totalQuantities = productVariationRepository.getTotalQuantitiesByProductUserId(authenticatedUser.getId());
-
-        // Create a map to store total quantities for each product
-        Map<Integer, Integer> productTotalQuantities = new HashMap<>();
-        for (Object[] row : totalQuantities) {
-            if (row.length < 2) {
-                continue;
-            }
-
-            Integer productId;
-            if (row[0] instanceof ProductVariation) {
-                productId = ((ProductVariation) row[0]).getProduct().getId();
-            } else if (row[0] instanceof Integer) {
-                productId = (Integer) row[0];
-            } else {
-                continue;
-            }
-
-            Integer totalQuantity = ((Number) row[1]).intValue();
-            productTotalQuantities.put(productId, totalQuantity);
-        }
-
-        // Extract the first image URL for each product
-        Map<Integer, String> productImageUrls = new HashMap<>();
-        for (Product product : products) {
-            String imageUrls = product.getImageUrls();
-            if (imageUrls != null && !imageUrls.isEmpty()) {
-                imageUrls = imageUrls.replaceAll("\\[|\\]", "");
-                String[] imageUrlArray = imageUrls.split(",");
-                if (imageUrlArray.length > 0) {
-                    String firstImageUrl = imageUrlArray[0].trim();
-                    if (firstImageUrl.startsWith("/")) {
-                        firstImageUrl = firstImageUrl.substring(1);
-                    }
-                    productImageUrls.put(product.getId(), firstImageUrl);
-                }
-            }
-
-            // Retrieve associated product variations for each product
-            List<ProductVariation> associatedProductVariations = productVariationRepository.findByProductId(product.getId());
-            // Set the retrieved product variations to the current product
-            product.setProductVariations(associatedProductVariations);
-        }
+        // Retrieve the products owned by the logged-in user with their variations, image URLs and total quantities
+        DashboardDTO dashboard = dashboardService.getDashboard(authenticatedUser.getId());
 
         // Add the product variations, products, productImageUrls, and productTotalQuantities to the data
-        data.put("productVariations", productVariations);
-        data.put("products", products);
-        data.put("productImageUrls", productImageUrls);
-        data.put("productTotalQuantities", productTotalQuantities);
+        data.put("productVariations", dashboard.getProductVariations());
+        data.put("products", dashboard.getProducts());
+        data.put("productImageUrls", dashboard.getProductImageUrls());
+        data.put("productTotalQuantities", dashboard.getProductTotalQuantities());
 
         return new ResponseEntity<>(data, HttpStatus.OK);
     }
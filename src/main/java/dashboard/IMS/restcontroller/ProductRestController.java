@@ -1,12 +1,15 @@
 package dashboard.IMS.restcontroller;
 
+import dashboard.IMS.dto.DashboardDTO;
 import dashboard.IMS.dto.UserDTO;
+import dashboard.IMS.entity.Money;
 import dashboard.IMS.entity.Product;
 import dashboard.IMS.entity.ProductVariation;
 import dashboard.IMS.entity.Sales;
 import dashboard.IMS.repository.ProductRepository;
 import dashboard.IMS.repository.ProductVariationRepository;
 import dashboard.IMS.repository.SalesRepository;
+import dashboard.IMS.service.DashboardService;
 import dashboard.IMS.service.ProductService;
 import dashboard.IMS.service.ProductVariationService;
 import dashboard.IMS.service.SalesService;
@@ -50,6 +53,9 @@ public class ProductRestController {
     @Autowired
     private SalesRepository salesRepository;
 
+    @Autowired
+    private DashboardService dashboardService;
+
     @Autowired
     private ProductService productService;
 
@@ -93,66 +99,18 @@ public class ProductRestController {
         // Add the authenticatedUser to the data
         data.put("loggedInUser", loggedInUser);
 
-        // Retrieve products owned by the logged-in user from the database
-        List<Product> products = productRepository.findByUserIdAndDeletedFalse(loggedInUser.getId());
-
-        // Retrieve all product variations owned by the logged-in user from the database
-        List<ProductVariation> productVariations = productVariationRepository.findAllByProductUserId(loggedInUser.getId());
-
-        // Retrieve total quantities of product variations owned by the logged-in user
-        List<Object[]> totalQuantities = productVariationRepository.getTotalQuantitiesByProductUserId(loggedInUser.getId());
-
-        // Create a map to store total quantities for each product
-        Map<Integer, Integer> productTotalQuantities = new HashMap<>();
-        for (Object[] row : totalQuantities) {
-            if (row.length < 2) {
-                continue;
-            }
-
-            Integer productId;
-            if (row[0] instanceof ProductVariation) {
-                productId = ((ProductVariation) row[0]).getProduct().getId();
-            } else if (row[0] instanceof Integer) {
-                productId = (Integer) row[0];
-            } else {
-                continue;
-            }
-
-            Integer totalQuantity = ((Number) row[1]).intValue();
-            productTotalQuantities.put(productId, totalQuantity);
-        }
-
-        // Extract the first image URL for each product
-        Map<Integer, String> productImageUrls = new HashMap<>();
-        for (Product product : products) {
-            String imageUrls = product.getImageUrls();
-            if (imageUrls != null && !imageUrls.isEmpty()) {
-                imageUrls = imageUrls.replaceAll("\\[|\\]", "");
-                String[] imageUrlArray = imageUrls.split(",");
-                if (imageUrlArray.length > 0) {
-                    String firstImageUrl = imageUrlArray[0].trim();
-                    if (firstImageUrl.startsWith("/")) {
-                        firstImageUrl = firstImageUrl.substring(1);
-                    }
-                    productImageUrls.put(product.getId(), firstImageUrl);
-                }
-            }
-
-            // Retrieve associated product variations for each product
-            List<ProductVariation> associatedProductVariations = productVariationRepository.findByProductId(product.getId());
-            // Set the retrieved product variations to the current product
-            product.setProductVariations(associatedProductVariations);
-        }
+        // Products, variations, image URLs and total quantities come from the user's cached dashboard
+        DashboardDTO dashboard = dashboardService.getDashboard(loggedInUser.getId());
 
         // Retrieve sales records associated with the logged-in user
         List<Sales> salesRecords = salesRepository.findByUserId(loggedInUser.getId());
 
         // Add the sales records, product variations, products, productImageUrls, and productTotalQuantities to the data
         data.put("salesRecords", salesRecords);
-        data.put("productVariations", productVariations);
-        data.put("products", products);
-        data.put("productImageUrls", productImageUrls);
-        data.put("productTotalQuantities", productTotalQuantities);
+        data.put("productVariations", dashboard.getProductVariations());
+        data.put("products", dashboard.getProducts());
+        data.put("productImageUrls", dashboard.getProductImageUrls());
+        data.put("productTotalQuantities", dashboard.getProductTotalQuantities());
 
         return new ResponseEntity<>(data, HttpStatus.OK);
     }
@@ -198,8 +156,8 @@ public class ProductRestController {
             Product newProduct = new Product();
             newProduct.setProductName(productName);
             newProduct.setProductDescription(productDescription);
-            newProduct.setCostPrice(BigDecimal.valueOf(cost));
-            newProduct.setSellingPrice(BigDecimal.valueOf(sellingPrice));
+            newProduct.setCostPrice(Money.of(BigDecimal.valueOf(cost)));
+            newProduct.setSellingPrice(Money.of(BigDecimal.valueOf(sellingPrice)));
             // Save the new product
             Product savedProduct = productRepository.save(newProduct);
 
@@ -259,6 +217,7 @@ public class ProductRestController {
             // Set the deleted flag to true instead of deleting the product
             productToDelete.setDeleted(true);
             productRepository.save(productToDelete);
+            dashboardService.evict(loggedInUser.getId());
 
             return new ResponseEntity<>("Product deleted successfully", HttpStatus.NO_CONTENT);
         } catch (Exception e) {
@@ -1,30 +1,34 @@
 package dashboard.IMS.restcontroller;
 
-import com.itextpdf.text.DocumentException;
+import dashboard.IMS.dto.ReportFormat;
+import dashboard.IMS.dto.ReportJobDTO;
+import dashboard.IMS.dto.SaleLineDTO;
+import dashboard.IMS.dto.SalesReportFilter;
+import dashboard.IMS.dto.SalesReportPageDTO;
 import dashboard.IMS.dto.UserDTO;
-import dashboard.IMS.entity.Product;
-import dashboard.IMS.entity.ProductVariation;
 import dashboard.IMS.entity.Sales;
-import dashboard.IMS.entity.User;
+import dashboard.IMS.entity.SalesSummary;
 import dashboard.IMS.repository.ProductVariationRepository;
 import dashboard.IMS.repository.SalesRepository;
 import dashboard.IMS.repository.UserRepository;
+import dashboard.IMS.service.IdempotencyService;
+import dashboard.IMS.service.RefundService;
+import dashboard.IMS.service.ReportCacheService;
+import dashboard.IMS.service.ReportJobService;
 import dashboard.IMS.service.SalesService;
 import dashboard.IMS.service.UserService;
-import dashboard.IMS.utilities.ExcelUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
@@ -57,55 +61,60 @@ public class SalesRestController {
     @Autowired
     private SalesService salesService; // Autowire SalesService
 
+    @Autowired
+    private RefundService refundService;
+
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @Autowired
+    private ReportCacheService reportCacheService;
+
     @Autowired
     private PdfUtil pdfUtil;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     /**
-     * Fetches sales data associated with the logged-in user and prepares it for display.
+     * Fetches a page of the sales of the logged-in user, newest first, and prepares it for display.
      *
      * @param request HTTP servlet request.
-     * @param page    The page number.
+     * @param filter  Optional filters: from and to transaction days (e.g. 2024-01-31), productId, productVariationId and isRefund.
+     * @param cursor  The nextCursor returned with the previous page; the newest sales if absent.
+     * @param size    The number of sales per page; the configured page size if absent.
+     * @param total   Whether to include the total number of matching sales.
      * @return Data for the sales report page.
      */
     @GetMapping("/sales-report")
-    public ResponseEntity<Map<String, Object>> salesReport(HttpServletRequest request, @RequestParam(defaultValue = "0") int page) {
+    public ResponseEntity<Map<String, Object>> salesReport(HttpServletRequest request,
+                                                           SalesReportFilter filter,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer size,
+                                                           @RequestParam(defaultValue = "false") boolean total) {
         Map<String, Object> response = new HashMap<>();
         UserDTO loggedInUser = (UserDTO) request.getSession().getAttribute("loggedInUser");
 
         if (loggedInUser != null) {
-            Pageable pageable = PageRequest.of(page, 5); // 5 items per page
-            Page<Sales> salesPage = salesService.getSales(loggedInUser, pageable);
-            response.put("salesPage", salesPage);
+            SalesReportPageDTO salesReportPage;
+            try {
+                salesReportPage = salesService.getSalesReport(loggedInUser, filter, cursor, size, total);
+            } catch (IllegalArgumentException e) {
+                response.put("message", e.getMessage());
+                return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+            }
 
-            List<Sales> salesList = salesPage.getContent(); // Get sales list from page
-            int startingId = page * 5; // Calculate the starting ID for this page
-            response.put("startingId", startingId);
+            List<Sales> salesList = salesReportPage.getSales();
+            response.put("pageSize", salesReportPage.getPageSize());
+            response.put("hasNext", salesReportPage.isHasNext());
+            response.put("nextCursor", salesReportPage.getNextCursor());
+            if (salesReportPage.getTotalCount() != null) {
+                response.put("totalCount", salesReportPage.getTotalCount());
+            }
             response.put("profilePicture", loggedInUser.getProfilePicture());
             response.put("loggedInUser", loggedInUser);
 
-            Map<Integer, String> productImageUrls = new HashMap<>();
-            for (Sales sale : salesList) {
-                ProductVariation productVariation = productVariationRepository.findById(sale.getProductVariationId()).orElse(null);
-                if (productVariation != null) {
-                    Product product = productVariation.getProduct();
-                    if (product != null) {
-                        sale.setProductName(product.getProductName());
-                        String imageUrls = product.getImageUrls();
-                        if (imageUrls != null && !imageUrls.isEmpty()) {
-                            imageUrls = imageUrls.replaceAll("\\[|\\]", "");
-                            String[] imageUrlArray = imageUrls.split(",");
-                            if (imageUrlArray.length > 0) {
-                                String firstImageUrl = imageUrlArray[0].trim();
-                                if (firstImageUrl.startsWith("/")) {
-                                    firstImageUrl = firstImageUrl.substring(1);
-                                }
-                                productImageUrls.put(product.getId(), firstImageUrl);
-                                sale.setProductImageUrl(firstImageUrl);
-                            }
-                        }
-                    }
-                }
-            }
+            Map<Integer, String> productImageUrls = salesService.getProductImageUrls(salesList);
 
             response.put("salesList", salesList);
             response.put("productImageUrls", productImageUrls);
@@ -117,153 +126,109 @@ public class SalesRestController {
         }
     }
 
+    /**
+     * Retrieves the running sales, refund and profit totals of each product variation sold by the logged-in user.
+     *
+     * @param request HTTP servlet request.
+     * @return A map of product variation IDs to their totals.
+     */
+    @GetMapping("/sales-summary")
+    public ResponseEntity<Map<Integer, SalesSummary>> salesSummary(HttpServletRequest request) {
+        UserDTO loggedInUser = (UserDTO) request.getSession().getAttribute("loggedInUser");
+
+        if (loggedInUser != null) {
+            return new ResponseEntity<>(salesService.getSalesSummaries(loggedInUser.getId()), HttpStatus.OK);
+        } else {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+    }
+
     /**
      * Handles the sale of a product variation.
      * Validates the sale and updates the database with the sale details.
+     * A retry with the same Idempotency-Key gets the first response and is not sold again.
      *
      * @param productVariationId    The ID of the product variation to be sold.
      * @param quantity              The quantity to be sold.
+     * @param idempotencyKey        Optional key identifying the sale across retries.
      * @param request               HTTP servlet request.
      * @return Message indicating the result of the sale.
      */
     @PostMapping("/sell-product-variation")
     public ResponseEntity<String> sellProductVariation(@RequestParam("productVariationId") Integer productVariationId,
                                                        @RequestParam("quantity") Integer quantity,
+                                                       @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
                                                        HttpServletRequest request) {
         UserDTO loggedInUserDTO = (UserDTO) request.getSession().getAttribute("loggedInUser");
 
         if (loggedInUserDTO != null) {
-            User loggedInUser = userRepository.findUserById(loggedInUserDTO.getId());
-            Optional<ProductVariation> optionalProductVariation = productVariationRepository.findByIdAndProductUserId(productVariationId, loggedInUser.getId());
+            return idempotencyService.execute(loggedInUserDTO.getId(), idempotencyKey,
+                    "sell-product-variation:" + productVariationId + ":" + quantity, () -> {
+                        try {
+                            salesService.sell(loggedInUserDTO, productVariationId, quantity);
+                            return new ResponseEntity<>("Sale successful.", HttpStatus.CREATED);
+                        } catch (IllegalArgumentException e) {
+                            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+                        }
+                    });
+        }
 
-            if (quantity == null || quantity <= 0) {
-                return new ResponseEntity<>("Invalid quantity for the sale.", HttpStatus.BAD_REQUEST);
-            }
+        return new ResponseEntity<>("Failed to sell product variation. Please try again.", HttpStatus.BAD_REQUEST);
+    }
 
-            if (optionalProductVariation.isPresent()) {
-                ProductVariation productVariation = optionalProductVariation.get();
-
-                if (productVariation.getQuantity() < quantity) {
-                    return new ResponseEntity<>("Quantity is insufficient for the sale.", HttpStatus.BAD_REQUEST);
-                }
-
-                int remainingQuantity = productVariation.getQuantity() - quantity;
-                if (remainingQuantity < 0) {
-                    return new ResponseEntity<>("Invalid quantity for the sale.", HttpStatus.BAD_REQUEST);
-                }
-
-                productVariation.setQuantity(remainingQuantity);
-                productVariationRepository.save(productVariation);
-
-                Product product = productVariation.getProduct();
-                if (product != null) {
-                    BigDecimal totalRevenue = product.getSellingPrice().multiply(BigDecimal.valueOf(quantity));
-                    BigDecimal totalCost = product.getCostPrice().multiply(BigDecimal.valueOf(quantity));
-                    BigDecimal totalProfit = totalRevenue.subtract(totalCost);
-
-                    Sales sales = Sales.builder()
-                            .productVariationId(productVariationId)
-                            .quantitySold(quantity)
-                            .quantityRefunded(0)
-                            .totalRevenue(totalRevenue)
-                            .totalCost(totalCost)
-                            .totalProfit(totalProfit)
-                            .transactionDate(LocalDateTime.now())
-                            .user(loggedInUser)
-                            .build();
-
-                    salesRepository.save(sales);
-
-                    return new ResponseEntity<>("Sale successful.", HttpStatus.CREATED);
-                }
+    /**
+     * Handles the sale of a whole cart of product variations.
+     * All lines are sold in one transaction; if any line fails, nothing is sold.
+     *
+     * @param lines   The product variations and quantities to sell.
+     * @param request HTTP servlet request.
+     * @return Message indicating the result of the sale.
+     */
+    @PostMapping("/sales/batch")
+    public ResponseEntity<String> sellProductVariations(@RequestBody List<SaleLineDTO> lines,
+                                                        HttpServletRequest request) {
+        UserDTO loggedInUserDTO = (UserDTO) request.getSession().getAttribute("loggedInUser");
+
+        if (loggedInUserDTO != null) {
+            try {
+                salesService.sellBatch(loggedInUserDTO, lines);
+                return new ResponseEntity<>("Sale successful.", HttpStatus.CREATED);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
             }
         }
 
-        return new ResponseEntity<>("Failed to sell product variation. Please try again.", HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>("Failed to sell product variations. Please try again.", HttpStatus.BAD_REQUEST);
     }
 
     /**
      * Handles the refund of a product variation.
      * Validates the refund and updates the database with the refund details.
+     * A retry with the same Idempotency-Key gets the first response and is not refunded again.
      *
      * @param productVariationId    The ID of the product variation to be refunded.
      * @param quantity              The quantity to be refunded.
+     * @param idempotencyKey        Optional key identifying the refund across retries.
      * @param request               HTTP servlet request.
      * @return Message indicating the result of the refund.
      */
     @PostMapping("/refund-product-variation")
     public ResponseEntity<String> refundProductVariation(@RequestParam("productVariationId") Integer productVariationId,
                                                          @RequestParam("quantity") Integer quantity,
+                                                         @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
                                                          HttpServletRequest request) {
         UserDTO loggedInUserDTO = (UserDTO) request.getSession().getAttribute("loggedInUser");
 
         if (loggedInUserDTO != null) {
-            User loggedInUser = userRepository.findUserById(loggedInUserDTO.getId());
-            Optional<ProductVariation> optionalProductVariation = productVariationRepository.findByIdAndProductUserId(productVariationId, loggedInUser.getId());
-
-            if (quantity == null || quantity <= 0) {
-                return new ResponseEntity<>("Invalid quantity for the refund.", HttpStatus.BAD_REQUEST);
-            }
-
-            if (optionalProductVariation.isPresent()) {
-                ProductVariation productVariation = optionalProductVariation.get();
-
-                List<Sales> salesRecords = salesRepository.findByProductVariationIdAndUserIdOrderByTransactionDateDesc(productVariationId, loggedInUser.getId());
-
-                int totalSoldQuantity = salesRecords.stream()
-                        .filter(record -> record.getQuantitySold() != null)
-                        .mapToInt(Sales::getQuantitySold)
-                        .sum();
-
-                int totalRefundedQuantity = salesRecords.stream()
-                        .filter(record -> record.getQuantityRefunded() != null)
-                        .mapToInt(Sales::getQuantityRefunded)
-                        .sum();
-
-                if (totalSoldQuantity - totalRefundedQuantity - quantity < 0) {
-                    return new ResponseEntity<>("Refund quantity cannot be greater than total sold quantity.", HttpStatus.BAD_REQUEST);
-                }
-
-                int remainingQuantityToRefund = quantity;
-                for (Sales salesRecord : salesRecords) {
-                    if (salesRecord.getQuantitySold() != null && salesRecord.getQuantityRefunded() != null && remainingQuantityToRefund > 0) {
-                        int quantitySold = salesRecord.getQuantitySold();
-                        int quantityRefunded = salesRecord.getQuantityRefunded();
-                        int quantityAvailableForRefund = quantitySold - quantityRefunded;
-
-                        int quantityToRefund = Math.min(quantityAvailableForRefund, remainingQuantityToRefund);
-
-                        if (quantityToRefund > 0) {
-                            salesRecord.setQuantityRefunded(quantityRefunded + quantityToRefund);
-                            salesRepository.save(salesRecord);
-
-                            BigDecimal refundRevenue = salesRecord.getTotalRevenue() != null ? salesRecord.getTotalRevenue().divide(BigDecimal.valueOf(quantitySold), RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(quantityToRefund)) : BigDecimal.ZERO;
-                            BigDecimal refundCost = salesRecord.getTotalCost() != null ? salesRecord.getTotalCost().divide(BigDecimal.valueOf(quantitySold), RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(quantityToRefund)) : BigDecimal.ZERO;
-                            BigDecimal refundProfit = salesRecord.getTotalProfit() != null ? salesRecord.getTotalProfit().divide(BigDecimal.valueOf(quantitySold), RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(quantityToRefund)) : BigDecimal.ZERO;
-
-                            Sales refundSales = Sales.builder()
-                                    .productVariationId(productVariationId)
-                                    .quantitySold(quantityToRefund * -1)
-                                    .totalRevenue(refundRevenue.negate())
-                                    .totalCost(refundCost.negate())
-                                    .totalProfit(refundProfit.negate())
-                                    .transactionDate(LocalDateTime.now())
-                                    .user(loggedInUser)
-                                    .isRefund(true)
-                                    .build();
-
-                            salesRepository.save(refundSales);
-
-                            productVariation.setQuantity(productVariation.getQuantity() + quantityToRefund);
-                            productVariationRepository.save(productVariation);
-
-                            remainingQuantityToRefund -= quantityToRefund;
+            return idempotencyService.execute(loggedInUserDTO.getId(), idempotencyKey,
+                    "refund-product-variation:" + productVariationId + ":" + quantity, () -> {
+                        try {
+                            refundService.refund(loggedInUserDTO, productVariationId, quantity);
+                            return new ResponseEntity<>("Refund successful.", HttpStatus.CREATED);
+                        } catch (IllegalArgumentException e) {
+                            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
                         }
-                    }
-                }
-
-                return new ResponseEntity<>("Refund successful.", HttpStatus.CREATED);
-            }
+                    });
         }
 
         return new ResponseEntity<>("Failed to refund product variation. Please try again.", HttpStatus.BAD_REQUEST);
@@ -271,99 +236,197 @@ public class SalesRestController {
 
     /**
      * Generates a PDF report of all sales associated with the logged-in user.
-     * The PDF is sent as a response to the client.
+     * The PDF is generated once per change to the user's sales and served from the report cache,
+     * with a 304 response if the If-None-Match header holds the current ETag.
      *
+     * @param filter   Optional filters: from and to transaction days, productId, productVariationId and isRefund.
      * @param request  The HTTP servlet request.
-     * @throws DocumentException If there is an error while generating the PDF.
-     * @throws IOException       If there is an error while writing the PDF to the response output stream.
+     * @return ResponseEntity with the PDF file and appropriate HTTP headers.
+     * @throws IOException If there is an error while generating the PDF.
      */
     @GetMapping("/sales-report/pdf")
-    public ResponseEntity<byte[]> salesReportPdf(HttpServletRequest request) throws DocumentException, IOException {
+    public ResponseEntity<Resource> salesReportPdf(SalesReportFilter filter, HttpServletRequest request) throws IOException {
+        return cachedReport(ReportFormat.PDF, filter, request);
+    }
+
+
+    /**
+     * Generates an Excel report of all sales associated with the logged-in user.
+     * The Excel file is generated once per change to the user's sales and served from the report cache,
+     * with a 304 response if the If-None-Match header holds the current ETag.
+     *
+     * @param filter   Optional filters: from and to transaction days, productId, productVariationId and isRefund.
+     * @param request  The HTTP servlet request.
+     * @return ResponseEntity with the Excel file and appropriate HTTP headers.
+     * @throws IOException If there is an error while generating the Excel file.
+     */
+    @GetMapping("/sales-report/excel")
+    public ResponseEntity<Resource> salesReportExcel(SalesReportFilter filter, HttpServletRequest request) throws IOException {
+        return cachedReport(ReportFormat.EXCEL, filter, request);
+    }
+
+    /**
+     * Retrieves the cached report of the logged-in user, or a 304 response if the ETag in If-None-Match is current.
+     *
+     * @param format  The format of the report.
+     * @param filter  The report filters.
+     * @param request The HTTP servlet request.
+     * @return ResponseEntity with the report file and appropriate HTTP headers.
+     * @throws IOException If there is an error while generating the report.
+     */
+    private ResponseEntity<Resource> cachedReport(ReportFormat format, SalesReportFilter filter, HttpServletRequest request) throws IOException {
         // Retrieve the logged-in user from the session
         UserDTO loggedInUser = (UserDTO) request.getSession().getAttribute("loggedInUser");
 
         // Check if the logged-in user is valid
         if (loggedInUser != null) {
-            // Fetch all the sales associated with the logged-in user from the repository
-            List<Sales> salesList = salesRepository.findAllByUserId(loggedInUser.getId());
-
-            // Set the product name for each sales record
-            for (Sales sale : salesList) {
-                ProductVariation productVariation = productVariationRepository.findById(sale.getProductVariationId()).orElse(null);
-                if (productVariation != null) {
-                    Product product = productVariation.getProduct();
-                    if (product != null) {
-                        sale.setProductName(product.getProductName());
-                    }
-                }
-            }
+            ReportCacheService.CachedReport report = reportCacheService.getReport(loggedInUser.getId(), format, filter);
 
-            // Generate PDF
-            byte[] pdfBytes = PdfUtil.generateSalesReportPdf(salesList);
+            HttpHeaders headers = new HttpHeaders();
+            headers.setETag(report.etag());
+            if (new ServletWebRequest(request).checkNotModified(report.etag())) {
+                return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+            }
 
             // Get current date and format it as a string
             String currentDate = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
 
             // Set response headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDisposition(ContentDisposition.builder("attachment").filename("sales-report-" + currentDate + ".pdf").build());
+            headers.setContentType(MediaType.parseMediaType(format.getContentType()));
+            headers.setContentDisposition(ContentDisposition.builder("attachment").filename("sales-report-" + currentDate + "." + format.getExtension()).build());
 
-            // Return the PDF bytes as a ResponseEntity
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+            // Return the cached report file as a ResponseEntity
+            return new ResponseEntity<>(new FileSystemResource(report.file()), headers, HttpStatus.OK);
         } else {
             // If the user is not authenticated, return an unauthorized status
             return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
         }
     }
 
+    /**
+     * Exports the sales of the logged-in user as CSV, streamed as the sales are read from the database.
+     *
+     * @param filter  Optional filters: from and to transaction days (e.g. 2024-01-31), productId, productVariationId and isRefund.
+     * @param request The HTTP servlet request.
+     * @return ResponseEntity with the streamed CSV.
+     */
+    @GetMapping("/sales-report/csv")
+    public ResponseEntity<StreamingResponseBody> salesReportCsv(SalesReportFilter filter,
+                                                                HttpServletRequest request) {
+        UserDTO loggedInUser = (UserDTO) request.getSession().getAttribute("loggedInUser");
+        if (loggedInUser == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+
+        String currentDate = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(new MediaType("text", "csv", StandardCharsets.UTF_8));
+        headers.setContentDisposition(ContentDisposition.builder("attachment").filename("sales-" + currentDate + ".csv").build());
+
+        Integer userId = loggedInUser.getId();
+        StreamingResponseBody body = outputStream -> salesService.writeSalesExportCsv(userId, filter, outputStream);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
 
     /**
-     * Generates an Excel report of all sales associated with the logged-in user.
-     * The Excel file is sent as a response to the client.
+     * Exports the sales of the logged-in user as newline-delimited JSON, streamed as the sales are read from the database.
      *
-     * @param request  The HTTP servlet request.
-     * @return ResponseEntity with the Excel file bytes and appropriate HTTP headers.
-     * @throws IOException If there is an error while generating the Excel file.
+     * @param filter  Optional filters: from and to transaction days (e.g. 2024-01-31), productId, productVariationId and isRefund.
+     * @param request The HTTP servlet request.
+     * @return ResponseEntity with the streamed JSON lines.
      */
-    @GetMapping("/sales-report/excel")
-    public ResponseEntity<byte[]> salesReportExcel(HttpServletRequest request) throws IOException {
-        // Retrieve the logged-in user from the session
+    @GetMapping("/sales-report/ndjson")
+    public ResponseEntity<StreamingResponseBody> salesReportNdjson(SalesReportFilter filter,
+                                                                   HttpServletRequest request) {
         UserDTO loggedInUser = (UserDTO) request.getSession().getAttribute("loggedInUser");
+        if (loggedInUser == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
 
-        // Check if the logged-in user is valid
-        if (loggedInUser != null) {
-            // Fetch all the sales associated with the logged-in user from the repository
-            List<Sales> salesList = salesRepository.findAllByUserId(loggedInUser.getId());
-
-            // Set the product name for each sales record
-            for (Sales sale : salesList) {
-                ProductVariation productVariation = productVariationRepository.findById(sale.getProductVariationId()).orElse(null);
-                if (productVariation != null) {
-                    Product product = productVariation.getProduct();
-                    if (product != null) {
-                        sale.setProductName(product.getProductName());
-                    }
-                }
-            }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/x-ndjson"));
 
-            // Generate Excel
-            byte[] excelBytes = ExcelUtil.generateSalesReportExcel(salesList);
+        Integer userId = loggedInUser.getId();
+        StreamingResponseBody body = outputStream -> salesService.writeSalesExportNdjson(userId, filter, outputStream);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
 
-            // Get current date and format it as a string
-            String currentDate = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+    /**
+     * Queues a PDF or Excel report of the sales associated with the logged-in user, optionally filtered
+     * by date range, product, variation and refund status like the other report endpoints.
+     * The report is generated in the background; poll the returned job until it is completed, then download it.
+     *
+     * @param format  The format of the report, PDF or EXCEL.
+     * @param filter  The optional report filters.
+     * @param request The HTTP servlet request.
+     * @return The queued job, or 503 if too many reports are being generated.
+     */
+    @PostMapping("/sales-report/jobs")
+    public ResponseEntity<ReportJobDTO> submitSalesReportJob(@RequestParam("format") String format, SalesReportFilter filter,
+                                                             HttpServletRequest request) {
+        UserDTO loggedInUser = (UserDTO) request.getSession().getAttribute("loggedInUser");
+        if (loggedInUser == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
 
-            // Set response headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-            headers.setContentDisposition(ContentDisposition.builder("attachment").filename("sales-report-" + currentDate + ".xlsx").build());
+        ReportFormat reportFormat;
+        try {
+            reportFormat = ReportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
 
-            // Return the Excel bytes as a ResponseEntity
-            return new ResponseEntity<>(excelBytes, headers, HttpStatus.OK);
-        } else {
-            // If the user is not authenticated, return an unauthorized status
+        try {
+            return new ResponseEntity<>(reportJobService.submit(loggedInUser.getId(), reportFormat, filter), HttpStatus.ACCEPTED);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    /**
+     * Retrieves the status of a report job of the logged-in user.
+     *
+     * @param jobId   The ID of the job.
+     * @param request The HTTP servlet request.
+     * @return The job, or 404 if it does not exist or has expired.
+     */
+    @GetMapping("/sales-report/jobs/{jobId}")
+    public ResponseEntity<ReportJobDTO> salesReportJob(@PathVariable String jobId, HttpServletRequest request) {
+        UserDTO loggedInUser = (UserDTO) request.getSession().getAttribute("loggedInUser");
+        if (loggedInUser == null) {
             return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
         }
+
+        return reportJobService.getJob(loggedInUser.getId(), jobId)
+                .map(job -> new ResponseEntity<>(job, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    /**
+     * Downloads the report generated by a completed job of the logged-in user.
+     *
+     * @param jobId   The ID of the job.
+     * @param request The HTTP servlet request.
+     * @return The report file, 404 if the job does not exist or has expired, or 409 if it is not completed.
+     */
+    @GetMapping("/sales-report/jobs/{jobId}/file")
+    public ResponseEntity<Resource> salesReportJobFile(@PathVariable String jobId, HttpServletRequest request) {
+        UserDTO loggedInUser = (UserDTO) request.getSession().getAttribute("loggedInUser");
+        if (loggedInUser == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+
+        Optional<ReportJobDTO> job = reportJobService.getJob(loggedInUser.getId(), jobId);
+        if (job.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (job.get().getStatus() != ReportJobDTO.Status.COMPLETED) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(job.get().getFormat().getContentType()));
+        headers.setContentDisposition(ContentDisposition.builder("attachment").filename(job.get().getFileName()).build());
+        return new ResponseEntity<>(new FileSystemResource(job.get().getFile()), headers, HttpStatus.OK);
+    }
 }
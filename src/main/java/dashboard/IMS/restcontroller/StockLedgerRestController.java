@@ -0,0 +1,54 @@
+package dashboard.IMS.restcontroller;
+
+import dashboard.IMS.dto.UserDTO;
+import dashboard.IMS.service.StockLedgerService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+/**
+ * RestController class for the stock history of the logged-in user's product variations.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@RestController
+@RequestMapping("/api/stock")
+public class StockLedgerRestController {
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    /**
+     * Retrieves the stock a product variation had at a time.
+     *
+     * @param productVariationId The ID of the product variation.
+     * @param at                 The time, e.g. 2024-01-31T18:00; now if absent.
+     * @param request            HTTP servlet request.
+     * @return The stock at that time, or 404 if the variation is not found.
+     */
+    @GetMapping("/as-of")
+    public ResponseEntity<Long> stockAsOf(@RequestParam("productVariationId") Integer productVariationId,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+                                          HttpServletRequest request) {
+        UserDTO loggedInUser = (UserDTO) request.getSession().getAttribute("loggedInUser");
+        if (loggedInUser == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+
+        try {
+            return new ResponseEntity<>(stockLedgerService.getStockAsOf(loggedInUser, productVariationId,
+                    at != null ? at : LocalDateTime.now()), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package dashboard.IMS.restcontroller;
+
+import dashboard.IMS.dto.UserDTO;
+import dashboard.IMS.entity.StockReservation;
+import dashboard.IMS.service.StockReservationService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+
+/**
+ * RestController class for holding stock during checkout.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+@RestController
+@RequestMapping("/api/reservations")
+public class StockReservationRestController {
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    /**
+     * Holds a quantity of a product variation until the reservation is committed, released or expires.
+     *
+     * @param productVariationId The ID of the product variation to hold.
+     * @param quantity           The quantity to hold.
+     * @param ttlSeconds         How many seconds to hold the stock; the configured default if absent.
+     * @param request            HTTP servlet request.
+     * @return The reservation, or 400 if not enough stock is available to sell.
+     */
+    @PostMapping
+    public ResponseEntity<StockReservation> reserve(@RequestParam("productVariationId") Integer productVariationId,
+                                                    @RequestParam("quantity") Integer quantity,
+                                                    @RequestParam(value = "ttlSeconds", required = false) Long ttlSeconds,
+                                                    HttpServletRequest request) {
+        UserDTO loggedInUser = (UserDTO) request.getSession().getAttribute("loggedInUser");
+        if (loggedInUser == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+
+        try {
+            Duration ttl = ttlSeconds == null ? null : Duration.ofSeconds(ttlSeconds);
+            return new ResponseEntity<>(stockReservationService.reserve(loggedInUser, productVariationId, quantity, ttl),
+                    HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Sells the stock held by a reservation.
+     *
+     * @param id      The ID of the reservation.
+     * @param request HTTP servlet request.
+     * @return Message indicating the result of the sale.
+     */
+    @PostMapping("/{id}/commit")
+    public ResponseEntity<String> commit(@PathVariable Integer id, HttpServletRequest request) {
+        UserDTO loggedInUser = (UserDTO) request.getSession().getAttribute("loggedInUser");
+        if (loggedInUser == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+
+        try {
+            stockReservationService.commit(loggedInUser, id);
+            return new ResponseEntity<>("Sale successful.", HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Releases a reservation, making its stock available to sell again.
+     *
+     * @param id      The ID of the reservation.
+     * @param request HTTP servlet request.
+     * @return 204 if released, or 404 if the reservation is not found.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> release(@PathVariable Integer id, HttpServletRequest request) {
+        UserDTO loggedInUser = (UserDTO) request.getSession().getAttribute("loggedInUser");
+        if (loggedInUser == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+
+        try {
+            stockReservationService.release(loggedInUser, id);
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Retrieves the stock of a product variation that is available to sell, i.e. not held by reservations.
+     *
+     * @param productVariationId The ID of the product variation.
+     * @param request            HTTP servlet request.
+     * @return The quantity available to sell, or 404 if the variation is not found.
+     */
+    @GetMapping("/available")
+    public ResponseEntity<Integer> availableQuantity(@RequestParam("productVariationId") Integer productVariationId,
+                                                     HttpServletRequest request) {
+        UserDTO loggedInUser = (UserDTO) request.getSession().getAttribute("loggedInUser");
+        if (loggedInUser == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+
+        try {
+            return new ResponseEntity<>(stockReservationService.getAvailableQuantity(loggedInUser, productVariationId), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+}
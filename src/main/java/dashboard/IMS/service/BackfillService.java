@@ -0,0 +1,55 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.repository.BackfillMarkerRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Service class for one-time backfills of derived tables from the existing data.
+ * A backfill runs in one transaction with the insert of its marker in the backfill_marker table,
+ * so it is run once in total rather than whenever its table happens to be empty. If two instances
+ * run the same backfill at once, the second marker insert fails and its backfill is rolled back.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Service
+public class BackfillService {
+
+    private final BackfillMarkerRepository backfillMarkerRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public BackfillService(BackfillMarkerRepository backfillMarkerRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.backfillMarkerRepository = backfillMarkerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Runs a backfill unless it has already completed. The backfill must leave the same result
+     * whatever the state of its table, as it may find rows written before its marker existed.
+     *
+     * @param name     The name of the backfill.
+     * @param backfill Fills the table.
+     * @return True if the backfill ran, false if it had already completed.
+     */
+    public boolean runOnce(String name, Runnable backfill) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (backfillMarkerRepository.existsById(name)) {
+                    return false;
+                }
+                backfill.run();
+                backfillMarkerRepository.insert(name, LocalDateTime.now());
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance completed the backfill first
+            return false;
+        }
+    }
+}
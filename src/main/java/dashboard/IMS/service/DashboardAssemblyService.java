@@ -0,0 +1,91 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.dto.DashboardDTO;
+import dashboard.IMS.dto.ProductListPageDTO;
+import dashboard.IMS.entity.Product;
+import dashboard.IMS.entity.Sales;
+import dashboard.IMS.repository.SalesRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Service class for assembling the product list page.
+ * The page of products, the user's dashboard data and the user's sales records do not depend on each other,
+ * so they are loaded at the same time on the dashboard query executor, and the page takes about as long as
+ * the slowest of them. Each query has its own timeout; a query that times out fails the page, and is left
+ * to finish on its thread without being waited for.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Service
+public class DashboardAssemblyService {
+
+    private final ProductService productService;
+    private final DashboardService dashboardService;
+    private final SalesRepository salesRepository;
+    private final TaskExecutor dashboardQueryExecutor;
+    private final Duration queryTimeout;
+
+    public DashboardAssemblyService(ProductService productService, DashboardService dashboardService,
+                                    SalesRepository salesRepository,
+                                    @Qualifier("dashboardQueryExecutor") TaskExecutor dashboardQueryExecutor,
+                                    @Value("${ims.dashboard.query-timeout:PT5S}") Duration queryTimeout) {
+        this.productService = productService;
+        this.dashboardService = dashboardService;
+        this.salesRepository = salesRepository;
+        this.dashboardQueryExecutor = dashboardQueryExecutor;
+        this.queryTimeout = queryTimeout;
+    }
+
+    /**
+     * Loads the data shown on the product list page.
+     *
+     * @param userId   The ID of the logged-in user.
+     * @param pageable The page of products to load.
+     * @return The product list page data.
+     * @throws IllegalStateException If a query times out.
+     */
+    public ProductListPageDTO getProductListPage(Integer userId, Pageable pageable) {
+        CompletableFuture<Page<Product>> productsPage = query(() -> productService.getProducts(pageable));
+        CompletableFuture<DashboardDTO> dashboard = query(() -> dashboardService.getDashboard(userId));
+        CompletableFuture<List<Sales>> salesRecords = query(() -> salesRepository.findByUserId(userId));
+
+        try {
+            return ProductListPageDTO.builder()
+                    .productsPage(productsPage.join())
+                    .dashboard(dashboard.join())
+                    .salesRecords(salesRecords.join())
+                    .build();
+        } catch (CompletionException e) {
+            // Don't run queries still waiting in the queue for a page that has already failed
+            productsPage.cancel(false);
+            dashboard.cancel(false);
+            salesRecords.cancel(false);
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException("Timed out loading the product list.", e.getCause());
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> query(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, dashboardQueryExecutor)
+                .orTimeout(queryTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
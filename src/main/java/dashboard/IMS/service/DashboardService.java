@@ -0,0 +1,116 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.dto.DashboardDTO;
+import dashboard.IMS.entity.Product;
+import dashboard.IMS.entity.ProductVariation;
+import dashboard.IMS.repository.ProductRepository;
+import dashboard.IMS.utilities.ExpiringLruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class for the product dashboard.
+ * Loads the data shown on the index and product list pages with a constant number of queries,
+ * and caches it per user until a write to the user's products or stock invalidates it.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Service
+public class DashboardService {
+
+    private final ProductRepository productRepository;
+    private final ExpiringLruCache<Integer, DashboardDTO> dashboardCache;
+
+    public DashboardService(ProductRepository productRepository,
+                            @Value("${ims.dashboard.cache.max-size:500}") int cacheMaxSize,
+                            @Value("${ims.dashboard.cache.ttl:PT5M}") Duration cacheTtl) {
+        this.productRepository = productRepository;
+        this.dashboardCache = new ExpiringLruCache<>(cacheMaxSize, cacheTtl);
+    }
+
+    /**
+     * Retrieves the dashboard data of the user, from the cache if present.
+     *
+     * @param userId The ID of the logged-in user.
+     * @return The dashboard data of the user.
+     */
+    public DashboardDTO getDashboard(Integer userId) {
+        return dashboardCache.computeIfAbsent(userId, this::loadDashboard);
+    }
+
+    /**
+     * Removes the cached dashboard data of the user.
+     * When called inside a transaction, the data is removed again after the commit,
+     * so a dashboard loaded before the commit is not kept.
+     *
+     * @param userId The ID of the user whose products or stock changed.
+     */
+    public void evict(Integer userId) {
+        if (userId == null) {
+            return;
+        }
+        dashboardCache.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dashboardCache.remove(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Removes the cached dashboard data of every user, such as after a change to all products.
+     */
+    public void evictAll() {
+        dashboardCache.clear();
+    }
+
+    /**
+     * Retrieves the user's products with their variations and derives the image URLs
+     * and total quantities of each product from them.
+     *
+     * @param userId The ID of the logged-in user.
+     * @return The dashboard data of the user.
+     */
+    private DashboardDTO loadDashboard(Integer userId) {
+        List<Product> products = productRepository.findWithVariationsByUserId(userId);
+
+        List<ProductVariation> productVariations = new ArrayList<>();
+        Map<Integer, String> productImageUrls = new HashMap<>();
+        Map<Integer, Integer> productTotalQuantities = new HashMap<>();
+        for (Product product : products) {
+            String firstImageUrl = product.getPrimaryImageUrl();
+            if (firstImageUrl != null) {
+                productImageUrls.put(product.getId(), firstImageUrl);
+            }
+
+            List<ProductVariation> variations = product.getProductVariations();
+            if (variations != null && !variations.isEmpty()) {
+                int totalQuantity = 0;
+                for (ProductVariation variation : variations) {
+                    totalQuantity += variation.getQuantity();
+                }
+                productVariations.addAll(variations);
+                productTotalQuantities.put(product.getId(), totalQuantity);
+            }
+        }
+
+        return DashboardDTO.builder()
+                .products(products)
+                .productVariations(productVariations)
+                .productImageUrls(productImageUrls)
+                .productTotalQuantities(productTotalQuantities)
+                .build();
+    }
+}
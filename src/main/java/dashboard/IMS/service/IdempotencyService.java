@@ -0,0 +1,220 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.entity.IdempotencyRecord;
+import dashboard.IMS.repository.IdempotencyRecordRepository;
+import dashboard.IMS.utilities.ExpiringLruCache;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Service class for requests sent with an Idempotency-Key header.
+ * The first request with a key is executed and its response stored with a fingerprint of the request;
+ * a retry with the same key gets the stored response without being executed again. Responses are kept
+ * in a bounded in-memory store for a time to live, and also in the idempotency_record table when
+ * persistence is enabled, so retries are recognized after a restart and by other instances.
+ * With persistence, the record is inserted in the same transaction as the request's changes, so a sale
+ * is never committed without its record; if another instance inserted a record for the key first, the
+ * insert fails on the primary key, the request's changes are rolled back and the other response is replayed.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExpiringLruCache<String, StoredResponse> responses;
+    private final Duration ttl;
+    private final boolean persist;
+
+    // Keys whose request is executing on this instance, so a retry sent to it before the first request finishes
+    // is not executed too. Retries sent to other instances are only stopped by the idempotency_record table.
+    private final ConcurrentHashMap<String, Boolean> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * A stored response and the fingerprint of the request it answered.
+     */
+    public record StoredResponse(String fingerprint, int statusCode, String body) {
+    }
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${ims.idempotency.max-size:10000}") int maxSize,
+                              @Value("${ims.idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${ims.idempotency.persist:false}") boolean persist) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.responses = new ExpiringLruCache<>(maxSize, ttl);
+        this.ttl = ttl;
+        this.persist = persist;
+    }
+
+    /**
+     * Executes a request once per Idempotency-Key of a user.
+     * Without a key, the request is always executed. A retry with the key gets the stored response with
+     * the Idempotent-Replayed header; a key reused for a different request gets 422, and a retry while
+     * the first request is still executing on this instance gets 409. A request that throws is not stored,
+     * so it can be retried. With persistence, the request runs in a transaction that its services join.
+     *
+     * @param userId         The ID of the logged-in user.
+     * @param idempotencyKey The Idempotency-Key header, or null.
+     * @param request        Identifies the endpoint and its parameters, to tell a retry from a different request.
+     * @param action         Executes the request.
+     * @return The response of the request, executed now or stored.
+     */
+    public ResponseEntity<String> execute(Integer userId, String idempotencyKey, String request,
+                                          Supplier<ResponseEntity<String>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return new ResponseEntity<>("Idempotency-Key is too long.", HttpStatus.BAD_REQUEST);
+        }
+
+        String key = userId + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+        if (inFlight.putIfAbsent(key, Boolean.TRUE) != null) {
+            return new ResponseEntity<>("A request with this Idempotency-Key is in progress.", HttpStatus.CONFLICT);
+        }
+        try {
+            StoredResponse stored = find(key);
+            if (stored != null) {
+                return replay(stored, fingerprint);
+            }
+            if (persist) {
+                return executeAndRecord(key, fingerprint, action);
+            }
+
+            ResponseEntity<String> response = action.get();
+            responses.put(key, new StoredResponse(fingerprint, response.getStatusCode().value(), response.getBody()));
+            return response;
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    /**
+     * Deletes the stored responses that have expired from the idempotency_record table.
+     *
+     * @return The number of responses deleted.
+     */
+    @Scheduled(fixedDelayString = "${ims.idempotency.purge-interval:PT10M}")
+    @Transactional
+    public int purgeExpired() {
+        if (!persist) {
+            return 0;
+        }
+        return idempotencyRecordRepository.deleteExpired(LocalDateTime.now().minus(ttl));
+    }
+
+    private StoredResponse find(String key) {
+        StoredResponse stored = responses.get(key);
+        if (stored != null || !persist) {
+            return stored;
+        }
+
+        Optional<IdempotencyRecord> record = idempotencyRecordRepository.findById(key)
+                .filter(r -> r.getCreatedAt().isAfter(LocalDateTime.now().minus(ttl)));
+        if (record.isEmpty()) {
+            return null;
+        }
+        stored = new StoredResponse(record.get().getFingerprint(), record.get().getStatusCode(), record.get().getResponseBody());
+        responses.put(key, stored);
+        return stored;
+    }
+
+    private static ResponseEntity<String> replay(StoredResponse stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            return new ResponseEntity<>("Idempotency-Key was already used for a different request.",
+                    HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+        return ResponseEntity.status(stored.statusCode()).header(REPLAYED_HEADER, "true").body(stored.body());
+    }
+
+    /**
+     * Executes a request and inserts its record in one transaction.
+     * A request that failed, such as a sale without enough stock, has its changes rolled back,
+     * and its record is inserted on its own afterwards.
+     */
+    private ResponseEntity<String> executeAndRecord(String key, String fingerprint, Supplier<ResponseEntity<String>> action) {
+        AtomicBoolean rolledBack = new AtomicBoolean();
+        ResponseEntity<String> response;
+        try {
+            response = transactionTemplate.execute(status -> {
+                ResponseEntity<String> result = action.get();
+                if (status.isRollbackOnly()) {
+                    // Roll back without the commit failing on the rollback-only mark of a joined service
+                    status.setRollbackOnly();
+                    rolledBack.set(true);
+                    return result;
+                }
+                insert(key, fingerprint, result);
+                return result;
+            });
+            if (rolledBack.get()) {
+                recordFailure(key, fingerprint, response);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Another instance recorded a response for the key first; this request's changes were rolled back
+            StoredResponse stored = find(key);
+            if (stored == null) {
+                return new ResponseEntity<>("A request with this Idempotency-Key is in progress.", HttpStatus.CONFLICT);
+            }
+            return replay(stored, fingerprint);
+        }
+
+        responses.put(key, new StoredResponse(fingerprint, response.getStatusCode().value(), response.getBody()));
+        return response;
+    }
+
+    private void recordFailure(String key, String fingerprint, ResponseEntity<String> response) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(key, fingerprint, response));
+        } catch (DataIntegrityViolationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // The request is done; it is still answered from memory until the entry expires
+            e.printStackTrace();
+        }
+    }
+
+    private void insert(String key, String fingerprint, ResponseEntity<String> response) {
+        LocalDateTime now = LocalDateTime.now();
+        // An expired record not purged yet would make the insert fail
+        idempotencyRecordRepository.deleteExpired(key, now.minus(ttl));
+        idempotencyRecordRepository.insert(key, fingerprint, response.getStatusCode().value(), response.getBody(), now);
+    }
+
+    private static String fingerprint(String request) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(request.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
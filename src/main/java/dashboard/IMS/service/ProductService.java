@@ -8,7 +8,11 @@ import dashboard.IMS.entity.User;
 import dashboard.IMS.mapper.ProductMapper;
 import dashboard.IMS.repository.ProductRepository;
 import dashboard.IMS.utilities.FileUploadUtil;
+import dashboard.IMS.utilities.ImageUrlUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
@@ -19,6 +23,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 /**
@@ -29,7 +34,7 @@ import org.springframework.data.domain.Pageable;
  * Date: 02/20/2024
  */
 @Service
-public class ProductService {
+public class ProductService implements SmartInitializingSingleton {
 
     @Autowired
     private ProductRepository productRepository;
@@ -43,6 +48,17 @@ public class ProductService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private BackfillService backfillService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final int IMAGE_URL_MIGRATION_PAGE_SIZE = 500;
+
     /**
      * Retrieves all products from the database.
      *
@@ -97,6 +113,11 @@ public class ProductService {
         // Add similar checks for other fields that can be updated
 
         productRepository.save(existingProduct);
+
+        // The product lists show the name and prices, so the owner's cached dashboard is stale
+        if (existingProduct.getUser() != null) {
+            dashboardService.evict(existingProduct.getUser().getId());
+        }
     }
 
 
@@ -158,8 +179,8 @@ public class ProductService {
                 }
             }
 
-            // Save Product with image URLs
-            product.setImageUrls(String.valueOf(imageUrls));
+            // Save Product with image URLs; the primary image URL is derived from them once here
+            product.setImageUrlList(imageUrls);
 
             // Save Product
             Product savedProduct = productRepository.save(product);
@@ -174,6 +195,7 @@ public class ProductService {
 
             // Save ProductVariation
             productVariationService.createProductVariation(productVariationDTO);
+            dashboardService.evict(userDTO.getId());
 
             return savedProduct;
         } catch (Exception e) {
@@ -188,4 +210,41 @@ public class ProductService {
         return productRepository.findByDeletedFalse(pageable);
     }
 
+    /**
+     * Runs the startup backfills once every bean is created, before the web server accepts requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        migrateLegacyImageUrls();
+    }
+
+    /**
+     * Moves the image URLs of products saved in the legacy string form to the image URL list
+     * on the first start after the list was added, so the listing pages never parse them.
+     * Products are migrated a page at a time, and the cached dashboards are dropped afterwards,
+     * so none keeps showing a product without its image.
+     */
+    public void migrateLegacyImageUrls() {
+        if (backfillService.runOnce("product_image_url_list", this::migrateLegacyImageUrlPages)) {
+            dashboardService.evictAll();
+        }
+    }
+
+    private void migrateLegacyImageUrlPages() {
+        PageRequest page = PageRequest.of(0, IMAGE_URL_MIGRATION_PAGE_SIZE);
+        int afterId = 0;
+        List<Product> products;
+        do {
+            products = productRepository.findByImageUrlListIsNullAndImageUrlsIsNotNullAndIdGreaterThanOrderById(afterId, page);
+            for (Product product : products) {
+                product.setImageUrlList(ImageUrlUtil.parseLegacyImageUrls(product.getImageUrls()));
+                afterId = product.getId();
+            }
+            productRepository.saveAll(products);
+            // Write the page and detach it, so the migration does not hold every product in memory
+            entityManager.flush();
+            entityManager.clear();
+        } while (products.size() == IMAGE_URL_MIGRATION_PAGE_SIZE);
+    }
+
 }
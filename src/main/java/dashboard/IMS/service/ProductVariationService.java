@@ -5,10 +5,14 @@ import dashboard.IMS.entity.Color;
 import dashboard.IMS.entity.Product;
 import dashboard.IMS.entity.ProductVariation;
 import dashboard.IMS.entity.Size;
+import dashboard.IMS.entity.StockMovementType;
 import dashboard.IMS.repository.ProductVariationRepository;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -24,17 +28,25 @@ import java.util.stream.Collectors;
 public class ProductVariationService {
 
     private final ProductVariationRepository productVariationRepository;
+    private final StockLedgerService stockLedgerService;
+    private final DashboardService dashboardService;
 
-    public ProductVariationService(ProductVariationRepository productVariationRepository) {
+    public ProductVariationService(ProductVariationRepository productVariationRepository,
+                                   StockLedgerService stockLedgerService,
+                                   DashboardService dashboardService) {
         this.productVariationRepository = productVariationRepository;
+        this.stockLedgerService = stockLedgerService;
+        this.dashboardService = dashboardService;
     }
 
     /**
      * Creates a new ProductVariation.
+     * Its initial stock is recorded in the stock ledger as a restock.
      *
      * @param productVariationDTO The DTO representing the ProductVariation to be created.
      * @return The created ProductVariation DTO.
      */
+    @Transactional
     public ProductVariationDTO createProductVariation(ProductVariationDTO productVariationDTO) {
         ProductVariation productVariation = new ProductVariation();
 
@@ -62,6 +74,10 @@ public class ProductVariationService {
         productVariation.setUserId(productVariationDTO.getUserId());
 
         ProductVariation savedEntity = productVariationRepository.save(productVariation);
+        if (savedEntity.getQuantity() != 0) {
+            stockLedgerService.record(Collections.singletonList(StockLedgerService.movement(savedEntity.getId(),
+                    productVariationDTO.getUserId(), StockMovementType.RESTOCK, savedEntity.getQuantity(), LocalDateTime.now())));
+        }
         return toDTO(savedEntity);
     }
 
@@ -89,17 +105,34 @@ public class ProductVariationService {
 
     /**
      * Updates a ProductVariation.
+     * A change of its stock is recorded in the stock ledger as an adjustment.
      *
      * @param id                The ID of the ProductVariation to update.
      * @param productVariationDTO The DTO representing the updated ProductVariation.
      * @return The updated ProductVariation DTO if successful, otherwise null.
      */
+    @Transactional
     public ProductVariationDTO updateProductVariation(Integer id, ProductVariationDTO productVariationDTO) {
         Optional<ProductVariation> productVariationOptional = productVariationRepository.findById(id);
         if (productVariationOptional.isPresent()) {
             ProductVariation existingEntity = productVariationOptional.get();
+            int previousQuantity = existingEntity.getQuantity();
+            Integer previousUserId = existingEntity.getUser() != null ? existingEntity.getUser().getId() : null;
             BeanUtils.copyProperties(productVariationDTO, existingEntity);
             ProductVariation updatedEntity = productVariationRepository.save(existingEntity);
+            int quantityChange = updatedEntity.getQuantity() - previousQuantity;
+            Integer userId = updatedEntity.getUser() != null ? updatedEntity.getUser().getId() : null;
+            if (quantityChange != 0) {
+                stockLedgerService.record(Collections.singletonList(StockLedgerService.movement(id,
+                        userId, StockMovementType.ADJUSTMENT, quantityChange, LocalDateTime.now())));
+            }
+            // The dashboard shows stock levels and the products low on stock
+            if (previousUserId != null) {
+                dashboardService.evict(previousUserId);
+            }
+            if (userId != null && !userId.equals(previousUserId)) {
+                dashboardService.evict(userId);
+            }
             return toDTO(updatedEntity);
         }
         return null; // Or throw an exception indicating the entity was not found
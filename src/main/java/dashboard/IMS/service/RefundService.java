@@ -0,0 +1,171 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.dto.UserDTO;
+import dashboard.IMS.entity.Money;
+import dashboard.IMS.entity.Sales;
+import dashboard.IMS.entity.User;
+import dashboard.IMS.repository.ProductVariationRepository;
+import dashboard.IMS.repository.SalesJdbcRepository;
+import dashboard.IMS.repository.SalesRepository;
+import dashboard.IMS.repository.UserRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class for refunds of Sales records.
+ * Refunds the newest sales of a product variation first, reading only as many sales
+ * as the refund needs and writing all changes in batches.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Service
+public class RefundService {
+
+    // Number of refundable sales read per query
+    private static final int REFUNDABLE_PAGE_SIZE = 50;
+
+    private final SalesRepository salesRepository;
+    private final SalesJdbcRepository salesJdbcRepository;
+    private final ProductVariationRepository productVariationRepository;
+    private final UserRepository userRepository;
+    private final SalesService salesService;
+    private final DashboardService dashboardService;
+    private final StockLedgerService stockLedgerService;
+
+    public RefundService(SalesRepository salesRepository, SalesJdbcRepository salesJdbcRepository,
+                         ProductVariationRepository productVariationRepository, UserRepository userRepository,
+                         SalesService salesService, DashboardService dashboardService,
+                         StockLedgerService stockLedgerService) {
+        this.salesRepository = salesRepository;
+        this.salesJdbcRepository = salesJdbcRepository;
+        this.productVariationRepository = productVariationRepository;
+        this.userRepository = userRepository;
+        this.salesService = salesService;
+        this.dashboardService = dashboardService;
+        this.stockLedgerService = stockLedgerService;
+    }
+
+    /**
+     * Refunds a quantity of a product variation sold by the user.
+     * The quantity is taken from the newest sales first. Each refunded sale gets its refunded quantity
+     * increased and a matching negative Sales record, and the stock is increased once.
+     *
+     * @param userDTO            The logged-in user.
+     * @param productVariationId The ID of the product variation to refund.
+     * @param quantity           The quantity to refund.
+     * @return The refund Sales records that were inserted.
+     * @throws IllegalArgumentException If the quantity is invalid or larger than the quantity left to refund,
+     *                                  or the product variation is not found.
+     */
+    @Transactional
+    public List<Sales> refund(UserDTO userDTO, Integer productVariationId, Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Invalid quantity for the refund.");
+        }
+        if (!productVariationRepository.existsByIdAndProductUserId(productVariationId, userDTO.getId())) {
+            throw new IllegalArgumentException("Failed to find product variation. Please try again.");
+        }
+        // Checked against the running totals so an impossible refund never reads the sales history
+        if (salesService.getSalesSummary(userDTO.getId(), productVariationId).getQuantityRefundable() < quantity) {
+            throw new IllegalArgumentException("Refund quantity cannot be greater than total sold quantity.");
+        }
+
+        User user = userRepository.getReferenceById(userDTO.getId());
+        LocalDateTime transactionDate = LocalDateTime.now();
+        Map<Integer, Integer> refundedQuantities = new LinkedHashMap<>();
+        List<Sales> refundSales = new ArrayList<>();
+
+        int remainingQuantityToRefund = quantity;
+        for (int page = 0; remainingQuantityToRefund > 0; page++) {
+            List<Sales> salesRecords = salesRepository.findRefundable(productVariationId, userDTO.getId(),
+                    PageRequest.of(page, REFUNDABLE_PAGE_SIZE));
+            if (salesRecords.isEmpty()) {
+                throw new IllegalArgumentException("Refund quantity cannot be greater than total sold quantity.");
+            }
+
+            for (Sales salesRecord : salesRecords) {
+                int quantitySold = salesRecord.getQuantitySold();
+                int quantityRefunded = salesRecord.getQuantityRefunded() != null ? salesRecord.getQuantityRefunded() : 0;
+                int quantityToRefund = Math.min(quantitySold - quantityRefunded, remainingQuantityToRefund);
+
+                refundedQuantities.put(salesRecord.getId(), quantityToRefund);
+                refundSales.add(buildRefund(salesRecord, quantityToRefund, user, transactionDate));
+
+                remainingQuantityToRefund -= quantityToRefund;
+                if (remainingQuantityToRefund == 0) {
+                    break;
+                }
+            }
+        }
+
+        // Only updates sales that still have the units left, so a concurrent refund cannot refund them twice
+        if (!salesJdbcRepository.addRefundedQuantities(refundedQuantities)) {
+            throw new IllegalArgumentException("Refund quantity cannot be greater than total sold quantity.");
+        }
+        salesJdbcRepository.insertAll(refundSales);
+        salesJdbcRepository.addToSalesSummaries(refundSales);
+        salesJdbcRepository.addToDailyRollups(refundSales);
+        productVariationRepository.incrementQuantity(productVariationId, quantity);
+        stockLedgerService.record(StockLedgerService.movements(refundSales));
+        dashboardService.evict(userDTO.getId());
+
+        return refundSales;
+    }
+
+    /**
+     * Builds the negative Sales record for refunding part of a sale.
+     * The refunded revenue and cost are the sale's totals prorated in cents, and the refunded profit
+     * is their difference, so refunding a sale in any number of parts returns exactly its totals.
+     *
+     * @param salesRecord      The sale being refunded.
+     * @param quantityToRefund The quantity refunded from the sale.
+     * @param user             The user who made the refund.
+     * @param transactionDate  The date and time of the refund.
+     * @return The unsaved refund Sales record.
+     */
+    private Sales buildRefund(Sales salesRecord, int quantityToRefund, User user, LocalDateTime transactionDate) {
+        int quantitySold = salesRecord.getQuantitySold();
+        int quantityRefunded = salesRecord.getQuantityRefunded() != null ? salesRecord.getQuantityRefunded() : 0;
+        Money refundRevenue = refundShare(salesRecord.getTotalRevenue(), quantitySold, quantityRefunded, quantityToRefund);
+        Money refundCost = refundShare(salesRecord.getTotalCost(), quantitySold, quantityRefunded, quantityToRefund);
+        Money refundProfit = refundRevenue.minus(refundCost);
+
+        return Sales.builder()
+                .productVariationId(salesRecord.getProductVariationId())
+                .quantitySold(quantityToRefund * -1) // Negative quantity for a refund
+                .totalRevenue(refundRevenue.negate()) // Negative revenue for a refund
+                .totalCost(refundCost.negate()) // Negative cost for a refund
+                .totalProfit(refundProfit.negate()) // Negative profit for a refund
+                .transactionDate(transactionDate)
+                .user(user)
+                .isRefund(true) // Indicate that this is a refund
+                .build();
+    }
+
+    /**
+     * Returns the part of a sale's total refunded with the next units: the share of the units refunded
+     * after this refund minus the share of those refunded before it. Dividing once per refund instead of
+     * rounding a per-unit price keeps the rounding from adding up over the units.
+     *
+     * @param total            The total of the sale.
+     * @param quantitySold     The quantity sold.
+     * @param quantityRefunded The quantity refunded before this refund.
+     * @param quantityToRefund The quantity refunded now.
+     * @return The part of the total to refund.
+     */
+    private static Money refundShare(Money total, int quantitySold, int quantityRefunded, int quantityToRefund) {
+        if (total == null) {
+            return Money.ZERO;
+        }
+        return total.prorate(quantityRefunded + quantityToRefund, quantitySold)
+                .minus(total.prorate(quantityRefunded, quantitySold));
+    }
+}
@@ -0,0 +1,174 @@
+package dashboard.IMS.service;
+
+import com.itextpdf.text.DocumentException;
+import dashboard.IMS.dto.ReportFormat;
+import dashboard.IMS.dto.SalesReportFilter;
+import dashboard.IMS.dto.SalesReportVersion;
+import dashboard.IMS.repository.SalesRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Service class for caching generated PDF and Excel sales reports on disk.
+ * A report is keyed by the user, format, filters, highest sales ID, number of sales and report date,
+ * so a new sale or refund makes the next download generate a new report. A superseded report may still be
+ * about to be streamed by a request that looked it up earlier, so it is only deleted by the scheduled cleanup
+ * once it has been superseded for longer than the grace period.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Service
+public class ReportCacheService {
+
+    private final SalesRepository salesRepository;
+    private final SalesService salesService;
+    private final Path cacheDirectory;
+    private final Duration gracePeriod;
+
+    // Superseded report files and when they were superseded, in milliseconds since the epoch
+    private final Map<Path, Long> staleReports = new ConcurrentHashMap<>();
+
+    public ReportCacheService(SalesRepository salesRepository, SalesService salesService,
+                              @Value("${ims.report-cache.directory:${java.io.tmpdir}/ims-report-cache}") String cacheDirectory,
+                              @Value("${ims.report-cache.grace-period:PT10M}") Duration gracePeriod) {
+        this.salesRepository = salesRepository;
+        this.salesService = salesService;
+        this.cacheDirectory = Paths.get(cacheDirectory);
+        this.gracePeriod = gracePeriod;
+    }
+
+    /**
+     * A cached report file and the ETag identifying its content.
+     */
+    public record CachedReport(Path file, String etag) {
+    }
+
+    /**
+     * Retrieves the user's current report from the cache, generating it if the user's sales have changed.
+     *
+     * @param userId The ID of the logged-in user.
+     * @param format The format of the report.
+     * @param filter The report filters, or null for all of the user's sales.
+     * @return The cached report.
+     * @throws IOException If the report cannot be generated.
+     */
+    public CachedReport getReport(Integer userId, ReportFormat format, SalesReportFilter filter) throws IOException {
+        SalesReportFilter f = filter == null ? new SalesReportFilter() : filter;
+        String version = version(userId);
+        String key = userId + "-" + format.getExtension() + "-" + f.toKey() + "-" + version;
+        Path file = cacheDirectory.resolve(key + "." + format.getExtension());
+        if (!Files.exists(file)) {
+            render(userId, format, f, file);
+            staleReports.remove(file);
+            markStaleReports(userId, format, version);
+        }
+        return new CachedReport(file, "\"" + key + "\"");
+    }
+
+    /**
+     * Deletes the reports superseded for longer than the grace period, and reports left over from before
+     * a restart that are older than a day and the grace period, since the report date has changed since.
+     *
+     * @return The number of reports deleted.
+     */
+    @Scheduled(fixedDelayString = "${ims.report-cache.cleanup-interval:PT10M}")
+    public int deleteStaleReports() {
+        long now = System.currentTimeMillis();
+        long supersededBefore = now - gracePeriod.toMillis();
+        int deleted = 0;
+        for (Map.Entry<Path, Long> entry : staleReports.entrySet()) {
+            if (entry.getValue() <= supersededBefore && staleReports.remove(entry.getKey(), entry.getValue())) {
+                deleted += deleteQuietly(entry.getKey());
+            }
+        }
+
+        if (!Files.isDirectory(cacheDirectory)) {
+            return deleted;
+        }
+        long modifiedBefore = now - Duration.ofDays(1).plus(gracePeriod).toMillis();
+        try (Stream<Path> files = Files.list(cacheDirectory)) {
+            deleted += files.filter(file -> {
+                try {
+                    return Files.getLastModifiedTime(file).toMillis() < modifiedBefore;
+                } catch (IOException e) {
+                    return false;
+                }
+            }).mapToInt(this::deleteQuietly).sum();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return deleted;
+    }
+
+    private String version(Integer userId) {
+        SalesReportVersion version = salesRepository.findReportVersionByUserId(userId);
+        // The PDF title shows the current date, so the report also changes every day
+        return (version.maxSalesId() == null ? 0 : version.maxSalesId())
+                + "-" + version.salesCount()
+                + "-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    /**
+     * Generates a report into a temporary file and moves it into place once complete,
+     * so concurrent downloads never see a partial file.
+     */
+    private void render(Integer userId, ReportFormat format, SalesReportFilter filter, Path file) throws IOException {
+        Files.createDirectories(cacheDirectory);
+        Path partFile = Files.createTempFile(cacheDirectory, file.getFileName().toString(), ".part");
+        try {
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(partFile))) {
+                if (format == ReportFormat.PDF) {
+                    salesService.writeSalesReportPdf(userId, filter, outputStream);
+                } else {
+                    salesService.writeSalesReportExcel(userId, filter, outputStream);
+                }
+            }
+            Files.move(partFile, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (DocumentException e) {
+            throw new IOException("Failed to generate the sales report PDF.", e);
+        } finally {
+            Files.deleteIfExists(partFile);
+        }
+    }
+
+    /**
+     * Marks the user's reports of the same format that were generated from older sales for deletion,
+     * so the cache keeps one report per user, format and filters.
+     */
+    private void markStaleReports(Integer userId, ReportFormat format, String currentVersion) throws IOException {
+        String prefix = userId + "-" + format.getExtension() + "-";
+        String currentSuffix = "-" + currentVersion + "." + format.getExtension();
+        long now = System.currentTimeMillis();
+        try (Stream<Path> files = Files.list(cacheDirectory)) {
+            files.filter(file -> file.getFileName().toString().startsWith(prefix))
+                    .filter(file -> file.getFileName().toString().endsWith("." + format.getExtension()))
+                    .filter(file -> !file.getFileName().toString().endsWith(currentSuffix))
+                    .forEach(file -> staleReports.putIfAbsent(file, now));
+        }
+    }
+
+    private int deleteQuietly(Path file) {
+        try {
+            return Files.deleteIfExists(file) ? 1 : 0;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+}
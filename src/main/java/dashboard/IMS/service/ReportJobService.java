@@ -0,0 +1,182 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.dto.ReportFormat;
+import dashboard.IMS.dto.ReportJobDTO;
+import dashboard.IMS.dto.SalesReportFilter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Service class for asynchronous sales report exports.
+ * Reports are rendered on a bounded executor instead of the request thread, written to local disk,
+ * and deleted once they are older than the retention period.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Service
+public class ReportJobService {
+
+    private final SalesService salesService;
+    private final TaskExecutor reportJobExecutor;
+    private final Path reportDirectory;
+    private final Duration retention;
+
+    private final Map<String, ReportJobDTO> jobs = new ConcurrentHashMap<>();
+
+    public ReportJobService(SalesService salesService,
+                            @Qualifier("reportJobExecutor") TaskExecutor reportJobExecutor,
+                            @Value("${ims.report-jobs.directory:${java.io.tmpdir}/ims-reports}") String reportDirectory,
+                            @Value("${ims.report-jobs.retention:PT24H}") Duration retention) {
+        this.salesService = salesService;
+        this.reportJobExecutor = reportJobExecutor;
+        this.reportDirectory = Paths.get(reportDirectory);
+        this.retention = retention;
+    }
+
+    /**
+     * Queues a sales report export of the user's sales.
+     *
+     * @param userId The ID of the logged-in user.
+     * @param format The format of the report.
+     * @param filter The report filters, or null for all of the user's sales.
+     * @return The queued job.
+     * @throws IllegalStateException If too many report jobs are already queued.
+     */
+    public ReportJobDTO submit(Integer userId, ReportFormat format, SalesReportFilter filter) {
+        try {
+            Files.createDirectories(reportDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create the report directory.", e);
+        }
+
+        String jobId = UUID.randomUUID().toString();
+        String currentDate = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        ReportJobDTO job = ReportJobDTO.builder()
+                .id(jobId)
+                .userId(userId)
+                .format(format)
+                .filter(filter)
+                .fileName("sales-report-" + currentDate + "." + format.getExtension())
+                .file(reportDirectory.resolve(jobId + "." + format.getExtension()))
+                .createdAt(LocalDateTime.now())
+                .status(ReportJobDTO.Status.QUEUED)
+                .build();
+        jobs.put(jobId, job);
+
+        try {
+            reportJobExecutor.execute(() -> render(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(jobId);
+            throw new IllegalStateException("Too many reports are being generated. Please try again later.", e);
+        }
+        return job;
+    }
+
+    /**
+     * Retrieves a report job of the user.
+     *
+     * @param userId The ID of the logged-in user.
+     * @param jobId  The ID of the job.
+     * @return The job, or empty if it does not exist, has expired, or belongs to another user.
+     */
+    public Optional<ReportJobDTO> getJob(Integer userId, String jobId) {
+        ReportJobDTO job = jobs.get(jobId);
+        if (job == null || !job.getUserId().equals(userId)) {
+            return Optional.empty();
+        }
+        return Optional.of(job);
+    }
+
+    /**
+     * Deletes the report jobs and files older than the retention period, including files left over
+     * from before a restart.
+     */
+    @Scheduled(fixedDelayString = "${ims.report-jobs.cleanup-interval:PT10M}")
+    public void deleteExpiredReports() {
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            if (job.getStatus() == ReportJobDTO.Status.QUEUED || job.getStatus() == ReportJobDTO.Status.RUNNING
+                    || job.getCreatedAt().isAfter(expiredBefore)) {
+                return false;
+            }
+            deleteQuietly(job.getFile());
+            return true;
+        });
+
+        if (!Files.isDirectory(reportDirectory)) {
+            return;
+        }
+        long expiredBeforeMillis = System.currentTimeMillis() - retention.toMillis();
+        try (Stream<Path> files = Files.list(reportDirectory)) {
+            files.filter(file -> {
+                try {
+                    return Files.getLastModifiedTime(file).toMillis() < expiredBeforeMillis;
+                } catch (IOException e) {
+                    return false;
+                }
+            }).forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Renders a report job to a temporary file and moves it into place once complete,
+     * so a download never sees a partial file.
+     *
+     * @param job The job to render.
+     */
+    private void render(ReportJobDTO job) {
+        job.setStatus(ReportJobDTO.Status.RUNNING);
+        Path partFile = job.getFile().resolveSibling(job.getFile().getFileName() + ".part");
+        try {
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(partFile))) {
+                if (job.getFormat() == ReportFormat.PDF) {
+                    salesService.writeSalesReportPdf(job.getUserId(), job.getFilter(), outputStream);
+                } else {
+                    salesService.writeSalesReportExcel(job.getUserId(), job.getFilter(), outputStream);
+                }
+            }
+            Files.move(partFile, job.getFile(), StandardCopyOption.REPLACE_EXISTING);
+            job.setCompletedAt(LocalDateTime.now());
+            job.setStatus(ReportJobDTO.Status.COMPLETED);
+        } catch (Exception e) {
+            e.printStackTrace();
+            deleteQuietly(partFile);
+            job.setError("Failed to generate the report.");
+            job.setCompletedAt(LocalDateTime.now());
+            job.setStatus(ReportJobDTO.Status.FAILED);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
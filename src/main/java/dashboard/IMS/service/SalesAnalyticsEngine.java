@@ -0,0 +1,123 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.dto.SalesSliceDTO;
+import dashboard.IMS.repository.SalesJdbcRepository;
+import dashboard.IMS.utilities.ExpiringLruCache;
+import dashboard.IMS.utilities.SalesColumnStore;
+import dashboard.IMS.utilities.SalesColumnStore.Dimension;
+import dashboard.IMS.utilities.SalesColumnStore.GroupTotals;
+import dashboard.IMS.utilities.SalesColumnStore.Measure;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service class for interactive slicing of a user's sales by product, variation, color, size and period.
+ * Each user's sales are loaded once into a {@link SalesColumnStore} and kept in memory; every query first
+ * appends the sales added since, by sales ID, then scans the arrays. Each refresh reads again a window of IDs
+ * below the highest one loaded, so a sale whose transaction committed after a higher ID was loaded, such as one
+ * of a batch or a write-behind insert, is still picked up; a later commit is picked up at the reload. Stores of
+ * the least recently used users are dropped when the cache is full, and every store is reloaded after its time
+ * to live.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Service
+public class SalesAnalyticsEngine {
+
+    private final SalesJdbcRepository salesJdbcRepository;
+    private final ExpiringLruCache<Integer, SalesColumnStore> stores;
+    private final int reloadWindow;
+
+    public SalesAnalyticsEngine(SalesJdbcRepository salesJdbcRepository,
+                                @Value("${ims.analytics.engine.max-users:20}") int maxUsers,
+                                @Value("${ims.analytics.engine.ttl:PT1H}") Duration ttl,
+                                @Value("${ims.analytics.engine.reload-window:1000}") int reloadWindow) {
+        this.salesJdbcRepository = salesJdbcRepository;
+        this.reloadWindow = reloadWindow;
+        this.stores = new ExpiringLruCache<>(maxUsers, ttl);
+    }
+
+    /**
+     * Sums a measure over the user's sales in each group, for sales in a range of days.
+     *
+     * @param userId    The ID of the logged-in user.
+     * @param dimension What to group the sales by.
+     * @param measure   What to sum.
+     * @param from      The first day to include.
+     * @param to        The last day to include.
+     * @return The total of each group, ordered by ID or period.
+     */
+    public List<SalesSliceDTO> groupBy(Integer userId, Dimension dimension, Measure measure, LocalDate from, LocalDate to) {
+        GroupTotals totals = refresh(userId).groupBySum(dimension, measure, epochDay(from), epochDay(to));
+        return toSlices(dimension, measure, totals);
+    }
+
+    /**
+     * Finds the groups of the user's sales with the highest or lowest sums of a measure, for sales in a range of days.
+     *
+     * @param userId    The ID of the logged-in user.
+     * @param dimension What to group the sales by.
+     * @param measure   What to sum.
+     * @param limit     The maximum number of groups to return.
+     * @param ascending True for the lowest sums first, false for the highest.
+     * @param from      The first day to include.
+     * @param to        The last day to include.
+     * @return Up to limit groups ordered by their totals.
+     */
+    public List<SalesSliceDTO> topN(Integer userId, Dimension dimension, Measure measure, int limit, boolean ascending,
+                                    LocalDate from, LocalDate to) {
+        GroupTotals totals = refresh(userId).topN(dimension, measure, limit, ascending, epochDay(from), epochDay(to));
+        return toSlices(dimension, measure, totals);
+    }
+
+    /**
+     * Drops the user's store, so the next query reloads all of their sales.
+     * Only needed when sales are changed or deleted rather than added.
+     *
+     * @param userId The ID of the user.
+     */
+    public void evict(Integer userId) {
+        stores.remove(userId);
+    }
+
+    /**
+     * Retrieves the user's store with every sale added since the last query appended.
+     */
+    private SalesColumnStore refresh(Integer userId) {
+        SalesColumnStore store = stores.computeIfAbsent(userId, id -> new SalesColumnStore(reloadWindow));
+        // One loader per store at a time, so the same sales are not read twice at once
+        store.getLoadLock().lock();
+        try {
+            salesJdbcRepository.loadSalesColumns(userId, store.getReloadAfterSalesId(), store);
+        } finally {
+            store.getLoadLock().unlock();
+        }
+        return store;
+    }
+
+    private static int epochDay(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+    private static List<SalesSliceDTO> toSlices(Dimension dimension, Measure measure, GroupTotals totals) {
+        boolean period = dimension == Dimension.DAY || dimension == Dimension.WEEK || dimension == Dimension.MONTH;
+        List<SalesSliceDTO> slices = new ArrayList<>(totals.size());
+        for (int i = 0; i < totals.size(); i++) {
+            int key = totals.keys()[i];
+            long sum = totals.sums()[i];
+            slices.add(SalesSliceDTO.builder()
+                    .id(period ? null : key)
+                    .periodStart(period ? LocalDate.ofEpochDay(key) : null)
+                    .value(measure == Measure.QUANTITY ? BigDecimal.valueOf(sum) : BigDecimal.valueOf(sum, 2))
+                    .build());
+        }
+        return slices;
+    }
+}
@@ -0,0 +1,207 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.dto.SalesPeriod;
+import dashboard.IMS.dto.SalesTotalsDTO;
+import dashboard.IMS.dto.VariationSalesDTO;
+import dashboard.IMS.repository.ProductVariationRepository;
+import dashboard.IMS.repository.SalesDailyRollupRepository;
+import dashboard.IMS.repository.SalesJdbcRepository;
+import dashboard.IMS.repository.SalesRepository;
+import dashboard.IMS.utilities.ExpiringLruCache;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class for sales analytics.
+ * Totals are read from the sales_daily_rollup table, which holds one row per user, day and
+ * product variation sold, so a trend over months reads a few hundred rows instead of the sales history.
+ * Top sellers and slow movers are grouped by the database and cached for a short time.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Service
+public class SalesAnalyticsService implements SmartInitializingSingleton {
+
+    private final SalesDailyRollupRepository salesDailyRollupRepository;
+    private final SalesJdbcRepository salesJdbcRepository;
+    private final SalesRepository salesRepository;
+    private final ProductVariationRepository productVariationRepository;
+    private final BackfillService backfillService;
+    private final int maxLimit;
+    // Top sellers and slow movers by user, list, window and limit
+    private final ExpiringLruCache<String, List<VariationSalesDTO>> rankingCache;
+
+    public SalesAnalyticsService(SalesDailyRollupRepository salesDailyRollupRepository,
+                                 SalesJdbcRepository salesJdbcRepository,
+                                 SalesRepository salesRepository,
+                                 ProductVariationRepository productVariationRepository,
+                                 BackfillService backfillService,
+                                 @Value("${ims.analytics.ranking.max-limit:100}") int maxLimit,
+                                 @Value("${ims.analytics.ranking.cache.max-size:500}") int cacheMaxSize,
+                                 @Value("${ims.analytics.ranking.cache.ttl:PT1M}") Duration cacheTtl) {
+        this.salesDailyRollupRepository = salesDailyRollupRepository;
+        this.salesJdbcRepository = salesJdbcRepository;
+        this.salesRepository = salesRepository;
+        this.productVariationRepository = productVariationRepository;
+        this.backfillService = backfillService;
+        this.maxLimit = maxLimit;
+        this.rankingCache = new ExpiringLruCache<>(cacheMaxSize, cacheTtl);
+    }
+
+    /**
+     * Retrieves the user's totals of each day with sales or refunds in a range.
+     *
+     * @param userId The ID of the logged-in user.
+     * @param from   The first day to include.
+     * @param to     The last day to include.
+     * @return The totals of each day, oldest first.
+     */
+    public List<SalesTotalsDTO> getDailyTotals(Integer userId, LocalDate from, LocalDate to) {
+        return getTotals(userId, SalesPeriod.DAY, from, to);
+    }
+
+    /**
+     * Retrieves the user's totals of each week, starting on Monday, with sales or refunds in a range.
+     *
+     * @param userId The ID of the logged-in user.
+     * @param from   The first day to include.
+     * @param to     The last day to include.
+     * @return The totals of each week, oldest first.
+     */
+    public List<SalesTotalsDTO> getWeeklyTotals(Integer userId, LocalDate from, LocalDate to) {
+        return getTotals(userId, SalesPeriod.WEEK, from, to);
+    }
+
+    /**
+     * Retrieves the user's totals of each month with sales or refunds in a range.
+     *
+     * @param userId The ID of the logged-in user.
+     * @param from   The first day to include.
+     * @param to     The last day to include.
+     * @return The totals of each month, oldest first.
+     */
+    public List<SalesTotalsDTO> getMonthlyTotals(Integer userId, LocalDate from, LocalDate to) {
+        return getTotals(userId, SalesPeriod.MONTH, from, to);
+    }
+
+    /**
+     * Retrieves the user's totals of each period with sales or refunds in a range.
+     * The daily totals are summed by the database; weeks and months are summed from them here.
+     *
+     * @param userId The ID of the logged-in user.
+     * @param period The period to group the totals by.
+     * @param from   The first day to include.
+     * @param to     The last day to include.
+     * @return The totals of each period, oldest first.
+     * @throws IllegalArgumentException If the range ends before it starts.
+     */
+    public List<SalesTotalsDTO> getTotals(Integer userId, SalesPeriod period, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("The end date cannot be before the start date.");
+        }
+
+        List<SalesTotalsDTO> dailyTotals = salesDailyRollupRepository.findDailyTotals(userId, from, to);
+        if (period == SalesPeriod.DAY) {
+            return dailyTotals;
+        }
+
+        // Daily totals are in date order, so each period's days are consecutive
+        Map<LocalDate, SalesTotalsDTO> totals = new LinkedHashMap<>();
+        for (SalesTotalsDTO day : dailyTotals) {
+            LocalDate periodStart = period.startOf(day.getPeriodStart());
+            SalesTotalsDTO periodTotals = totals.get(periodStart);
+            if (periodTotals == null) {
+                day.setPeriodStart(periodStart);
+                totals.put(periodStart, day);
+            } else {
+                periodTotals.add(day);
+            }
+        }
+        return new ArrayList<>(totals.values());
+    }
+
+    /**
+     * Retrieves the user's product variations with the most units sold in the last days, net of refunds.
+     *
+     * @param userId The ID of the logged-in user.
+     * @param days   The number of days to look back, including today.
+     * @param limit  The maximum number of variations to return, capped at the configured maximum.
+     * @return The best selling variations, most units sold first.
+     * @throws IllegalArgumentException If the number of days or the limit is not positive.
+     */
+    public List<VariationSalesDTO> getTopSellers(Integer userId, int days, int limit) {
+        int size = rankingSize(days, limit);
+        return rankingCache.computeIfAbsent(userId + ":top:" + days + ":" + size,
+                key -> salesRepository.findTopSellers(userId, windowStart(days), PageRequest.of(0, size)));
+    }
+
+    /**
+     * Retrieves the user's product variations in stock with the fewest units sold in the last days,
+     * including variations that did not sell at all.
+     *
+     * @param userId The ID of the logged-in user.
+     * @param days   The number of days to look back, including today.
+     * @param limit  The maximum number of variations to return, capped at the configured maximum.
+     * @return The slowest moving variations, fewest units sold first.
+     * @throws IllegalArgumentException If the number of days or the limit is not positive.
+     */
+    public List<VariationSalesDTO> getSlowMovers(Integer userId, int days, int limit) {
+        int size = rankingSize(days, limit);
+        return rankingCache.computeIfAbsent(userId + ":slow:" + days + ":" + size, key -> {
+            List<VariationSalesDTO> slowMovers = productVariationRepository.findSlowMovers(userId, windowStart(days),
+                    PageRequest.of(0, size));
+            // Variations without sales in the window have no sums
+            for (VariationSalesDTO slowMover : slowMovers) {
+                if (slowMover.getQuantitySold() == null) {
+                    slowMover.setQuantitySold(0L);
+                    slowMover.setTotalRevenue(BigDecimal.ZERO);
+                    slowMover.setTotalProfit(BigDecimal.ZERO);
+                }
+            }
+            return slowMovers;
+        });
+    }
+
+    private int rankingSize(int days, int limit) {
+        if (days <= 0) {
+            throw new IllegalArgumentException("The number of days must be positive.");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("The limit must be positive.");
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    private static LocalDateTime windowStart(int days) {
+        return LocalDate.now().minusDays(days - 1L).atStartOfDay();
+    }
+
+    /**
+     * Runs the startup backfills once every bean is created, before the web server accepts requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        initializeDailyRollups();
+    }
+
+    /**
+     * Fills the daily sales totals from the sales history on the first start after the sales_daily_rollup
+     * table was added. Rows already written, such as by sales made before the backfill, are rebuilt too,
+     * so they do not collide with the rebuilt rows.
+     */
+    public void initializeDailyRollups() {
+        backfillService.runOnce("sales_daily_rollup", salesJdbcRepository::rebuildDailyRollups);
+    }
+}
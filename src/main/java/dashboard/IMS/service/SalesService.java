@@ -1,19 +1,51 @@
 package dashboard.IMS.service;
 
+import dashboard.IMS.dto.SaleLineDTO;
 import dashboard.IMS.dto.SalesDTO;
+import dashboard.IMS.dto.SalesReportCursor;
+import dashboard.IMS.dto.SalesReportFilter;
+import dashboard.IMS.dto.SalesReportPageDTO;
 import dashboard.IMS.dto.UserDTO;
+import dashboard.IMS.entity.Money;
+import dashboard.IMS.entity.Product;
+import dashboard.IMS.entity.ProductVariation;
 import dashboard.IMS.entity.Sales;
+import dashboard.IMS.entity.SalesSummary;
 import dashboard.IMS.entity.User;
+import dashboard.IMS.repository.ProductVariationRepository;
+import dashboard.IMS.repository.SalesJdbcRepository;
 import dashboard.IMS.repository.SalesRepository;
+import dashboard.IMS.repository.SalesSummaryRepository;
+import dashboard.IMS.repository.UserRepository;
+import com.itextpdf.text.DocumentException;
+import dashboard.IMS.utilities.ExcelUtil;
+import dashboard.IMS.utilities.PdfUtil;
+import dashboard.IMS.utilities.SalesExportUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 
@@ -25,15 +57,44 @@ import org.springframework.data.domain.Pageable;
  * Date: 02/20/2024
  */
 @Service
-public class SalesService {
+public class SalesService implements SmartInitializingSingleton {
 
     private final SalesRepository salesRepository;
     private final UserService userService;
+    private final ProductVariationRepository productVariationRepository;
+    private final UserRepository userRepository;
+    private final SalesJdbcRepository salesJdbcRepository;
+    private final SalesSummaryRepository salesSummaryRepository;
+    private final DashboardService dashboardService;
+    private final StockLedgerService stockLedgerService;
+    private final SalesWriteBehindService salesWriteBehindService;
+    private final BackfillService backfillService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${ims.sales-report.page-size:5}")
+    private int salesReportPageSize = 5;
+
+    @Value("${ims.sales-report.max-page-size:100}")
+    private int salesReportMaxPageSize = 100;
 
     @Autowired
-    public SalesService(SalesRepository salesRepository, UserService userService) {
+    public SalesService(SalesRepository salesRepository, UserService userService,
+                        ProductVariationRepository productVariationRepository, UserRepository userRepository,
+                        SalesJdbcRepository salesJdbcRepository, SalesSummaryRepository salesSummaryRepository,
+                        DashboardService dashboardService, StockLedgerService stockLedgerService,
+                        SalesWriteBehindService salesWriteBehindService, BackfillService backfillService) {
         this.salesRepository = salesRepository;
         this.userService = userService;
+        this.productVariationRepository = productVariationRepository;
+        this.userRepository = userRepository;
+        this.salesJdbcRepository = salesJdbcRepository;
+        this.salesSummaryRepository = salesSummaryRepository;
+        this.dashboardService = dashboardService;
+        this.stockLedgerService = stockLedgerService;
+        this.salesWriteBehindService = salesWriteBehindService;
+        this.backfillService = backfillService;
     }
 
     /**
@@ -45,10 +106,218 @@ public class SalesService {
     public SalesDTO createSales(SalesDTO salesDTO) {
         Sales sales = new Sales();
         BeanUtils.copyProperties(salesDTO, sales);
+        copyTotals(salesDTO, sales);
         Sales savedEntity = salesRepository.save(sales);
         return toDTO(savedEntity);
     }
 
+    /**
+     * Sells a quantity of a product variation owned by the user.
+     * The stock is decremented with a conditional update and the Sales record is inserted
+     * in the same transaction, so concurrent sales of the same variation cannot oversell.
+     * Stock held by reservations is not available to sell.
+     * When write-behind is enabled, only the stock is updated here and the Sales record is inserted
+     * later by the write-behind writer.
+     *
+     * @param userDTO            The logged-in user.
+     * @param productVariationId The ID of the product variation to sell.
+     * @param quantity           The quantity to sell.
+     * @return The saved Sales record, or the unsaved one with write-behind.
+     * @throws IllegalArgumentException If the quantity is invalid or insufficient, or the variation is not found.
+     */
+    @Transactional
+    public Sales sell(UserDTO userDTO, Integer productVariationId, Integer quantity) {
+        return sell(userDTO, productVariationId, quantity, false);
+    }
+
+    /**
+     * Sells a quantity of a product variation held by a reservation of the user, which the caller has
+     * already removed. The held quantity is subtracted from both the stock and the reserved quantity.
+     *
+     * @param userDTO            The logged-in user.
+     * @param productVariationId The ID of the reserved product variation.
+     * @param quantity           The reserved quantity.
+     * @return The saved Sales record.
+     * @throws IllegalArgumentException If the variation is not found or does not hold the quantity.
+     */
+    @Transactional
+    public Sales sellReserved(UserDTO userDTO, Integer productVariationId, Integer quantity) {
+        return sell(userDTO, productVariationId, quantity, true);
+    }
+
+    private Sales sell(UserDTO userDTO, Integer productVariationId, Integer quantity, boolean reserved) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Invalid quantity for the sale.");
+        }
+
+        ProductVariation productVariation = productVariationRepository.findByIdAndProductUserId(productVariationId, userDTO.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Failed to sell product variation. Please try again."));
+        Product product = productVariation.getProduct();
+        if (product == null) {
+            throw new IllegalArgumentException("Failed to sell product variation. Please try again.");
+        }
+
+        // Decrement only if enough stock is left; no read-modify-write of the quantity in Java
+        int updated = reserved
+                ? productVariationRepository.commitReservedQuantity(productVariationId, quantity)
+                : productVariationRepository.decrementQuantityIfAvailable(productVariationId, quantity);
+        if (updated == 0) {
+            throw new IllegalArgumentException("Quantity is insufficient for the sale.");
+        }
+
+        Sales sales = buildSale(productVariationId, product, quantity,
+                userRepository.getReferenceById(userDTO.getId()), LocalDateTime.now());
+
+        if (salesWriteBehindService.isEnabled()) {
+            // The stock change and its movement commit now, with the sale journaled just before the commit;
+            // the sale and its totals are written in a later batch. The movement carries the journal sequence.
+            salesWriteBehindService.submit(sales);
+            stockLedgerService.record(StockLedgerService.movements(Collections.singletonList(sales)));
+            dashboardService.evict(userDTO.getId());
+            return sales;
+        }
+
+        Sales savedSales = salesRepository.save(sales);
+        salesJdbcRepository.addToSalesSummaries(Collections.singletonList(savedSales));
+        salesJdbcRepository.addToDailyRollups(Collections.singletonList(savedSales));
+        stockLedgerService.record(StockLedgerService.movements(Collections.singletonList(savedSales)));
+        dashboardService.evict(userDTO.getId());
+        return savedSales;
+    }
+
+    /**
+     * Sells every line of a cart in one transaction.
+     * Stock for all lines is checked with one query, then decremented and the Sales records
+     * inserted with JDBC batches. If any line fails, nothing is sold.
+     *
+     * @param userDTO The logged-in user.
+     * @param lines   The product variations and quantities to sell.
+     * @return The number of Sales records inserted.
+     * @throws IllegalArgumentException If any line is invalid, not found, or has insufficient stock.
+     */
+    @Transactional
+    public int sellBatch(UserDTO userDTO, List<SaleLineDTO> lines) {
+        if (lines == null || lines.isEmpty()) {
+            throw new IllegalArgumentException("No items to sell.");
+        }
+
+        // Merge lines for the same variation; sorted by ID so concurrent carts lock rows in the same order
+        Map<Integer, Integer> quantities = new TreeMap<>();
+        for (SaleLineDTO line : lines) {
+            if (line.getProductVariationId() == null || line.getQuantity() == null || line.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Invalid quantity for the sale.");
+            }
+            quantities.merge(line.getProductVariationId(), line.getQuantity(), Integer::sum);
+        }
+
+        Map<Integer, ProductVariation> productVariations = new HashMap<>();
+        for (ProductVariation productVariation : productVariationRepository.findAllWithProductByIdInAndUserId(quantities.keySet(), userDTO.getId())) {
+            productVariations.put(productVariation.getId(), productVariation);
+        }
+
+        User user = userRepository.getReferenceById(userDTO.getId());
+        LocalDateTime transactionDate = LocalDateTime.now();
+        List<Sales> salesList = new ArrayList<>(quantities.size());
+        for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+            ProductVariation productVariation = productVariations.get(entry.getKey());
+            if (productVariation == null || productVariation.getProduct() == null) {
+                throw new IllegalArgumentException("Failed to sell product variation. Please try again.");
+            }
+            if (productVariation.getQuantity() - productVariation.getReservedQuantity() < entry.getValue()) {
+                throw new IllegalArgumentException("Quantity is insufficient for the sale.");
+            }
+            salesList.add(buildSale(entry.getKey(), productVariation.getProduct(), entry.getValue(), user, transactionDate));
+        }
+
+        // The conditional decrement is still the real guard against a concurrent sale taking the stock
+        if (!salesJdbcRepository.decrementQuantitiesIfAvailable(quantities)) {
+            throw new IllegalArgumentException("Quantity is insufficient for the sale.");
+        }
+        salesJdbcRepository.insertAll(salesList);
+        salesJdbcRepository.addToSalesSummaries(salesList);
+        salesJdbcRepository.addToDailyRollups(salesList);
+        stockLedgerService.record(StockLedgerService.movements(salesList));
+        dashboardService.evict(userDTO.getId());
+
+        return salesList.size();
+    }
+
+    /**
+     * Retrieves the running sales totals of a product variation for the user.
+     *
+     * @param userId             The ID of the user.
+     * @param productVariationId The ID of the product variation.
+     * @return The totals, or zero totals if the variation has never been sold.
+     */
+    public SalesSummary getSalesSummary(Integer userId, Integer productVariationId) {
+        return salesSummaryRepository.findByUserIdAndProductVariationId(userId, productVariationId)
+                .orElseGet(() -> SalesSummary.builder()
+                        .userId(userId)
+                        .productVariationId(productVariationId)
+                        .totalRevenue(BigDecimal.ZERO)
+                        .totalCost(BigDecimal.ZERO)
+                        .totalProfit(BigDecimal.ZERO)
+                        .build());
+    }
+
+    /**
+     * Retrieves the running sales totals of every product variation the user has sold.
+     *
+     * @param userId The ID of the user.
+     * @return A map of product variation IDs to their totals.
+     */
+    public Map<Integer, SalesSummary> getSalesSummaries(Integer userId) {
+        Map<Integer, SalesSummary> salesSummaries = new HashMap<>();
+        for (SalesSummary salesSummary : salesSummaryRepository.findByUserId(userId)) {
+            salesSummaries.put(salesSummary.getProductVariationId(), salesSummary);
+        }
+        return salesSummaries;
+    }
+
+    /**
+     * Runs the startup backfills once every bean is created, before the web server accepts requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        initializeSalesSummaries();
+    }
+
+    /**
+     * Fills the running sales totals from the sales history on the first start after the sales_summary
+     * table was added. Totals already written, such as by sales made before the backfill, are rebuilt too.
+     */
+    public void initializeSalesSummaries() {
+        backfillService.runOnce("sales_summary", salesJdbcRepository::rebuildSalesSummaries);
+    }
+
+    /**
+     * Builds a Sales record for a sale of a product at its current prices.
+     *
+     * @param productVariationId The ID of the product variation sold.
+     * @param product            The product of the variation.
+     * @param quantity           The quantity sold.
+     * @param user               The user who made the sale.
+     * @param transactionDate    The date and time of the sale.
+     * @return The unsaved Sales record.
+     */
+    private Sales buildSale(Integer productVariationId, Product product, int quantity, User user, LocalDateTime transactionDate) {
+        // Calculate total revenue, total cost, and total profit
+        Money totalRevenue = product.getSellingPrice().times(quantity);
+        Money totalCost = product.getCostPrice().times(quantity);
+        Money totalProfit = totalRevenue.minus(totalCost);
+
+        return Sales.builder()
+                .productVariationId(productVariationId)
+                .quantitySold(quantity)
+                .quantityRefunded(0) // Set quantityRefunded to 0 for a new sale
+                .totalRevenue(totalRevenue)
+                .totalCost(totalCost)
+                .totalProfit(totalProfit)
+                .transactionDate(transactionDate)
+                .user(user)
+                .build();
+    }
+
     /**
      * Retrieves all Sales records.
      *
@@ -82,6 +351,7 @@ public class SalesService {
         if (salesOptional.isPresent()) {
             Sales existingEntity = salesOptional.get();
             BeanUtils.copyProperties(salesDTO, existingEntity);
+            copyTotals(salesDTO, existingEntity);
             Sales updatedEntity = salesRepository.save(existingEntity);
             // Convert the updated entity to DTO
             SalesDTO updatedDto = toDTO(updatedEntity);
@@ -120,9 +390,25 @@ public class SalesService {
         }
         SalesDTO dto = new SalesDTO();
         BeanUtils.copyProperties(entity, dto);
+        // The totals are Money in the entity and BigDecimal in the DTO, which copyProperties skips
+        dto.setTotalRevenue(Money.amountOf(entity.getTotalRevenue()));
+        dto.setTotalCost(Money.amountOf(entity.getTotalCost()));
+        dto.setTotalProfit(Money.amountOf(entity.getTotalProfit()));
         return dto;
     }
 
+    /**
+     * Copies the totals of a Sales DTO to a Sales entity, converting them to Money.
+     *
+     * @param dto    The Sales DTO.
+     * @param entity The Sales entity.
+     */
+    private static void copyTotals(SalesDTO dto, Sales entity) {
+        entity.setTotalRevenue(Money.of(dto.getTotalRevenue()));
+        entity.setTotalCost(Money.of(dto.getTotalCost()));
+        entity.setTotalProfit(Money.of(dto.getTotalProfit()));
+    }
+
     public void deleteSalesByProductVariationId(Integer productVariationId) {
         salesRepository.deleteByProductVariationId(productVariationId);
     }
@@ -131,4 +417,176 @@ public class SalesService {
         User user = userService.convertToEntity(userDTO);
         return salesRepository.findByUser(user, pageable);
     }
+
+    /**
+     * Retrieves a page of the user's sales for the sales report, newest first.
+     * Pages are read by seeking past the cursor of the previous page instead of an offset,
+     * so deep pages cost the same as the first. The total is only counted when requested.
+     * The product name and first image URL of each sale are filled in from the same query.
+     *
+     * @param userDTO      The logged-in user.
+     * @param filter       The report filters, or null for all of the user's sales.
+     * @param cursor       The cursor returned with the previous page, or null for the first page.
+     * @param pageSize     The number of sales per page, or null for the configured page size.
+     * @param includeTotal Whether to count all of the user's sales that match the filters.
+     * @return A page of sales ready for display.
+     * @throws IllegalArgumentException If the cursor is invalid.
+     */
+    public SalesReportPageDTO getSalesReport(UserDTO userDTO, SalesReportFilter filter, String cursor,
+                                             Integer pageSize, boolean includeTotal) {
+        SalesReportFilter f = filter == null ? new SalesReportFilter() : filter;
+
+        int size = pageSize == null || pageSize <= 0
+                ? salesReportPageSize
+                : Math.min(pageSize, salesReportMaxPageSize);
+
+        // Read one extra sale to know whether there is a next page without counting
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Sales> salesList;
+        if (cursor == null || cursor.isEmpty()) {
+            salesList = salesRepository.findReportFirstPage(userDTO.getId(),
+                    f.fromDateTime(), f.toDateTimeExclusive(), f.getProductId(), f.getProductVariationId(), f.getIsRefund(),
+                    limit);
+        } else {
+            SalesReportCursor after = SalesReportCursor.decode(cursor);
+            salesList = salesRepository.findReportPageAfter(userDTO.getId(), after.transactionDate(), after.id(),
+                    f.fromDateTime(), f.toDateTimeExclusive(), f.getProductId(), f.getProductVariationId(), f.getIsRefund(),
+                    limit);
+        }
+
+        boolean hasNext = salesList.size() > size;
+        if (hasNext) {
+            salesList = new ArrayList<>(salesList.subList(0, size));
+        }
+        salesList.forEach(this::applyProductDetails);
+
+        return SalesReportPageDTO.builder()
+                .sales(salesList)
+                .pageSize(size)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? SalesReportCursor.after(salesList.get(size - 1)).encode() : null)
+                .totalCount(includeTotal
+                        ? salesRepository.countReport(userDTO.getId(), f.fromDateTime(), f.toDateTimeExclusive(),
+                                f.getProductId(), f.getProductVariationId(), f.getIsRefund())
+                        : null)
+                .build();
+    }
+
+    /**
+     * Writes the user's sales to an Excel report while they are streamed from the database,
+     * so neither the sales nor the workbook are held in memory as a whole.
+     *
+     * @param userId       The ID of the logged-in user.
+     * @param filter       The report filters, or null for all of the user's sales.
+     * @param outputStream The stream to write the Excel file to.
+     * @throws IOException If the Excel file cannot be written.
+     */
+    @Transactional
+    public void writeSalesReportExcel(Integer userId, SalesReportFilter filter, OutputStream outputStream) throws IOException {
+        try (Stream<Sales> salesStream = streamSalesReport(userId, filter)) {
+            ExcelUtil.writeSalesReportExcel(salesStream.iterator(), outputStream);
+        }
+    }
+
+    /**
+     * Writes the user's sales to a PDF report while they are streamed from the database,
+     * so neither the sales nor the document are held in memory as a whole.
+     *
+     * @param userId       The ID of the logged-in user.
+     * @param filter       The report filters, or null for all of the user's sales.
+     * @param outputStream The stream to write the PDF to.
+     * @throws DocumentException If the PDF cannot be written.
+     */
+    @Transactional
+    public void writeSalesReportPdf(Integer userId, SalesReportFilter filter, OutputStream outputStream) throws DocumentException {
+        try (Stream<Sales> salesStream = streamSalesReport(userId, filter)) {
+            PdfUtil.writeSalesReportPdf(salesStream.iterator(), outputStream);
+        }
+    }
+
+    /**
+     * Writes the user's sales as CSV while they are streamed from the database.
+     *
+     * @param userId       The ID of the logged-in user.
+     * @param filter       The report filters, or null for all of the user's sales.
+     * @param outputStream The stream to write the CSV to.
+     * @throws IOException If the CSV cannot be written.
+     */
+    @Transactional
+    public void writeSalesExportCsv(Integer userId, SalesReportFilter filter, OutputStream outputStream) throws IOException {
+        try (Stream<Sales> salesStream = streamSalesReport(userId, filter)) {
+            SalesExportUtil.writeCsv(salesStream.iterator(), outputStream);
+        }
+    }
+
+    /**
+     * Writes the user's sales as newline-delimited JSON while they are streamed from the database.
+     *
+     * @param userId       The ID of the logged-in user.
+     * @param filter       The report filters, or null for all of the user's sales.
+     * @param outputStream The stream to write the JSON to.
+     * @throws IOException If the JSON cannot be written.
+     */
+    @Transactional
+    public void writeSalesExportNdjson(Integer userId, SalesReportFilter filter, OutputStream outputStream) throws IOException {
+        try (Stream<Sales> salesStream = streamSalesReport(userId, filter)) {
+            SalesExportUtil.writeNdjson(salesStream.iterator(), outputStream);
+        }
+    }
+
+    /**
+     * Streams the user's sales for an export, with their product details filled in.
+     * Must be called inside a transaction, and the stream closed when done.
+     *
+     * @param userId The ID of the logged-in user.
+     * @param filter The report filters, or null for all of the user's sales.
+     * @return The user's sales, oldest first.
+     */
+    private Stream<Sales> streamSalesReport(Integer userId, SalesReportFilter filter) {
+        SalesReportFilter f = filter == null ? new SalesReportFilter() : filter;
+
+        // Load the user before streaming: MySQL cannot run another query on the connection while
+        // rows are being streamed, and every sale and product refers to this user
+        userRepository.findById(userId);
+
+        return salesRepository.streamReportByUserId(userId, f.fromDateTime(), f.toDateTimeExclusive(),
+                f.getProductId(), f.getProductVariationId(), f.getIsRefund()).map(sale -> {
+            applyProductDetails(sale);
+            // Keep the persistence context from growing with every streamed sale
+            entityManager.detach(sale);
+            return sale;
+        });
+    }
+
+    /**
+     * Builds a map of product IDs to first image URLs for sales already loaded by a report query.
+     *
+     * @param salesList The sales returned by {@link #getSalesReport}.
+     * @return A map of product IDs to their first image URL.
+     */
+    public Map<Integer, String> getProductImageUrls(List<Sales> salesList) {
+        Map<Integer, String> productImageUrls = new HashMap<>();
+        for (Sales sale : salesList) {
+            ProductVariation productVariation = sale.getProductVariation();
+            if (productVariation != null && productVariation.getProduct() != null && sale.getProductImageUrl() != null) {
+                productImageUrls.put(productVariation.getProduct().getId(), sale.getProductImageUrl());
+            }
+        }
+        return productImageUrls;
+    }
+
+    /**
+     * Sets the transient product name and image URL of a sale from its fetched product.
+     *
+     * @param sale The sale to fill in.
+     */
+    private void applyProductDetails(Sales sale) {
+        ProductVariation productVariation = sale.getProductVariation();
+        if (productVariation == null || productVariation.getProduct() == null) {
+            return;
+        }
+        Product product = productVariation.getProduct();
+        sale.setProductName(product.getProductName());
+        sale.setProductImageUrl(product.getPrimaryImageUrl());
+    }
 }
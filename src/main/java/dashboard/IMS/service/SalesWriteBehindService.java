@@ -0,0 +1,516 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.entity.Money;
+import dashboard.IMS.entity.Sales;
+import dashboard.IMS.entity.User;
+import dashboard.IMS.repository.SalesJdbcRepository;
+import dashboard.IMS.repository.StockMovementJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service class for writing single sales behind the request, when enabled.
+ * The request still decrements the stock and records the stock movement in its own transaction. Just before
+ * that commits, the sale is appended to a local journal file and synced to disk, so a sale whose journal
+ * write fails is rolled back with its stock change. After the commit the sale is put on a bounded queue,
+ * and one writer thread drains the queue and inserts the sales, their running totals and daily rollups with
+ * JDBC batches, one transaction per batch, so many sales share one commit.
+ * Each journaled sale has a sequence number, saved with its stock movement and with the inserted sale.
+ * After a crash the journal is replayed on the writer thread: entries without a stock movement were rolled
+ * back and entries with a sale row were already inserted, so every committed sale is inserted exactly once.
+ * A journal left when write-behind was switched off is still replayed at startup. The journal file must be set
+ * when write-behind is enabled, on storage that survives a restart.
+ * Sales show up in reports once their batch is written.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Service
+public class SalesWriteBehindService {
+
+    // Wait between attempts to write a batch while the database is unavailable
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    private final SalesJdbcRepository salesJdbcRepository;
+    private final StockMovementJdbcRepository stockMovementJdbcRepository;
+    private final DashboardService dashboardService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Path journalFile;
+    private final BlockingQueue<JournaledSale> queue;
+
+    // Guards the journal file, the sequence numbers and the count of unwritten entries. A ReentrantLock
+    // rather than synchronized, so virtual threads waiting for it do not pin their carrier threads.
+    private final ReentrantLock journalLock = new ReentrantLock();
+    private FileChannel journal;
+    private long lastSequence;
+    // Journal entries whose transaction may still commit, or that committed and are not inserted yet;
+    // the journal is emptied when this drops to zero
+    private long unwrittenEntries;
+    private final List<JournaledSale> recovered = new ArrayList<>();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    /**
+     * A sale and its position in the journal.
+     */
+    private record JournaledSale(long sequence, Sales sales) {
+    }
+
+    public SalesWriteBehindService(SalesJdbcRepository salesJdbcRepository,
+                                   StockMovementJdbcRepository stockMovementJdbcRepository,
+                                   DashboardService dashboardService,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${ims.sales.write-behind.enabled:false}") boolean enabled,
+                                   @Value("${ims.sales.write-behind.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${ims.sales.write-behind.batch-size:500}") int batchSize,
+                                   @Value("${ims.sales.write-behind.journal-file:}") String journalFile) {
+        if (enabled && journalFile.isBlank()) {
+            throw new IllegalStateException("ims.sales.write-behind.journal-file must be set when write-behind is enabled.");
+        }
+        this.salesJdbcRepository = salesJdbcRepository;
+        this.stockMovementJdbcRepository = stockMovementJdbcRepository;
+        this.dashboardService = dashboardService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.journalFile = journalFile.isBlank() ? null : Paths.get(journalFile);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * @return Whether single sales are written behind the request.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Assigns the sale its journal sequence number, then journals it before the current transaction commits
+     * and queues it for the writer after. Outside a transaction it is journaled and queued right away.
+     * Record the sale's stock movement in the same transaction after this call, so it carries the sequence number.
+     * Blocks after the commit while the queue is full.
+     *
+     * @param sales The unsaved sale. It must have a user set.
+     * @throws UncheckedIOException If the sale cannot be journaled; the transaction then rolls back.
+     */
+    public void submit(Sales sales) {
+        JournaledSale entry = new JournaledSale(nextSequence(), sales);
+        sales.setJournalSequence(entry.sequence());
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            journal(entry);
+            enqueue(entry);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean journaled;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // A failure here rolls back the stock decrement, so no stock is taken for an unjournaled sale
+                journal(entry);
+                journaled = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (!journaled) {
+                    return;
+                }
+                if (status == STATUS_COMMITTED || (status == STATUS_UNKNOWN && committed(entry))) {
+                    enqueue(entry);
+                } else {
+                    written(1);
+                }
+            }
+        });
+    }
+
+    /**
+     * Starts the writer thread, which first replays the sales journaled but not inserted before the last
+     * shutdown or crash. Replay runs on the writer thread, so startup does not wait for the database.
+     * When write-behind is disabled, the writer only replays a journal left from when it was enabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            if (!hasJournalEntries()) {
+                return;
+            }
+            System.err.println("Replaying the sales journal " + journalFile + " although write-behind is disabled.");
+        }
+        running = true;
+        writer = new Thread(this::runWriter, "sales-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops the writer after it has written the queued sales.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        journalLock.lock();
+        try {
+            if (journal != null) {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                journal = null;
+            }
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    /**
+     * Writes every queued sale now, without waiting for the writer thread.
+     *
+     * @return The number of sales written.
+     */
+    public int flush() {
+        int written = 0;
+        List<JournaledSale> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            if (!write(batch)) {
+                break;
+            }
+            written += batch.size();
+            batch.clear();
+        }
+        return written;
+    }
+
+    private void runWriter() {
+        if (!replay() || !enabled) {
+            return;
+        }
+        List<JournaledSale> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                JournaledSale first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                if (!write(batch)) {
+                    return;
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return Whether a journal file is set and holds entries left from before the start.
+     */
+    private boolean hasJournalEntries() {
+        try {
+            return journalFile != null && Files.exists(journalFile) && Files.size(journalFile) > 0;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Inserts the journaled sales left from before the start whose stock change committed and that
+     * are not inserted yet, retrying while the database is unavailable.
+     *
+     * @return False if the writer was stopped first.
+     */
+    private boolean replay() {
+        while (running) {
+            try {
+                List<JournaledSale> entries;
+                journalLock.lock();
+                try {
+                    open();
+                    entries = new ArrayList<>(recovered);
+                } finally {
+                    journalLock.unlock();
+                }
+
+                List<JournaledSale> replay = new ArrayList<>();
+                if (!entries.isEmpty()) {
+                    // Entries are journaled in commit order, not sequence order
+                    long from = entries.stream().mapToLong(JournaledSale::sequence).min().getAsLong();
+                    long to = entries.stream().mapToLong(JournaledSale::sequence).max().getAsLong();
+                    Set<Long> committed = stockMovementJdbcRepository.findJournalSequences(from, to);
+                    Set<Long> inserted = salesJdbcRepository.findJournalSequences(from, to);
+                    for (JournaledSale entry : entries) {
+                        if (committed.contains(entry.sequence()) && !inserted.contains(entry.sequence())) {
+                            replay.add(entry);
+                        }
+                    }
+                }
+
+                journalLock.lock();
+                try {
+                    recovered.clear();
+                } finally {
+                    journalLock.unlock();
+                }
+                written(entries.size() - replay.size());
+
+                for (int from = 0; from < replay.size(); from += batchSize) {
+                    if (!write(replay.subList(from, Math.min(from + batchSize, replay.size())))) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                if (!pause()) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Inserts a batch of sales with their running totals and daily rollups in one transaction,
+     * retrying while the writer is running.
+     *
+     * @return False if the batch was not written; it stays in the journal for the next start.
+     */
+    private boolean write(List<JournaledSale> batch) {
+        List<Sales> salesList = new ArrayList<>(batch.size());
+        Set<Integer> userIds = new HashSet<>();
+        for (JournaledSale entry : batch) {
+            salesList.add(entry.sales());
+            userIds.add(entry.sales().getUser().getId());
+        }
+
+        while (true) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    salesJdbcRepository.insertAll(salesList);
+                    salesJdbcRepository.addToSalesSummaries(salesList);
+                    salesJdbcRepository.addToDailyRollups(salesList);
+                });
+                break;
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                if (!running || !pause()) {
+                    return false;
+                }
+            }
+        }
+
+        userIds.forEach(dashboardService::evict);
+        written(batch.size());
+        return true;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(RETRY_DELAY_MILLIS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private long nextSequence() {
+        journalLock.lock();
+        try {
+            open();
+            return ++lastSequence;
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    /**
+     * Appends an entry to the journal and syncs it to disk. The sync runs outside the lock,
+     * so transactions committing at the same time share syncs instead of waiting for each other's.
+     */
+    private void journal(JournaledSale entry) {
+        FileChannel channel;
+        journalLock.lock();
+        try {
+            open();
+            channel = journal;
+            channel.write(ByteBuffer.wrap((format(entry) + "\n").getBytes(StandardCharsets.UTF_8)));
+            // Counted before the sync, so the journal is not emptied under it
+            unwrittenEntries++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to journal the sale.", e);
+        } finally {
+            journalLock.unlock();
+        }
+
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            written(1);
+            throw new UncheckedIOException("Failed to journal the sale.", e);
+        }
+    }
+
+    /**
+     * Queues a committed entry for the writer. An interrupt does not drop the entry,
+     * which would keep it in the journal until the next start.
+     */
+    private void enqueue(JournaledSale entry) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(entry);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Checks whether the stock change of an entry committed, when its transaction outcome is unknown.
+     */
+    private boolean committed(JournaledSale entry) {
+        try {
+            return stockMovementJdbcRepository.findJournalSequences(entry.sequence(), entry.sequence())
+                    .contains(entry.sequence());
+        } catch (RuntimeException e) {
+            // Left to the replay on the next start
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Marks journal entries as inserted or rolled back, and empties the journal once none are left,
+     * so it only ever holds the unwritten tail.
+     */
+    private void written(long entries) {
+        if (entries == 0) {
+            return;
+        }
+        journalLock.lock();
+        try {
+            unwrittenEntries -= entries;
+            if (journal != null && unwrittenEntries == 0) {
+                journal.truncate(0);
+                journal.force(false);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    /**
+     * Opens the journal on first use, reading the entries it still holds for the replay.
+     * Sequence numbers continue after both the journal and the committed write-behind sales, so they never repeat.
+     * Call with the journal lock held.
+     */
+    private void open() {
+        if (journal != null) {
+            return;
+        }
+        try {
+            if (journalFile.getParent() != null) {
+                Files.createDirectories(journalFile.getParent());
+            }
+            long maxSequence = stockMovementJdbcRepository.findMaxJournalSequence();
+            if (Files.exists(journalFile)) {
+                for (String line : Files.readAllLines(journalFile, StandardCharsets.UTF_8)) {
+                    JournaledSale entry = parse(line);
+                    if (entry != null) {
+                        maxSequence = Math.max(maxSequence, entry.sequence());
+                        recovered.add(entry);
+                    }
+                }
+            }
+            lastSequence = maxSequence;
+            unwrittenEntries = recovered.size();
+            journal = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open the sales journal.", e);
+        }
+    }
+
+    private static String format(JournaledSale entry) {
+        Sales sales = entry.sales();
+        return entry.sequence() + "," + sales.getUser().getId() + "," + sales.getProductVariationId() + ","
+                + sales.getQuantitySold() + "," + sales.getTotalRevenue().cents() + "," + sales.getTotalCost().cents() + ","
+                + sales.getTotalProfit().cents() + "," + sales.getTransactionDate();
+    }
+
+    /**
+     * Parses a journal line, or returns null for a line cut short by a crash.
+     */
+    private static JournaledSale parse(String line) {
+        String[] fields = line.split(",");
+        if (fields.length != 8) {
+            return null;
+        }
+        try {
+            long sequence = Long.parseLong(fields[0]);
+            User user = new User();
+            user.setId(Integer.parseInt(fields[1]));
+            Sales sales = Sales.builder()
+                    .productVariationId(Integer.parseInt(fields[2]))
+                    .quantitySold(Integer.parseInt(fields[3]))
+                    .quantityRefunded(0)
+                    .totalRevenue(new Money(Long.parseLong(fields[4])))
+                    .totalCost(new Money(Long.parseLong(fields[5])))
+                    .totalProfit(new Money(Long.parseLong(fields[6])))
+                    .transactionDate(LocalDateTime.parse(fields[7]))
+                    .journalSequence(sequence)
+                    .user(user)
+                    .build();
+            return new JournaledSale(sequence, sales);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.dto.UserDTO;
+import dashboard.IMS.entity.Sales;
+import dashboard.IMS.entity.StockMovement;
+import dashboard.IMS.entity.StockMovementType;
+import dashboard.IMS.entity.StockSnapshot;
+import dashboard.IMS.repository.ProductVariationRepository;
+import dashboard.IMS.repository.StockMovementJdbcRepository;
+import dashboard.IMS.repository.StockMovementRepository;
+import dashboard.IMS.repository.StockSnapshotRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service class for the stock movement ledger.
+ * Every sale, refund, restock and adjustment appends a movement in the same transaction as the stock change.
+ * Snapshots of each changed variation are taken periodically, so the stock at a past time is the latest
+ * snapshot before it plus the movements after that snapshot, instead of a replay of the whole ledger.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Service
+public class StockLedgerService implements SmartInitializingSingleton {
+
+    private final StockMovementJdbcRepository stockMovementJdbcRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final StockSnapshotRepository stockSnapshotRepository;
+    private final ProductVariationRepository productVariationRepository;
+    private final BackfillService backfillService;
+    private final Duration settleDelay;
+
+    public StockLedgerService(StockMovementJdbcRepository stockMovementJdbcRepository,
+                              StockMovementRepository stockMovementRepository,
+                              StockSnapshotRepository stockSnapshotRepository,
+                              ProductVariationRepository productVariationRepository,
+                              BackfillService backfillService,
+                              @Value("${ims.stock-ledger.settle-delay:PT1M}") Duration settleDelay) {
+        this.stockMovementJdbcRepository = stockMovementJdbcRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.stockSnapshotRepository = stockSnapshotRepository;
+        this.productVariationRepository = productVariationRepository;
+        this.backfillService = backfillService;
+        this.settleDelay = settleDelay;
+    }
+
+    /**
+     * Builds a movement of the stock of a product variation.
+     *
+     * @param productVariationId The ID of the product variation.
+     * @param userId             The ID of the user who changed the stock, or null.
+     * @param movementType       The reason for the change.
+     * @param quantityChange     The change, negative when stock is taken out.
+     * @param movedAt            The time of the change.
+     * @return The unsaved movement.
+     */
+    public static StockMovement movement(Integer productVariationId, Integer userId, StockMovementType movementType,
+                                         int quantityChange, LocalDateTime movedAt) {
+        return StockMovement.builder()
+                .productVariationId(productVariationId)
+                .userId(userId)
+                .movementType(movementType)
+                .quantityChange(quantityChange)
+                .movedAt(movedAt)
+                .build();
+    }
+
+    /**
+     * Builds the movements of a list of sales or refunds. Sales have positive quantities and take stock out;
+     * refunds have negative quantities and put it back.
+     *
+     * @param salesList The sales or refunds.
+     * @return The unsaved movements.
+     */
+    public static List<StockMovement> movements(List<Sales> salesList) {
+        List<StockMovement> movements = new ArrayList<>(salesList.size());
+        for (Sales sales : salesList) {
+            StockMovement movement = movement(sales.getProductVariationId(), sales.getUser() != null ? sales.getUser().getId() : null,
+                    Boolean.TRUE.equals(sales.getIsRefund()) ? StockMovementType.REFUND : StockMovementType.SALE,
+                    -sales.getQuantitySold(), sales.getTransactionDate());
+            movement.setJournalSequence(sales.getJournalSequence());
+            movements.add(movement);
+        }
+        return movements;
+    }
+
+    /**
+     * Appends movements to the ledger in one batch. Call in the transaction that changes the stock.
+     *
+     * @param movements The movements to append.
+     */
+    public void record(List<StockMovement> movements) {
+        stockMovementJdbcRepository.insertAll(movements);
+    }
+
+    /**
+     * Calculates the stock a product variation owned by the user had at a time.
+     *
+     * @param userDTO            The logged-in user.
+     * @param productVariationId The ID of the product variation.
+     * @param asOf               The time.
+     * @return The stock at that time.
+     * @throws IllegalArgumentException If the variation is not found.
+     */
+    public long getStockAsOf(UserDTO userDTO, Integer productVariationId, LocalDateTime asOf) {
+        if (!productVariationRepository.existsByIdAndProductUserId(productVariationId, userDTO.getId())) {
+            throw new IllegalArgumentException("Product variation not found.");
+        }
+
+        Optional<StockSnapshot> snapshot = stockSnapshotRepository
+                .findFirstByProductVariationIdAndSnapshotAtLessThanEqualOrderByLastMovementIdDesc(productVariationId, asOf);
+        long quantity = snapshot.map(StockSnapshot::getQuantity).orElse(0);
+        int afterMovementId = snapshot.map(StockSnapshot::getLastMovementId).orElse(0);
+        return quantity + stockMovementRepository.sumQuantityChanges(productVariationId, afterMovementId, asOf);
+    }
+
+    /**
+     * Takes a snapshot of every product variation whose stock moved since its latest snapshot.
+     * Movements of the last settle delay are left for the next run, so a transaction still in progress
+     * cannot commit a movement below a snapshot that has already been taken.
+     *
+     * @return The number of snapshots taken.
+     */
+    @Scheduled(fixedDelayString = "${ims.stock-ledger.snapshot-interval:PT1H}")
+    @Transactional
+    public int takeSnapshots() {
+        int lastMovementId = stockMovementJdbcRepository.findSettledMovementId(LocalDateTime.now().minus(settleDelay));
+        if (lastMovementId <= 0) {
+            return 0;
+        }
+        return stockMovementJdbcRepository.insertSnapshots(lastMovementId);
+    }
+
+    /**
+     * Runs the startup backfills once every bean is created, before the web server accepts requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        initializeLedger();
+    }
+
+    /**
+     * Starts the ledger from the current stock of every product variation on the first start after the
+     * stock_movement table was added. Movements already recorded, such as by sales made before the backfill,
+     * are taken off the opening balances.
+     */
+    public void initializeLedger() {
+        backfillService.runOnce("stock_movement_opening_balances",
+                () -> stockMovementJdbcRepository.insertOpeningBalances(LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,167 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.dto.UserDTO;
+import dashboard.IMS.entity.ProductVariation;
+import dashboard.IMS.entity.Sales;
+import dashboard.IMS.entity.StockReservation;
+import dashboard.IMS.repository.ProductVariationRepository;
+import dashboard.IMS.repository.StockReservationRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service class for stock reservations.
+ * A reservation holds stock during checkout without taking it out of the variation's quantity:
+ * the held units are added to the variation's reserved quantity with one conditional update,
+ * so no row stays locked while the customer pays. Committing the reservation sells the units,
+ * releasing it or letting it expire makes them available to sell again.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+@Service
+public class StockReservationService {
+
+    private final StockReservationRepository stockReservationRepository;
+    private final ProductVariationRepository productVariationRepository;
+    private final SalesService salesService;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final int reaperBatchSize;
+
+    public StockReservationService(StockReservationRepository stockReservationRepository,
+                                   ProductVariationRepository productVariationRepository,
+                                   SalesService salesService,
+                                   @Value("${ims.reservations.default-ttl:PT15M}") Duration defaultTtl,
+                                   @Value("${ims.reservations.max-ttl:PT1H}") Duration maxTtl,
+                                   @Value("${ims.reservations.reaper-batch-size:500}") int reaperBatchSize) {
+        this.stockReservationRepository = stockReservationRepository;
+        this.productVariationRepository = productVariationRepository;
+        this.salesService = salesService;
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+        this.reaperBatchSize = reaperBatchSize;
+    }
+
+    /**
+     * Holds a quantity of a product variation owned by the user until the reservation expires.
+     *
+     * @param userDTO            The logged-in user.
+     * @param productVariationId The ID of the product variation to hold.
+     * @param quantity           The quantity to hold.
+     * @param ttl                How long to hold the stock; the configured default if null.
+     * @return The saved reservation.
+     * @throws IllegalArgumentException If the quantity or time to live is invalid, the variation is not found,
+     *                                  or not enough stock is available to sell.
+     */
+    @Transactional
+    public StockReservation reserve(UserDTO userDTO, Integer productVariationId, Integer quantity, Duration ttl) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Invalid quantity for the reservation.");
+        }
+        Duration holdFor = ttl != null ? ttl : defaultTtl;
+        if (holdFor.isNegative() || holdFor.isZero() || holdFor.compareTo(maxTtl) > 0) {
+            throw new IllegalArgumentException("The reservation must last between 1 second and " + maxTtl.toSeconds() + " seconds.");
+        }
+        if (!productVariationRepository.existsByIdAndProductUserId(productVariationId, userDTO.getId())) {
+            throw new IllegalArgumentException("Failed to reserve product variation. Please try again.");
+        }
+
+        if (productVariationRepository.reserveQuantityIfAvailable(productVariationId, quantity) == 0) {
+            throw new IllegalArgumentException("Quantity is insufficient for the reservation.");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        return stockReservationRepository.save(StockReservation.builder()
+                .userId(userDTO.getId())
+                .productVariationId(productVariationId)
+                .quantity(quantity)
+                .createdAt(now)
+                .expiresAt(now.plus(holdFor))
+                .build());
+    }
+
+    /**
+     * Sells the stock held by a reservation of the user and removes the reservation.
+     *
+     * @param userDTO       The logged-in user.
+     * @param reservationId The ID of the reservation.
+     * @return The saved Sales record.
+     * @throws IllegalArgumentException If the reservation is not found, has expired, or was already committed or released.
+     */
+    @Transactional
+    public Sales commit(UserDTO userDTO, Integer reservationId) {
+        StockReservation reservation = stockReservationRepository.findByIdAndUserId(reservationId, userDTO.getId())
+                .filter(found -> found.getExpiresAt().isAfter(LocalDateTime.now()))
+                .orElseThrow(() -> new IllegalArgumentException("The reservation was not found or has expired."));
+
+        // Only one of commit, release and the reaper can delete the reservation
+        if (stockReservationRepository.deleteReservation(reservation.getId()) == 0) {
+            throw new IllegalArgumentException("The reservation was not found or has expired.");
+        }
+        return salesService.sellReserved(userDTO, reservation.getProductVariationId(), reservation.getQuantity());
+    }
+
+    /**
+     * Releases a reservation of the user, making its stock available to sell again.
+     *
+     * @param userDTO       The logged-in user.
+     * @param reservationId The ID of the reservation.
+     * @throws IllegalArgumentException If the reservation is not found.
+     */
+    @Transactional
+    public void release(UserDTO userDTO, Integer reservationId) {
+        StockReservation reservation = stockReservationRepository.findByIdAndUserId(reservationId, userDTO.getId())
+                .orElseThrow(() -> new IllegalArgumentException("The reservation was not found."));
+        releaseHold(reservation);
+    }
+
+    /**
+     * Retrieves the stock of a product variation owned by the user that is not held by reservations.
+     *
+     * @param userDTO            The logged-in user.
+     * @param productVariationId The ID of the product variation.
+     * @return The quantity available to sell.
+     * @throws IllegalArgumentException If the variation is not found.
+     */
+    public int getAvailableQuantity(UserDTO userDTO, Integer productVariationId) {
+        ProductVariation productVariation = productVariationRepository.findByIdAndProductUserId(productVariationId, userDTO.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Product variation not found."));
+        // Editing the stock below the held quantity leaves nothing to sell until reservations end
+        return Math.max(productVariation.getQuantity() - productVariation.getReservedQuantity(), 0);
+    }
+
+    /**
+     * Releases the reservations that have expired, a batch at a time.
+     *
+     * @return The number of reservations released.
+     */
+    @Scheduled(fixedDelayString = "${ims.reservations.reaper-interval:PT30S}")
+    @Transactional
+    public int releaseExpiredReservations() {
+        List<StockReservation> expired = stockReservationRepository.findExpired(LocalDateTime.now(),
+                PageRequest.of(0, reaperBatchSize));
+        int released = 0;
+        for (StockReservation reservation : expired) {
+            if (releaseHold(reservation)) {
+                released++;
+            }
+        }
+        return released;
+    }
+
+    private boolean releaseHold(StockReservation reservation) {
+        if (stockReservationRepository.deleteReservation(reservation.getId()) == 0) {
+            return false;
+        }
+        productVariationRepository.releaseReservedQuantity(reservation.getProductVariationId(), reservation.getQuantity());
+        return true;
+    }
+}
@@ -1,14 +1,77 @@
 package dashboard.IMS.utilities;
 
+import dashboard.IMS.entity.Money;
 import dashboard.IMS.entity.Sales;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 
 public class ExcelUtil {
+
+    private static final String[] SALES_REPORT_HEADERS = {"#", "Name", "Cost", "Revenue", "Quantity", "Type", "Profit", "Transaction Date"};
+
+    // Fixed column widths in characters; autoSizeColumn would need every row in memory
+    private static final int[] SALES_REPORT_COLUMN_WIDTHS = {8, 40, 14, 14, 10, 8, 14, 22};
+
+    // Number of rows SXSSF keeps in memory before flushing them to its temporary file
+    private static final int ROW_ACCESS_WINDOW_SIZE = 100;
+
+    /**
+     * Writes the sales report as an Excel file to an output stream, reading the sales one at a time.
+     * Only a small window of rows is kept in memory, so memory use does not grow with the number of sales.
+     *
+     * @param sales        The sales to write, typically streamed from the database.
+     * @param outputStream The stream to write the Excel file to, e.g. the servlet response.
+     * @throws IOException If the Excel file cannot be written.
+     */
+    public static void writeSalesReportExcel(Iterator<Sales> sales, OutputStream outputStream) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW_SIZE);
+        workbook.setCompressTempFiles(true);
+        try {
+            Sheet sheet = workbook.createSheet("Sales Report");
+            for (int i = 0; i < SALES_REPORT_COLUMN_WIDTHS.length; i++) {
+                sheet.setColumnWidth(i, SALES_REPORT_COLUMN_WIDTHS[i] * 256);
+            }
+
+            // Headers
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < SALES_REPORT_HEADERS.length; i++) {
+                headerRow.createCell(i).setCellValue(SALES_REPORT_HEADERS[i]);
+            }
+
+            // Data
+            int rowCount = 1;
+            while (sales.hasNext()) {
+                Sales sale = sales.next();
+                Row row = sheet.createRow(rowCount);
+                row.createCell(0).setCellValue(rowCount++);
+                row.createCell(1).setCellValue(sale.getProductName());
+                row.createCell(2).setCellValue(toDouble(sale.getTotalCost()));
+                row.createCell(3).setCellValue(toDouble(sale.getTotalRevenue()));
+                row.createCell(4).setCellValue(sale.getQuantitySold());
+                row.createCell(5).setCellValue(sale.getIsRefund() ? "Refund" : "Sale");
+                row.createCell(6).setCellValue(toDouble(sale.getTotalProfit()));
+                row.createCell(7).setCellValue(String.valueOf(sale.getTransactionDate()));
+            }
+
+            workbook.write(outputStream);
+        } finally {
+            // Delete the temporary file holding the flushed rows
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static double toDouble(Money value) {
+        return value == null ? 0 : value.toBigDecimal().doubleValue();
+    }
+
     public static byte[] generateSalesReportExcel(List<Sales> salesList) throws IOException {
         Workbook workbook = new XSSFWorkbook();
         Sheet sheet = workbook.createSheet("Sales Report");
@@ -27,11 +90,11 @@ public class ExcelUtil {
             Row row = sheet.createRow(rowCount++);
             row.createCell(0).setCellValue(rowCount);
             row.createCell(1).setCellValue(sale.getProductName());
-            row.createCell(2).setCellValue(sale.getTotalCost().doubleValue()); // Convert BigDecimal to double
-            row.createCell(3).setCellValue(sale.getTotalRevenue().doubleValue()); // Convert BigDecimal to double
+            row.createCell(2).setCellValue(toDouble(sale.getTotalCost())); // Convert Money to double
+            row.createCell(3).setCellValue(toDouble(sale.getTotalRevenue())); // Convert Money to double
             row.createCell(4).setCellValue(sale.getQuantitySold());
             row.createCell(5).setCellValue(sale.getIsRefund() ? "Refund" : "Sale");
-            row.createCell(6).setCellValue(sale.getTotalProfit().doubleValue()); // Convert BigDecimal to double
+            row.createCell(6).setCellValue(toDouble(sale.getTotalProfit())); // Convert Money to double
             row.createCell(7).setCellValue(String.valueOf(sale.getTransactionDate()));
         }
 
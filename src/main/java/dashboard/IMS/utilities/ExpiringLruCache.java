@@ -0,0 +1,114 @@
+package dashboard.IMS.utilities;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Size-bounded in-memory cache whose entries expire after a fixed time to live.
+ * When full, the least recently used entry is evicted.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+public class ExpiringLruCache<K, V> {
+
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    // Incremented on every removal so a value loaded before an invalidation is not cached after it
+    private long invalidations;
+
+    public ExpiringLruCache(int maxSize, Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value for a key.
+     *
+     * @param key The key.
+     * @return The value, or null if there is none or it has expired.
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.createdAt > ttlNanos) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Caches a value for a key, replacing any previous value.
+     *
+     * @param key   The key.
+     * @param value The value.
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.nanoTime()));
+    }
+
+    /**
+     * Returns the cached value for a key, loading and caching it if absent.
+     * The loader runs outside the cache lock, so a slow load does not block other keys.
+     *
+     * @param key    The key.
+     * @param loader Loads the value for the key.
+     * @return The cached or loaded value.
+     */
+    public V computeIfAbsent(K key, Function<K, V> loader) {
+        long invalidationsBeforeLoad;
+        synchronized (this) {
+            V value = get(key);
+            if (value != null) {
+                return value;
+            }
+            invalidationsBeforeLoad = invalidations;
+        }
+
+        V value = loader.apply(key);
+
+        synchronized (this) {
+            // Don't cache a value that may have been loaded before a concurrent invalidation
+            if (value != null && invalidations == invalidationsBeforeLoad) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Removes the cached value for a key.
+     *
+     * @param key The key.
+     */
+    public synchronized void remove(K key) {
+        invalidations++;
+        entries.remove(key);
+    }
+
+    /**
+     * Removes every cached value.
+     */
+    public synchronized void clear() {
+        invalidations++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry<V>(V value, long createdAt) {
+    }
+}
@@ -0,0 +1,51 @@
+package dashboard.IMS.utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class for product image URLs
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+public class ImageUrlUtil {
+
+    /**
+     * Returns the URL shown for a product on the listing pages: its first image URL, without its leading slash.
+     *
+     * @param imageUrls The image URLs of the product.
+     * @return The primary image URL, or null if there is none.
+     */
+    public static String primaryImageUrl(List<String> imageUrls) {
+        if (imageUrls == null || imageUrls.isEmpty()) {
+            return null;
+        }
+        String primaryImageUrl = imageUrls.get(0).trim();
+        // Remove leading slash if present
+        if (primaryImageUrl.startsWith("/")) {
+            primaryImageUrl = primaryImageUrl.substring(1);
+        }
+        return primaryImageUrl.isEmpty() ? null : primaryImageUrl;
+    }
+
+    /**
+     * Parses image URLs stored in the legacy String.valueOf(List) form, e.g. "[/images/a.jpg, /images/b.jpg]".
+     * Only used to migrate products saved before the URLs were stored as a list.
+     *
+     * @param imageUrls The legacy image URL string.
+     * @return The image URLs, empty if there are none.
+     */
+    public static List<String> parseLegacyImageUrls(String imageUrls) {
+        List<String> imageUrlList = new ArrayList<>();
+        if (imageUrls == null || imageUrls.isEmpty()) {
+            return imageUrlList;
+        }
+        for (String imageUrl : imageUrls.replaceAll("\\[|\\]", "").split(",")) {
+            if (!imageUrl.isBlank()) {
+                imageUrlList.add(imageUrl.trim());
+            }
+        }
+        return imageUrlList;
+    }
+}
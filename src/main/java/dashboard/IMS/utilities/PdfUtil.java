@@ -8,6 +8,8 @@ import dashboard.IMS.entity.Sales;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 
 import java.time.LocalDate;
@@ -18,10 +20,29 @@ import org.springframework.stereotype.Service;
 
 @Service
 public class PdfUtil {
+
+    // Number of rows added to the table before they are written out and released
+    private static final int ROWS_PER_CHUNK = 100;
+
     public static byte[] generateSalesReportPdf(List<Sales> salesList) throws DocumentException, IOException {
-        Document document = new Document();
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        PdfWriter.getInstance(document, outputStream);
+        writeSalesReportPdf(salesList.iterator(), outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Writes the sales report as a PDF to an output stream, reading the sales one at a time.
+     * The table is added to the document every {@value #ROWS_PER_CHUNK} rows, so written rows are
+     * released and memory use does not grow with the number of sales.
+     *
+     * @param sales        The sales to write, typically streamed from the database.
+     * @param outputStream The stream to write the PDF to, e.g. the servlet response; it is left open.
+     * @throws DocumentException If the PDF cannot be written.
+     */
+    public static void writeSalesReportPdf(Iterator<Sales> sales, OutputStream outputStream) throws DocumentException {
+        Document document = new Document();
+        PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+        writer.setCloseStream(false);
         document.open();
 
         Font titleFont = new Font(Font.FontFamily.HELVETICA, 16, Font.BOLD);
@@ -36,22 +57,25 @@ public class PdfUtil {
         // Add line break
         document.add(new Paragraph(" "));
 
-        // Table
+        // Table, written out in chunks until it is marked complete
         PdfPTable table = new PdfPTable(8); // 8 columns (excluding ID and Photo)
         table.setWidthPercentage(100);
+        table.setComplete(false);
 
-        // Headers
+        // Headers, repeated on every page
         String[] headers = {"#", "Name", "Cost", "Revenue", "Quantity", "Type", "Profit", "Transaction Date"};
         for (String header : headers) {
             PdfPCell headerCell = new PdfPCell(new Paragraph(header, headerFont));
             headerCell.setHorizontalAlignment(Element.ALIGN_CENTER);
             table.addCell(headerCell);
         }
+        table.setHeaderRows(1);
 
         // Data
         int rowCount = 1;
-        for (Sales sale : salesList) {
-            table.addCell(createCell(String.valueOf(rowCount++), cellFont)); // Row count
+        while (sales.hasNext()) {
+            Sales sale = sales.next();
+            table.addCell(createCell(String.valueOf(rowCount), cellFont)); // Row count
             table.addCell(createCell(sale.getProductName(), cellFont)); // Name
             table.addCell(createCell(String.valueOf(sale.getTotalCost()), cellFont)); // Cost
             table.addCell(createCell(String.valueOf(sale.getTotalRevenue()), cellFont)); // Revenue
@@ -59,11 +83,16 @@ public class PdfUtil {
             table.addCell(createCell(sale.getIsRefund() ? "Refund" : "Sale", cellFont)); // Type
             table.addCell(createCell(String.valueOf(sale.getTotalProfit()), cellFont)); // Profit
             table.addCell(createCell(String.valueOf(sale.getTransactionDate()), cellFont)); // Transaction Date
+
+            // Write the rows added so far and drop them from the table
+            if (rowCount++ % ROWS_PER_CHUNK == 0) {
+                document.add(table);
+            }
         }
 
+        table.setComplete(true);
         document.add(table);
         document.close();
-        return outputStream.toByteArray();
     }
 
     private static String getCurrentDate() {
@@ -0,0 +1,307 @@
+package dashboard.IMS.utilities;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Column-oriented in-memory copy of one user's sales for interactive analytics.
+ * Each sale is one position in a set of primitive arrays: IDs as ints, money as long cents and
+ * the transaction date as an epoch day, so group-by and sum queries scan arrays without creating objects.
+ * Refunds are sales with negative quantities and money, so sums net them out.
+ * Sales IDs are allocated before their transaction commits, so a sale can become visible after a higher ID was
+ * already loaded; the IDs within a reload window below the highest one are remembered, so the window can be
+ * read again and only the sales not yet appended are added.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+public class SalesColumnStore {
+
+    /**
+     * What sales can be grouped by. Weeks start on Monday.
+     */
+    public enum Dimension {
+        PRODUCT, PRODUCT_VARIATION, COLOR, SIZE, DAY, WEEK, MONTH
+    }
+
+    /**
+     * What can be summed over the sales of a group.
+     */
+    public enum Measure {
+        QUANTITY, REVENUE, COST, PROFIT
+    }
+
+    /**
+     * The sums of the groups of a query, as parallel arrays.
+     * Group keys are IDs, epoch days of the first day of the period, or 0 for a sale without that attribute.
+     */
+    public record GroupTotals(int[] keys, long[] sums) {
+        public int size() {
+            return keys.length;
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int reloadWindow;
+    // Held while sales are loaded into the store, so a database read does not pin a virtual thread to its carrier
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private int size;
+    private int maxSalesId;
+    // The appended IDs above maxSalesId - reloadWindow
+    private final TreeSet<Integer> recentSalesIds = new TreeSet<>();
+
+    private int[] salesIds = new int[INITIAL_CAPACITY];
+    private int[] productVariationIds = new int[INITIAL_CAPACITY];
+    private int[] productIds = new int[INITIAL_CAPACITY];
+    private int[] colorIds = new int[INITIAL_CAPACITY];
+    private int[] sizeIds = new int[INITIAL_CAPACITY];
+    private int[] quantities = new int[INITIAL_CAPACITY];
+    private long[] revenueCents = new long[INITIAL_CAPACITY];
+    private long[] costCents = new long[INITIAL_CAPACITY];
+    private long[] profitCents = new long[INITIAL_CAPACITY];
+    private int[] epochDays = new int[INITIAL_CAPACITY];
+    // First day of the month of each sale, as an epoch day
+    private int[] monthEpochDays = new int[INITIAL_CAPACITY];
+
+    public SalesColumnStore() {
+        this(0);
+    }
+
+    /**
+     * @param reloadWindow How many IDs below the highest appended one are read again by each load.
+     */
+    public SalesColumnStore(int reloadWindow) {
+        this.reloadWindow = Math.max(reloadWindow, 0);
+    }
+
+    /**
+     * Appends a sale, unless a sale with the same ID was appended within the reload window.
+     * Missing IDs are stored as 0.
+     */
+    public synchronized void append(int salesId, int productVariationId, int productId, int colorId, int sizeId,
+                                    int quantity, long revenue, long cost, long profit, int epochDay) {
+        if (salesId <= maxSalesId - reloadWindow || !recentSalesIds.add(salesId)) {
+            return;
+        }
+        if (size == salesIds.length) {
+            grow();
+        }
+        salesIds[size] = salesId;
+        productVariationIds[size] = productVariationId;
+        productIds[size] = productId;
+        colorIds[size] = colorId;
+        sizeIds[size] = sizeId;
+        quantities[size] = quantity;
+        revenueCents[size] = revenue;
+        costCents[size] = cost;
+        profitCents[size] = profit;
+        epochDays[size] = epochDay;
+        monthEpochDays[size] = (int) LocalDate.ofEpochDay(epochDay).withDayOfMonth(1).toEpochDay();
+        size++;
+        if (salesId > maxSalesId) {
+            maxSalesId = salesId;
+            recentSalesIds.headSet(maxSalesId - reloadWindow, true).clear();
+        }
+    }
+
+    /**
+     * @return The highest sales ID appended, or 0 if empty.
+     */
+    public synchronized int getMaxSalesId() {
+        return maxSalesId;
+    }
+
+    /**
+     * @return The ID after which the next load reads sales: the highest appended ID less the reload window, or 0.
+     */
+    public synchronized int getReloadAfterSalesId() {
+        return Math.max(maxSalesId - reloadWindow, 0);
+    }
+
+    /**
+     * @return The lock to hold while loading sales into the store.
+     */
+    public ReentrantLock getLoadLock() {
+        return loadLock;
+    }
+
+    /**
+     * @return The number of sales appended.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Sums a measure over the sales of each group, for sales in a range of days.
+     *
+     * @param dimension     What to group the sales by.
+     * @param measure       What to sum.
+     * @param fromEpochDay  The first day to include, as an epoch day.
+     * @param toEpochDay    The last day to include, as an epoch day.
+     * @return The sum of each group, ordered by group key.
+     */
+    public synchronized GroupTotals groupBySum(Dimension dimension, Measure measure, int fromEpochDay, int toEpochDay) {
+        IntLongAccumulator accumulator = new IntLongAccumulator();
+        for (int i = 0; i < size; i++) {
+            int day = epochDays[i];
+            if (day >= fromEpochDay && day <= toEpochDay) {
+                accumulator.add(key(dimension, i), value(measure, i));
+            }
+        }
+        return accumulator.sortedByKey();
+    }
+
+    /**
+     * Finds the groups with the highest or lowest sums of a measure, for sales in a range of days.
+     *
+     * @param dimension    What to group the sales by.
+     * @param measure      What to sum.
+     * @param limit        The maximum number of groups to return.
+     * @param ascending    True for the lowest sums first, false for the highest.
+     * @param fromEpochDay The first day to include, as an epoch day.
+     * @param toEpochDay   The last day to include, as an epoch day.
+     * @return Up to limit groups ordered by their sums, ties by group key.
+     */
+    public GroupTotals topN(Dimension dimension, Measure measure, int limit, boolean ascending,
+                            int fromEpochDay, int toEpochDay) {
+        GroupTotals totals = groupBySum(dimension, measure, fromEpochDay, toEpochDay);
+        int[] keys = totals.keys();
+        long[] sums = totals.sums();
+
+        // Only the groups are sorted, never the sales; keys are already ordered, so the sort keeps ties by key
+        Integer[] order = new Integer[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> ascending ? Long.compare(sums[a], sums[b]) : Long.compare(sums[b], sums[a]));
+
+        int count = Math.min(Math.max(limit, 0), order.length);
+        int[] topKeys = new int[count];
+        long[] topSums = new long[count];
+        for (int i = 0; i < count; i++) {
+            topKeys[i] = keys[order[i]];
+            topSums[i] = sums[order[i]];
+        }
+        return new GroupTotals(topKeys, topSums);
+    }
+
+    private int key(Dimension dimension, int i) {
+        switch (dimension) {
+            case PRODUCT:
+                return productIds[i];
+            case PRODUCT_VARIATION:
+                return productVariationIds[i];
+            case COLOR:
+                return colorIds[i];
+            case SIZE:
+                return sizeIds[i];
+            case WEEK:
+                // Epoch day 0 is a Thursday, 3 days after Monday
+                return epochDays[i] - Math.floorMod(epochDays[i] + 3, 7);
+            case MONTH:
+                return monthEpochDays[i];
+            default:
+                return epochDays[i];
+        }
+    }
+
+    private long value(Measure measure, int i) {
+        switch (measure) {
+            case REVENUE:
+                return revenueCents[i];
+            case COST:
+                return costCents[i];
+            case PROFIT:
+                return profitCents[i];
+            default:
+                return quantities[i];
+        }
+    }
+
+    private void grow() {
+        int capacity = salesIds.length * 2;
+        salesIds = Arrays.copyOf(salesIds, capacity);
+        productVariationIds = Arrays.copyOf(productVariationIds, capacity);
+        productIds = Arrays.copyOf(productIds, capacity);
+        colorIds = Arrays.copyOf(colorIds, capacity);
+        sizeIds = Arrays.copyOf(sizeIds, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        revenueCents = Arrays.copyOf(revenueCents, capacity);
+        costCents = Arrays.copyOf(costCents, capacity);
+        profitCents = Arrays.copyOf(profitCents, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        monthEpochDays = Arrays.copyOf(monthEpochDays, capacity);
+    }
+
+    /**
+     * Open-addressing map from int keys to long sums, so grouping does not box a key per sale.
+     */
+    private static final class IntLongAccumulator {
+        private int[] keys = new int[64];
+        private long[] sums = new long[64];
+        private boolean[] used = new boolean[64];
+        private int count;
+
+        void add(int key, long value) {
+            int slot = slot(key);
+            if (!used[slot]) {
+                if ((count + 1) * 2 > keys.length) {
+                    rehash();
+                    slot = slot(key);
+                }
+                used[slot] = true;
+                keys[slot] = key;
+                count++;
+            }
+            sums[slot] += value;
+        }
+
+        private int slot(int key) {
+            int mask = keys.length - 1;
+            int hash = key * 0x9E3779B9;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (used[slot] && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void rehash() {
+            int[] oldKeys = keys;
+            long[] oldSums = sums;
+            boolean[] oldUsed = used;
+            keys = new int[oldKeys.length * 2];
+            sums = new long[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    int slot = slot(oldKeys[i]);
+                    used[slot] = true;
+                    keys[slot] = oldKeys[i];
+                    sums[slot] = oldSums[i];
+                }
+            }
+        }
+
+        GroupTotals sortedByKey() {
+            int[] sortedKeys = new int[count];
+            int n = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (used[i]) {
+                    sortedKeys[n++] = keys[i];
+                }
+            }
+            Arrays.sort(sortedKeys);
+            long[] sortedSums = new long[count];
+            for (int i = 0; i < count; i++) {
+                sortedSums[i] = sums[slot(sortedKeys[i])];
+            }
+            return new GroupTotals(sortedKeys, sortedSums);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package dashboard.IMS.utilities;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import dashboard.IMS.entity.Money;
+import dashboard.IMS.entity.Sales;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * Utility class for raw sales exports.
+ * Each sale is written field by field as it is read, without building a row object or an intermediate list.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+public class SalesExportUtil {
+
+    private static final String CSV_HEADER = "id,transaction_date,product_variation_id,product_name,quantity_sold,"
+            + "quantity_refunded,total_revenue,total_cost,total_profit,is_refund\n";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Writes sales as CSV with a header row.
+     *
+     * @param sales        The sales to write, typically streamed from the database.
+     * @param outputStream The stream to write to; it is flushed but left open.
+     * @throws IOException If the CSV cannot be written.
+     */
+    public static void writeCsv(Iterator<Sales> sales, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(CSV_HEADER);
+        while (sales.hasNext()) {
+            Sales sale = sales.next();
+            writer.write(String.valueOf(sale.getId()));
+            writer.write(',');
+            writeCsvValue(writer, sale.getTransactionDate());
+            writer.write(',');
+            writeCsvValue(writer, sale.getProductVariationId());
+            writer.write(',');
+            writeCsvText(writer, sale.getProductName());
+            writer.write(',');
+            writeCsvValue(writer, sale.getQuantitySold());
+            writer.write(',');
+            writeCsvValue(writer, sale.getQuantityRefunded());
+            writer.write(',');
+            writeCsvValue(writer, sale.getTotalRevenue());
+            writer.write(',');
+            writeCsvValue(writer, sale.getTotalCost());
+            writer.write(',');
+            writeCsvValue(writer, sale.getTotalProfit());
+            writer.write(',');
+            writer.write(sale.getIsRefund() ? "true" : "false");
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes sales as newline-delimited JSON, one object per line.
+     *
+     * @param sales        The sales to write, typically streamed from the database.
+     * @param outputStream The stream to write to; it is flushed but left open.
+     * @throws IOException If the JSON cannot be written.
+     */
+    public static void writeNdjson(Iterator<Sales> sales, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (sales.hasNext()) {
+                Sales sale = sales.next();
+                generator.writeStartObject();
+                writeJsonNumber(generator, "id", sale.getId());
+                generator.writeStringField("transactionDate",
+                        sale.getTransactionDate() == null ? null : sale.getTransactionDate().toString());
+                writeJsonNumber(generator, "productVariationId", sale.getProductVariationId());
+                generator.writeStringField("productName", sale.getProductName());
+                writeJsonNumber(generator, "quantitySold", sale.getQuantitySold());
+                writeJsonNumber(generator, "quantityRefunded", sale.getQuantityRefunded());
+                writeJsonDecimal(generator, "totalRevenue", Money.amountOf(sale.getTotalRevenue()));
+                writeJsonDecimal(generator, "totalCost", Money.amountOf(sale.getTotalCost()));
+                writeJsonDecimal(generator, "totalProfit", Money.amountOf(sale.getTotalProfit()));
+                generator.writeBooleanField("isRefund", sale.getIsRefund());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private static void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value != null) {
+            writer.write(value.toString());
+        }
+    }
+
+    private static void writeCsvText(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        // Quote values that contain a separator, quote or line break, doubling any quotes
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static void writeJsonNumber(JsonGenerator generator, String name, Integer value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeNumberField(name, value);
+        }
+    }
+
+    private static void writeJsonDecimal(JsonGenerator generator, String name, BigDecimal value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeNumberField(name, value);
+        }
+    }
+}
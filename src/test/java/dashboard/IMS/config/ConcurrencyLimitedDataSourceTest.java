@@ -0,0 +1,88 @@
+package dashboard.IMS.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ConcurrencyLimitedDataSource class.
+ * These tests validate that connections are limited and their permits returned on close.
+ *
+ * @author Amiel De Los Reyes
+ * @date 10/18/2026
+ */
+public class ConcurrencyLimitedDataSourceTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    private ConcurrencyLimitedDataSource limitedDataSource;
+
+    /**
+     * Initialize mocks before each test method execution.
+     */
+    @BeforeEach
+    public void init() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(dataSource.getConnection()).thenReturn(connection);
+        limitedDataSource = new ConcurrencyLimitedDataSource(dataSource, 2, Duration.ofMillis(50));
+    }
+
+    /**
+     * Test case for opening more connections than the limit.
+     * Verifies that the extra one times out, and that closing a connection, even twice, returns one permit.
+     */
+    @Test
+    public void testGetConnectionLimited() throws SQLException {
+        Connection first = limitedDataSource.getConnection();
+        limitedDataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> limitedDataSource.getConnection());
+
+        first.close();
+        first.close();
+        assertEquals(1, limitedDataSource.getAvailablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    /**
+     * Test case for a connection the pool fails to open.
+     * Verifies that its permit is returned.
+     */
+    @Test
+    public void testGetConnectionFailure() throws SQLException {
+        when(dataSource.getConnection()).thenThrow(new SQLException("Pool exhausted."));
+
+        assertThrows(SQLException.class, () -> limitedDataSource.getConnection());
+        assertEquals(2, limitedDataSource.getAvailablePermits());
+    }
+
+    /**
+     * Test case for calls other than close.
+     * Verifies that they reach the pooled connection, and its exceptions reach the caller unwrapped.
+     */
+    @Test
+    public void testConnectionDelegates() throws SQLException {
+        when(connection.getAutoCommit()).thenReturn(false);
+        doThrow(new SQLException("Closed.")).when(connection).commit();
+
+        Connection limited = limitedDataSource.getConnection();
+
+        assertEquals(false, limited.getAutoCommit());
+        assertThrows(SQLException.class, limited::commit);
+    }
+}
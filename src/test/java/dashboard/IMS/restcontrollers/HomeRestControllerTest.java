@@ -1,4 +1,5 @@
 package dashboard.IMS.restcontrollers;
+import dashboard.IMS.dto.DashboardDTO;
 import dashboard.IMS.dto.UserDTO;
 import dashboard.IMS.entity.Product;
 import dashboard.IMS.entity.ProductVariation;
@@ -6,6 +7,7 @@ import dashboard.IMS.entity.User;
 import dashboard.IMS.repository.ProductRepository;
 import dashboard.IMS.repository.ProductVariationRepository;
 import dashboard.IMS.restcontroller.HomeRestController;
+import dashboard.IMS.service.DashboardService;
 import dashboard.IMS.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,10 +22,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.Collections;
+import java.util.Map;
 
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -44,6 +50,9 @@ public class HomeRestControllerTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private DashboardService dashboardService;
+
     @InjectMocks
     private HomeRestController homeRestController;
 
@@ -56,9 +65,11 @@ public class HomeRestControllerTest {
     public void setup() {
         productRepository = Mockito.mock(ProductRepository.class);
         productVariationRepository = Mockito.mock(ProductVariationRepository.class);
+        dashboardService = Mockito.mock(DashboardService.class);
         homeRestController = new HomeRestController(productService);
         ReflectionTestUtils.setField(homeRestController, "productRepository", productRepository);
         ReflectionTestUtils.setField(homeRestController, "productVariationRepository", productVariationRepository);
+        ReflectionTestUtils.setField(homeRestController, "dashboardService", dashboardService);
         mockMvc = MockMvcBuilders.standaloneSetup(homeRestController).build();
     }
 
@@ -83,13 +94,23 @@ public class HomeRestControllerTest {
         productVariation.setId(1);
         productVariation.setProduct(product);
 
-        when(productRepository.findByUserIdAndDeletedFalse(userDTO.getId())).thenReturn(Collections.singletonList(product));
-        when(productVariationRepository.findAllByProductUserId(userDTO.getId())).thenReturn(Collections.singletonList(productVariation));
+        product.setProductVariations(Collections.singletonList(productVariation));
+        productVariation.setQuantity(4);
+
+        DashboardDTO dashboard = DashboardDTO.builder()
+                .products(Collections.singletonList(product))
+                .productVariations(Collections.singletonList(productVariation))
+                .productImageUrls(Collections.emptyMap())
+                .productTotalQuantities(Map.of(1, 4))
+                .build();
+        when(dashboardService.getDashboard(userDTO.getId())).thenReturn(dashboard);
 
         mockMvc.perform(get("/api/")
                         .sessionAttr("loggedInUser", userDTO)
                         .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products", hasSize(1)))
+                .andExpect(jsonPath("$.productTotalQuantities.1", is(4)));
     }
 
     /**
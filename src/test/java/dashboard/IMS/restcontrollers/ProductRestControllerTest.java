@@ -1,5 +1,6 @@
 package dashboard.IMS.restcontrollers;
 
+import dashboard.IMS.dto.DashboardDTO;
 import dashboard.IMS.dto.UserDTO;
 import dashboard.IMS.entity.Product;
 import dashboard.IMS.entity.ProductVariation;
@@ -8,6 +9,7 @@ import dashboard.IMS.repository.ProductRepository;
 import dashboard.IMS.repository.ProductVariationRepository;
 import dashboard.IMS.repository.SalesRepository;
 import dashboard.IMS.restcontroller.ProductRestController;
+import dashboard.IMS.service.DashboardService;
 import dashboard.IMS.service.ProductService;
 import dashboard.IMS.service.ProductVariationService;
 import org.junit.jupiter.api.BeforeEach;
@@ -58,6 +60,9 @@ public class ProductRestControllerTest {
     @Mock
     private SalesRepository salesRepository;
 
+    @Mock
+    private DashboardService dashboardService;
+
     @InjectMocks
     private ProductRestController productRestController;
 
@@ -70,10 +75,12 @@ public class ProductRestControllerTest {
         salesRepository = Mockito.mock(SalesRepository.class);
         productService = Mockito.mock(ProductService.class);
         productVariationService = Mockito.mock(ProductVariationService.class);
+        dashboardService = Mockito.mock(DashboardService.class);
         productRestController = new ProductRestController(productService, productVariationService);
         ReflectionTestUtils.setField(productRestController, "productRepository", productRepository);
         ReflectionTestUtils.setField(productRestController, "productVariationRepository", productVariationRepository);
         ReflectionTestUtils.setField(productRestController, "salesRepository", salesRepository);
+        ReflectionTestUtils.setField(productRestController, "dashboardService", dashboardService);
         mockMvc = MockMvcBuilders.standaloneSetup(productRestController).build();
     }
 
@@ -89,9 +96,9 @@ public class ProductRestControllerTest {
         productVariation.setId(1);
         productVariation.setProduct(product);
 
-        when(productRepository.findByUserIdAndDeletedFalse(userDTO.getId())).thenReturn(Collections.singletonList(product));
-        when(productVariationRepository.findAllByProductUserId(userDTO.getId())).thenReturn(Collections.singletonList(productVariation));
-        when(productVariationRepository.getTotalQuantitiesByProductUserId(userDTO.getId())).thenReturn(Collections.emptyList());
+        when(dashboardService.getDashboard(userDTO.getId())).thenReturn(new DashboardDTO(
+                Collections.singletonList(product), Collections.singletonList(productVariation),
+                Collections.emptyMap(), Collections.emptyMap()));
 
         MockHttpServletRequestBuilder requestBuilder = get("/api/products")
                 .sessionAttr("loggedInUser", userDTO)
@@ -2,6 +2,7 @@ package dashboard.IMS.restcontrollers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dashboard.IMS.controller.SalesController;
+import dashboard.IMS.dto.ReportFormat;
 import dashboard.IMS.dto.UserDTO;
 import dashboard.IMS.entity.Product;
 import dashboard.IMS.entity.ProductVariation;
@@ -10,7 +11,11 @@ import dashboard.IMS.entity.User;
 import dashboard.IMS.repository.ProductVariationRepository;
 import dashboard.IMS.repository.SalesRepository;
 import dashboard.IMS.repository.UserRepository;
+import dashboard.IMS.repository.IdempotencyRecordRepository;
 import dashboard.IMS.restcontroller.SalesRestController;
+import dashboard.IMS.service.IdempotencyService;
+import dashboard.IMS.service.RefundService;
+import dashboard.IMS.service.ReportCacheService;
 import dashboard.IMS.service.SalesService;
 import dashboard.IMS.service.UserService;
 import dashboard.IMS.utilities.PdfUtil;
@@ -25,7 +30,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.ui.Model;
@@ -35,15 +42,23 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -85,6 +100,12 @@ class SalesRestControllerTest {
     @Mock
     private SalesService salesService;
 
+    @Mock
+    private RefundService refundService;
+
+    @Mock
+    private ReportCacheService reportCacheService;
+
     @InjectMocks
     private SalesRestController salesController;
 
@@ -102,6 +123,8 @@ class SalesRestControllerTest {
         userService = Mockito.mock(UserService.class);
         userRepository = Mockito.mock(UserRepository.class);
         salesService = Mockito.mock(SalesService.class);
+        refundService = Mockito.mock(RefundService.class);
+        reportCacheService = Mockito.mock(ReportCacheService.class);
         pdfUtil = Mockito.mock(PdfUtil.class); // Initialize PdfUtil mock
 
 
@@ -112,7 +135,12 @@ class SalesRestControllerTest {
         ReflectionTestUtils.setField(salesController, "userService", userService);
         ReflectionTestUtils.setField(salesController, "userRepository", userRepository);
         ReflectionTestUtils.setField(salesController, "salesService", salesService);
+        ReflectionTestUtils.setField(salesController, "refundService", refundService);
+        ReflectionTestUtils.setField(salesController, "reportCacheService", reportCacheService);
         ReflectionTestUtils.setField(salesController, "pdfUtil", pdfUtil); // Inject PdfUtil mock
+        ReflectionTestUtils.setField(salesController, "idempotencyService", new IdempotencyService(
+                Mockito.mock(IdempotencyRecordRepository.class), Mockito.mock(PlatformTransactionManager.class),
+                100, Duration.ofHours(1), false));
 
         // Initialize MockMvc
         mockMvc = MockMvcBuilders.standaloneSetup(salesController).build();
@@ -130,41 +158,92 @@ class SalesRestControllerTest {
         int quantity = 5;
         UserDTO userDTO = new UserDTO();
         userDTO.setId(1);
-        User user = new User();
-        user.setId(1);
-        ProductVariation productVariation = new ProductVariation();
-        productVariation.setQuantity(quantity + 1);
-        Product product = new Product();
-        product.setCostPrice(BigDecimal.valueOf(10));
-        product.setSellingPrice(BigDecimal.valueOf(20));
-        productVariation.setProduct(product);
 
-        // Mock the HttpSession to return the UserDTO
-        HttpSession session = Mockito.mock(HttpSession.class);
-        Mockito.when(session.getAttribute("loggedInUser")).thenReturn(userDTO);
+        // Mock the behavior of salesService.sell()
+        when(salesService.sell(any(UserDTO.class), eq(productVariationId), eq(quantity))).thenReturn(new Sales());
 
-        // Mock the HttpServletRequest
-        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
-        Mockito.when(request.getSession()).thenReturn(session);
+        // Perform
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sell-product-variation")
+                        .param("productVariationId", productVariationId.toString())
+                        .param("quantity", Integer.toString(quantity))
+                        .sessionAttr("loggedInUser", userDTO))
+                .andExpect(MockMvcResultMatchers.status().isCreated());
 
-        // Mock the behavior of userRepository.findUserById()
-        when(userRepository.findUserById(userDTO.getId())).thenReturn(user);
+        // Verify
+        verify(salesService, times(1)).sell(any(UserDTO.class), eq(productVariationId), eq(quantity));
+    }
 
-        // Mock the behavior of productVariationRepository.findByIdAndProductUserId()
-        when(productVariationRepository.findByIdAndProductUserId(productVariationId, user.getId())).thenReturn(Optional.of(productVariation));
+    /**
+     * Test for the sellProductVariation method when the stock is insufficient.
+     * @throws Exception if there is an error during test execution
+     */
+    @Test
+    void sellProductVariationInsufficientQuantityTest() throws Exception {
+        // Mocking
+        Integer productVariationId = 1;
+        int quantity = 5;
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(1);
+
+        // Mock the behavior of salesService.sell() when the conditional decrement fails
+        when(salesService.sell(any(UserDTO.class), eq(productVariationId), eq(quantity)))
+                .thenThrow(new IllegalArgumentException("Quantity is insufficient for the sale."));
 
         // Perform
         mockMvc.perform(MockMvcRequestBuilders.post("/api/sell-product-variation")
                         .param("productVariationId", productVariationId.toString())
                         .param("quantity", Integer.toString(quantity))
                         .sessionAttr("loggedInUser", userDTO))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.content().string("Quantity is insufficient for the sale."));
+    }
+
+    /**
+     * Test for the sellProductVariation method retried with the same Idempotency-Key.
+     * Verifies that the retry gets the first response without selling again, and that the key
+     * cannot be reused for a different sale.
+     * @throws Exception if there is an error during test execution
+     */
+    @Test
+    void sellProductVariationIdempotentTest() throws Exception {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(1);
+        when(salesService.sell(any(UserDTO.class), eq(1), eq(5))).thenReturn(new Sales());
+
+        mockMvc.perform(post("/api/sell-product-variation").param("productVariationId", "1").param("quantity", "5")
+                        .header("Idempotency-Key", "checkout-42").sessionAttr("loggedInUser", userDTO))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/sell-product-variation").param("productVariationId", "1").param("quantity", "5")
+                        .header("Idempotency-Key", "checkout-42").sessionAttr("loggedInUser", userDTO))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"));
+        mockMvc.perform(post("/api/sell-product-variation").param("productVariationId", "1").param("quantity", "6")
+                        .header("Idempotency-Key", "checkout-42").sessionAttr("loggedInUser", userDTO))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(salesService, times(1)).sell(any(UserDTO.class), anyInt(), anyInt());
+    }
+
+    /**
+     * Test for the sellProductVariations method, which sells a whole cart in one request.
+     * @throws Exception if there is an error during test execution
+     */
+    @Test
+    void sellProductVariationsBatchTest() throws Exception {
+        // Mocking
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(1);
+        when(salesService.sellBatch(any(UserDTO.class), anyList())).thenReturn(2);
+
+        // Perform
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/sales/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"productVariationId\":1,\"quantity\":2},{\"productVariationId\":2,\"quantity\":1}]")
+                        .sessionAttr("loggedInUser", userDTO))
                 .andExpect(MockMvcResultMatchers.status().isCreated());
 
         // Verify
-        verify(userRepository, times(1)).findUserById(userDTO.getId());
-        verify(productVariationRepository, times(1)).findByIdAndProductUserId(productVariationId, user.getId());
-        verify(productVariationRepository, times(1)).save(any(ProductVariation.class));
-        verify(salesRepository, times(1)).save(any(Sales.class));
+        verify(salesService, times(1)).sellBatch(any(UserDTO.class), anyList());
     }
 
     /**
@@ -178,36 +257,9 @@ class SalesRestControllerTest {
         int quantity = 5;
         UserDTO userDTO = new UserDTO();
         userDTO.setId(1);
-        User user = new User();
-        user.setId(1);
-        ProductVariation productVariation = new ProductVariation();
-        productVariation.setQuantity(quantity + 1);
-        Product product = new Product();
-        product.setCostPrice(BigDecimal.valueOf(10));
-        product.setSellingPrice(BigDecimal.valueOf(20));
-        productVariation.setProduct(product);
-
-        // Mock the HttpSession to return the UserDTO
-        HttpSession session = Mockito.mock(HttpSession.class);
-        Mockito.when(session.getAttribute("loggedInUser")).thenReturn(userDTO);
-
-        // Mock the HttpServletRequest
-        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
-        Mockito.when(request.getSession()).thenReturn(session);
-
-        // Mock the behavior of userRepository.findUserById()
-        when(userRepository.findUserById(userDTO.getId())).thenReturn(user);
-
-        // Mock the behavior of productVariationRepository.findByIdAndProductUserId()
-        when(productVariationRepository.findByIdAndProductUserId(productVariationId, user.getId())).thenReturn(Optional.of(productVariation));
-
-        // Mock the behavior of salesRepository.findByProductVariationIdAndUserIdOrderByTransactionDateDesc()
-        List<Sales> salesRecords = new ArrayList<>();
-        Sales salesRecord = new Sales();
-        salesRecord.setQuantitySold(quantity);
-        salesRecord.setQuantityRefunded(0);
-        salesRecords.add(salesRecord);
-        when(salesRepository.findByProductVariationIdAndUserIdOrderByTransactionDateDesc(productVariationId, user.getId())).thenReturn(salesRecords);
+
+        // Mock the behavior of refundService.refund()
+        when(refundService.refund(any(UserDTO.class), eq(productVariationId), eq(quantity))).thenReturn(new ArrayList<>());
 
         // Perform
         mockMvc.perform(MockMvcRequestBuilders.post("/api/refund-product-variation")
@@ -217,11 +269,85 @@ class SalesRestControllerTest {
                 .andExpect(MockMvcResultMatchers.status().isCreated());
 
         // Verify
-        verify(userRepository, times(1)).findUserById(userDTO.getId());
-        verify(productVariationRepository, times(1)).findByIdAndProductUserId(productVariationId, user.getId());
-        verify(salesRepository, times(1)).findByProductVariationIdAndUserIdOrderByTransactionDateDesc(productVariationId, user.getId());
-        verify(salesRepository, times(2)).save(any(Sales.class));
+        verify(refundService, times(1)).refund(any(UserDTO.class), eq(productVariationId), eq(quantity));
     }
 
+    /**
+     * Test for the refundProductVariation method when more is refunded than was sold.
+     * @throws Exception if there is an error during test execution
+     */
+    @Test
+    void refundProductVariationTooManyTest() throws Exception {
+        // Mocking
+        Integer productVariationId = 1;
+        int quantity = 5;
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(1);
+
+        // Mock the behavior of refundService.refund() when there is not enough left to refund
+        when(refundService.refund(any(UserDTO.class), eq(productVariationId), eq(quantity)))
+                .thenThrow(new IllegalArgumentException("Refund quantity cannot be greater than total sold quantity."));
 
+        // Perform
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/refund-product-variation")
+                        .param("productVariationId", productVariationId.toString())
+                        .param("quantity", String.valueOf(quantity))
+                        .sessionAttr("loggedInUser", userDTO))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    /**
+     * Test for the salesReportPdf method.
+     * Verifies that the cached report is served with its ETag, and that a matching If-None-Match gets a 304.
+     * @throws Exception if there is an error during test execution
+     */
+    @Test
+    void salesReportPdfNotModifiedTest() throws Exception {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(1);
+        Path file = Files.createTempFile("sales-report", ".pdf");
+        Files.writeString(file, "%PDF");
+        when(reportCacheService.getReport(eq(1), eq(ReportFormat.PDF), any()))
+                .thenReturn(new ReportCacheService.CachedReport(file, "\"1-pdf-9-9-20240301\""));
+
+        mockMvc.perform(get("/api/sales-report/pdf").sessionAttr("loggedInUser", userDTO))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-pdf-9-9-20240301\""));
+
+        mockMvc.perform(get("/api/sales-report/pdf").sessionAttr("loggedInUser", userDTO)
+                        .header("If-None-Match", "\"1-pdf-9-9-20240301\""))
+                .andExpect(status().isNotModified());
+
+        Files.delete(file);
+    }
+
+    /**
+     * Test for the salesReportExcel method with filters.
+     * Verifies that the query parameters are bound to the report filters.
+     * @throws Exception if there is an error during test execution
+     */
+    @Test
+    void salesReportExcelFilteredTest() throws Exception {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(1);
+        Path file = Files.createTempFile("sales-report", ".xlsx");
+        when(reportCacheService.getReport(eq(1), eq(ReportFormat.EXCEL), any()))
+                .thenReturn(new ReportCacheService.CachedReport(file, "\"1-xlsx-filtered\""));
+
+        mockMvc.perform(get("/api/sales-report/excel").sessionAttr("loggedInUser", userDTO)
+                        .param("from", "2024-03-01")
+                        .param("to", "2024-03-31")
+                        .param("productVariationId", "3")
+                        .param("isRefund", "true"))
+                .andExpect(status().isOk());
+
+        verify(reportCacheService).getReport(eq(1), eq(ReportFormat.EXCEL), argThat(filter ->
+                LocalDate.of(2024, 3, 1).equals(filter.getFrom())
+                        && LocalDate.of(2024, 3, 31).equals(filter.getTo())
+                        && filter.getProductId() == null
+                        && Integer.valueOf(3).equals(filter.getProductVariationId())
+                        && Boolean.TRUE.equals(filter.getIsRefund())));
+
+        Files.delete(file);
+    }
 }
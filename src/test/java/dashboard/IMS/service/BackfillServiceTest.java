@@ -0,0 +1,91 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.repository.BackfillMarkerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the BackfillService class.
+ * These tests validate the behavior of BackfillService methods.
+ * Mocking is used to isolate the class under test and focus on its logic independently.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+public class BackfillServiceTest {
+
+    @Mock
+    private BackfillMarkerRepository backfillMarkerRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BackfillService backfillService;
+
+    private AtomicInteger runs;
+
+    /**
+     * Initialize mocks before each test method execution.
+     */
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        backfillService = new BackfillService(backfillMarkerRepository, transactionManager);
+        runs = new AtomicInteger();
+    }
+
+    /**
+     * Test case for the first run of a backfill.
+     * Verifies that it runs and its marker is inserted.
+     */
+    @Test
+    public void testRunOnce() {
+        assertTrue(backfillService.runOnce("sales_summary", runs::incrementAndGet));
+
+        assertEquals(1, runs.get());
+        verify(backfillMarkerRepository).insert(eq("sales_summary"), any(LocalDateTime.class));
+        verify(transactionManager).commit(any());
+    }
+
+    /**
+     * Test case for a backfill that has already completed, whatever the state of its table.
+     */
+    @Test
+    public void testRunOnceAlreadyCompleted() {
+        when(backfillMarkerRepository.existsById("sales_summary")).thenReturn(true);
+
+        assertFalse(backfillService.runOnce("sales_summary", runs::incrementAndGet));
+
+        assertEquals(0, runs.get());
+        verify(backfillMarkerRepository, never()).insert(any(), any());
+    }
+
+    /**
+     * Test case for a backfill completed by another instance at the same time.
+     * Verifies that this instance's backfill is rolled back.
+     */
+    @Test
+    public void testRunOnceCompletedConcurrently() {
+        when(backfillMarkerRepository.insert(eq("sales_summary"), any(LocalDateTime.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry 'sales_summary'"));
+
+        assertFalse(backfillService.runOnce("sales_summary", runs::incrementAndGet));
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+}
@@ -0,0 +1,135 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.dto.DashboardDTO;
+import dashboard.IMS.dto.ProductListPageDTO;
+import dashboard.IMS.entity.Product;
+import dashboard.IMS.entity.Sales;
+import dashboard.IMS.repository.SalesRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the DashboardAssemblyService class.
+ * These tests validate the behavior of DashboardAssemblyService methods.
+ * Mocking is used to isolate the class under test and focus on its logic independently.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+public class DashboardAssemblyServiceTest {
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private SalesRepository salesRepository;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private DashboardAssemblyService dashboardAssemblyService;
+
+    /**
+     * Initialize mocks and the query executor before each test method execution.
+     */
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(3);
+        executor.setMaxPoolSize(3);
+        executor.initialize();
+        dashboardAssemblyService = new DashboardAssemblyService(productService, dashboardService, salesRepository,
+                executor, Duration.ofSeconds(2));
+    }
+
+    /**
+     * Shut down the query executor after each test method execution.
+     */
+    @AfterEach
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the value only once all three queries have started, so it succeeds only if they run at the same time.
+     */
+    private static <T> Answer<T> afterAllStarted(CountDownLatch started, T value) {
+        return invocation -> {
+            started.countDown();
+            if (!started.await(1, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Queries ran one after another.");
+            }
+            return value;
+        };
+    }
+
+    /**
+     * Test case for loading the product list page.
+     * Verifies that the queries run at the same time and their results are assembled.
+     */
+    @Test
+    public void testGetProductListPage() {
+        CountDownLatch started = new CountDownLatch(3);
+        Page<Product> productsPage = new PageImpl<>(Collections.singletonList(new Product()));
+        DashboardDTO dashboard = new DashboardDTO();
+        List<Sales> salesRecords = Collections.singletonList(new Sales());
+        when(productService.getProducts(any())).thenAnswer(afterAllStarted(started, productsPage));
+        when(dashboardService.getDashboard(1)).thenAnswer(afterAllStarted(started, dashboard));
+        when(salesRepository.findByUserId(1)).thenAnswer(afterAllStarted(started, salesRecords));
+
+        ProductListPageDTO page = dashboardAssemblyService.getProductListPage(1, PageRequest.of(0, 5));
+
+        assertSame(productsPage, page.getProductsPage());
+        assertSame(dashboard, page.getDashboard());
+        assertSame(salesRecords, page.getSalesRecords());
+    }
+
+    /**
+     * Test case for a query slower than its timeout.
+     */
+    @Test
+    public void testGetProductListPageTimeout() {
+        dashboardAssemblyService = new DashboardAssemblyService(productService, dashboardService, salesRepository,
+                executor, Duration.ofMillis(100));
+        when(productService.getProducts(any())).thenReturn(Page.empty());
+        when(dashboardService.getDashboard(1)).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return new DashboardDTO();
+        });
+
+        assertThrows(IllegalStateException.class, () -> dashboardAssemblyService.getProductListPage(1, PageRequest.of(0, 5)));
+    }
+
+    /**
+     * Test case for a query that fails.
+     * Verifies that its exception reaches the caller unwrapped.
+     */
+    @Test
+    public void testGetProductListPageFailure() {
+        when(salesRepository.findByUserId(1)).thenThrow(new IllegalArgumentException("User not found."));
+
+        assertThrows(IllegalArgumentException.class, () -> dashboardAssemblyService.getProductListPage(1, PageRequest.of(0, 5)));
+    }
+}
@@ -0,0 +1,107 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.dto.DashboardDTO;
+import dashboard.IMS.entity.Product;
+import dashboard.IMS.entity.ProductVariation;
+import dashboard.IMS.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the DashboardService class.
+ * These tests validate the behavior of DashboardService methods.
+ * Mocking is used to isolate the class under test and focus on its logic independently.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+public class DashboardServiceTest {
+
+    private DashboardService dashboardService;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    /**
+     * Initialize mocks before each test method execution.
+     */
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        dashboardService = new DashboardService(productRepository, 2, Duration.ofMinutes(5));
+    }
+
+    /**
+     * Test case for loading the dashboard.
+     * Verifies that image URLs and total quantities are derived from the fetched variations with one query.
+     */
+    @Test
+    public void testGetDashboard() {
+        Product tee = new Product();
+        tee.setId(1);
+        tee.setImageUrlList(Arrays.asList("/images/Tee/a.jpg", "/images/Tee/b.jpg"));
+        tee.setProductVariations(Arrays.asList(
+                ProductVariation.builder().id(1).product(tee).quantity(3).build(),
+                ProductVariation.builder().id(2).product(tee).quantity(4).build()));
+        Product hoodie = new Product();
+        hoodie.setId(2);
+        hoodie.setProductVariations(new ArrayList<>());
+        when(productRepository.findWithVariationsByUserId(5)).thenReturn(Arrays.asList(tee, hoodie));
+
+        DashboardDTO dashboard = dashboardService.getDashboard(5);
+
+        assertEquals(2, dashboard.getProducts().size());
+        assertEquals(2, dashboard.getProductVariations().size());
+        assertEquals(7, dashboard.getProductTotalQuantities().get(1));
+        assertFalse(dashboard.getProductTotalQuantities().containsKey(2));
+        assertEquals("images/Tee/a.jpg", dashboard.getProductImageUrls().get(1));
+        verify(productRepository, times(1)).findWithVariationsByUserId(5);
+    }
+
+    /**
+     * Test case for the dashboard cache.
+     * Verifies that a cached dashboard is reused until it is evicted.
+     */
+    @Test
+    public void testGetDashboardCachedUntilEvicted() {
+        when(productRepository.findWithVariationsByUserId(5)).thenReturn(new ArrayList<>());
+
+        DashboardDTO first = dashboardService.getDashboard(5);
+        assertSame(first, dashboardService.getDashboard(5));
+        verify(productRepository, times(1)).findWithVariationsByUserId(5);
+
+        dashboardService.evict(5);
+        dashboardService.getDashboard(5);
+        verify(productRepository, times(2)).findWithVariationsByUserId(5);
+    }
+
+    /**
+     * Test case for the dashboard cache size.
+     * Verifies that the least recently used dashboard is evicted when the cache is full.
+     */
+    @Test
+    public void testGetDashboardEvictsLeastRecentlyUsed() {
+        when(productRepository.findWithVariationsByUserId(anyInt())).thenReturn(new ArrayList<>());
+
+        dashboardService.getDashboard(1);
+        dashboardService.getDashboard(2);
+        dashboardService.getDashboard(1);
+        dashboardService.getDashboard(3); // evicts user 2, the least recently used
+
+        dashboardService.getDashboard(1);
+        dashboardService.getDashboard(2);
+        verify(productRepository, times(1)).findWithVariationsByUserId(1);
+        verify(productRepository, times(2)).findWithVariationsByUserId(2);
+    }
+}
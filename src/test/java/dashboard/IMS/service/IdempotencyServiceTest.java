@@ -0,0 +1,253 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.entity.IdempotencyRecord;
+import dashboard.IMS.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the IdempotencyService class.
+ * These tests validate the behavior of IdempotencyService methods.
+ * Mocking is used to isolate the class under test and focus on its logic independently.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+public class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyService idempotencyService;
+
+    // The status of the transaction most recently begun
+    private final AtomicReference<SimpleTransactionStatus> transaction = new AtomicReference<>();
+
+    private AtomicInteger executions;
+
+    private Supplier<ResponseEntity<String>> sale;
+
+    /**
+     * Initialize mocks before each test method execution.
+     */
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, transactionManager, 100, Duration.ofHours(1), true);
+        executions = new AtomicInteger();
+        sale = () -> {
+            executions.incrementAndGet();
+            return new ResponseEntity<>("Sale successful.", HttpStatus.CREATED);
+        };
+        when(idempotencyRecordRepository.findById(any())).thenReturn(Optional.empty());
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            transaction.set(new SimpleTransactionStatus());
+            return transaction.get();
+        });
+    }
+
+    private void verifyInserted(int times) {
+        verify(idempotencyRecordRepository, times(times)).insert(eq("1:key-1"), any(), anyInt(), any(), any(LocalDateTime.class));
+    }
+
+    /**
+     * Test case for a retry with the same key.
+     * Verifies that the request is executed once and its response replayed.
+     */
+    @Test
+    public void testExecuteReplaysRetry() {
+        ResponseEntity<String> first = idempotencyService.execute(1, "key-1", "sell:3:2", sale);
+        ResponseEntity<String> retry = idempotencyService.execute(1, "key-1", "sell:3:2", sale);
+
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals("Sale successful.", retry.getBody());
+        assertNull(first.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        verifyInserted(1);
+    }
+
+    /**
+     * Test case for the record of a request.
+     * Verifies that it is inserted in the request's transaction, before the commit.
+     */
+    @Test
+    public void testExecuteRecordsInTransaction() {
+        idempotencyService.execute(1, "key-1", "sell:3:2", () -> {
+            assertNotNull(transaction.get());
+            return sale.get();
+        });
+
+        InOrder inOrder = inOrder(idempotencyRecordRepository, transactionManager);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(idempotencyRecordRepository).insert(eq("1:key-1"), any(), eq(201), eq("Sale successful."), any());
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    /**
+     * Test case for a request whose service failed and marked the transaction for rollback.
+     * Verifies that its changes are rolled back and its response recorded afterwards.
+     */
+    @Test
+    public void testExecuteFailureRolledBack() {
+        ResponseEntity<String> response = idempotencyService.execute(1, "key-1", "sell:3:2", () -> {
+            transaction.get().setRollbackOnly();
+            return new ResponseEntity<>("Insufficient quantity available.", HttpStatus.BAD_REQUEST);
+        });
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(transactionManager, times(2)).commit(any());
+        verifyInserted(1);
+        assertEquals(HttpStatus.BAD_REQUEST, idempotencyService.execute(1, "key-1", "sell:3:2", sale).getStatusCode());
+        assertEquals(0, executions.get());
+    }
+
+    /**
+     * Test case for the same key recorded by another instance first.
+     * Verifies that this request is rolled back and the other response replayed.
+     */
+    @Test
+    public void testExecuteRecordedByOtherInstance() throws Exception {
+        IdempotencyRecord other = IdempotencyRecord.builder()
+                .idempotencyKey("1:key-1")
+                .fingerprint(fingerprintOf("sell:3:2"))
+                .statusCode(201)
+                .responseBody("Sale successful.")
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(idempotencyRecordRepository.insert(eq("1:key-1"), any(), anyInt(), any(), any()))
+                .thenAnswer(invocation -> {
+                    when(idempotencyRecordRepository.findById("1:key-1")).thenReturn(Optional.of(other));
+                    throw new DataIntegrityViolationException("Duplicate entry '1:key-1'");
+                });
+
+        ResponseEntity<String> response = idempotencyService.execute(1, "key-1", "sell:3:2", sale);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals("true", response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    /**
+     * Test case for requests without a key, and for the same key of different users.
+     * Verifies that each is executed.
+     */
+    @Test
+    public void testExecuteWithoutKeyOrOtherUser() {
+        idempotencyService.execute(1, null, "sell:3:2", sale);
+        idempotencyService.execute(1, null, "sell:3:2", sale);
+        idempotencyService.execute(1, "key-1", "sell:3:2", sale);
+        idempotencyService.execute(2, "key-1", "sell:3:2", sale);
+
+        assertEquals(4, executions.get());
+    }
+
+    /**
+     * Test case for a key reused for a different request.
+     */
+    @Test
+    public void testExecuteDifferentRequest() {
+        idempotencyService.execute(1, "key-1", "sell:3:2", sale);
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, idempotencyService.execute(1, "key-1", "sell:3:5", sale).getStatusCode());
+        assertEquals(1, executions.get());
+    }
+
+    /**
+     * Test case for a retry sent while the first request is still executing.
+     */
+    @Test
+    public void testExecuteInProgress() {
+        ResponseEntity<String> first = idempotencyService.execute(1, "key-1", "sell:3:2",
+                () -> idempotencyService.execute(1, "key-1", "sell:3:2", sale));
+
+        assertEquals(HttpStatus.CONFLICT, first.getStatusCode());
+        assertEquals(0, executions.get());
+    }
+
+    /**
+     * Test case for a request that fails unexpectedly.
+     * Verifies that nothing is stored, so a retry is executed.
+     */
+    @Test
+    public void testExecuteFailureNotStored() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(1, "key-1", "sell:3:2", () -> {
+            throw new IllegalStateException("Database unavailable.");
+        }));
+
+        idempotencyService.execute(1, "key-1", "sell:3:2", sale);
+        assertEquals(1, executions.get());
+    }
+
+    /**
+     * Test case for a retry after a restart.
+     * Verifies that the response stored in the table is replayed.
+     */
+    @Test
+    public void testExecuteReplaysStoredRecord() throws Exception {
+        IdempotencyRecord stored = IdempotencyRecord.builder()
+                .idempotencyKey("1:key-1")
+                .fingerprint(fingerprintOf("sell:3:2"))
+                .statusCode(201)
+                .responseBody("Sale successful.")
+                .createdAt(LocalDateTime.now().minusMinutes(5))
+                .build();
+        when(idempotencyRecordRepository.findById("1:key-1")).thenReturn(Optional.of(stored));
+        IdempotencyService restarted = new IdempotencyService(idempotencyRecordRepository, transactionManager,
+                100, Duration.ofHours(1), true);
+
+        ResponseEntity<String> retry = restarted.execute(1, "key-1", "sell:3:2", sale);
+
+        assertEquals(0, executions.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+    }
+
+    /**
+     * Test case for purging expired responses from the table.
+     */
+    @Test
+    public void testPurgeExpired() {
+        when(idempotencyRecordRepository.deleteExpired(any(LocalDateTime.class))).thenReturn(3);
+
+        assertEquals(3, idempotencyService.purgeExpired());
+    }
+
+    /**
+     * Computes the fingerprint the service stores for a request: the hex SHA-256 of the request.
+     */
+    private static String fingerprintOf(String request) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8)));
+    }
+}
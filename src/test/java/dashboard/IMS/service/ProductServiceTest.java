@@ -4,6 +4,7 @@ package dashboard.IMS.service;
 import dashboard.IMS.entity.Product;
 import dashboard.IMS.repository.ProductRepository;
 import dashboard.IMS.mapper.ProductMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -34,6 +35,15 @@ public class ProductServiceTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private BackfillService backfillService;
+
+    @Mock
+    private EntityManager entityManager;
+
     /**
      * Initialize mocks before each test method execution.
      */
@@ -97,4 +107,44 @@ public class ProductServiceTest {
         productService.deleteProduct(1);
         verify(productRepository, times(1)).deleteById(1);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test case for migrating legacy image URLs.
+     * Verifies that the URL string is parsed into the list, the primary image URL is set,
+     * and the cached dashboards are dropped.
+     */
+    @Test
+    public void testMigrateLegacyImageUrls() {
+        Product product = new Product();
+        product.setId(7);
+        product.setImageUrls("[/images/Tee/a.jpg, /images/Tee/b.jpg]");
+        when(productRepository.findByImageUrlListIsNullAndImageUrlsIsNotNullAndIdGreaterThanOrderById(eq(0), any()))
+                .thenReturn(Arrays.asList(product));
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        }).when(backfillService).runOnce(eq("product_image_url_list"), any());
+
+        productService.afterSingletonsInstantiated();
+
+        assertEquals(Arrays.asList("/images/Tee/a.jpg", "/images/Tee/b.jpg"), product.getImageUrlList());
+        assertEquals("images/Tee/a.jpg", product.getPrimaryImageUrl());
+        verify(productRepository, times(1)).saveAll(Arrays.asList(product));
+        verify(entityManager, times(1)).clear();
+        verify(dashboardService, times(1)).evictAll();
+    }
+
+    /**
+     * Test case for migrating legacy image URLs after the migration has completed.
+     * Verifies that no products are read and the cached dashboards are kept.
+     */
+    @Test
+    public void testMigrateLegacyImageUrlsCompleted() {
+        when(backfillService.runOnce(eq("product_image_url_list"), any())).thenReturn(false);
+
+        productService.migrateLegacyImageUrls();
+
+        verify(productRepository, never()).findByImageUrlListIsNullAndImageUrlsIsNotNullAndIdGreaterThanOrderById(any(), any());
+        verify(dashboardService, never()).evictAll();
+    }
+}
@@ -9,6 +9,7 @@ import dashboard.IMS.entity.Color;
 import dashboard.IMS.entity.Product;
 import dashboard.IMS.entity.ProductVariation;
 import dashboard.IMS.entity.Size;
+import dashboard.IMS.entity.StockMovementType;
 import dashboard.IMS.repository.ProductVariationRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,6 +29,12 @@ public class ProductVariationServiceTest {
     @Mock
     private ProductVariationRepository productVariationRepository;
 
+    @Mock
+    private StockLedgerService stockLedgerService;
+
+    @Mock
+    private DashboardService dashboardService;
+
     @InjectMocks
     private ProductVariationService productVariationService;
 
@@ -116,6 +123,53 @@ public class ProductVariationServiceTest {
         assertEquals(1, result.getId());
     }
 
+    /**
+     * Test case to verify that changing the stock of a ProductVariation is recorded as an adjustment.
+     */
+    @Test
+    void testUpdateProductVariationQuantity() {
+        // Arrange
+        ProductVariationDTO productVariationDTO = new ProductVariationDTO();
+        productVariationDTO.setId(1);
+        productVariationDTO.setQuantity(7);
+        ProductVariation productVariation = new ProductVariation();
+        productVariation.setId(1);
+        productVariation.setQuantity(10);
+        when(productVariationRepository.findById(1)).thenReturn(Optional.of(productVariation));
+        when(productVariationRepository.save(any())).thenReturn(productVariation);
+
+        // Act
+        productVariationService.updateProductVariation(1, productVariationDTO);
+
+        // Assert
+        verify(stockLedgerService, times(1)).record(argThat(movements -> movements.size() == 1
+                && movements.get(0).getMovementType() == StockMovementType.ADJUSTMENT
+                && movements.get(0).getQuantityChange() == -3));
+    }
+
+    /**
+     * Test case to verify that updating a ProductVariation removes its user's cached dashboard.
+     */
+    @Test
+    void testUpdateProductVariationEvictsDashboard() {
+        // Arrange
+        ProductVariationDTO productVariationDTO = new ProductVariationDTO();
+        productVariationDTO.setId(1);
+        productVariationDTO.setQuantity(7);
+        ProductVariation productVariation = new ProductVariation();
+        productVariation.setId(1);
+        productVariation.setQuantity(10);
+        productVariation.setUserId(5);
+        when(productVariationRepository.findById(1)).thenReturn(Optional.of(productVariation));
+        when(productVariationRepository.save(any())).thenReturn(productVariation);
+
+        // Act
+        productVariationService.updateProductVariation(1, productVariationDTO);
+
+        // Assert
+        verify(dashboardService, times(1)).evict(5);
+    }
+
     /**
      * Test case to verify deleting a ProductVariation from the database.
      */
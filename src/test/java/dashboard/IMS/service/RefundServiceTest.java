@@ -0,0 +1,168 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.dto.UserDTO;
+import dashboard.IMS.entity.Money;
+import dashboard.IMS.entity.Sales;
+import dashboard.IMS.entity.SalesSummary;
+import dashboard.IMS.repository.ProductVariationRepository;
+import dashboard.IMS.repository.SalesJdbcRepository;
+import dashboard.IMS.repository.SalesRepository;
+import dashboard.IMS.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the RefundService class.
+ * These tests validate the behavior of RefundService methods.
+ * Mocking is used to isolate the class under test and focus on its logic independently.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+public class RefundServiceTest {
+
+    @InjectMocks
+    private RefundService refundService;
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private SalesRepository salesRepository;
+
+    @Mock
+    private SalesJdbcRepository salesJdbcRepository;
+
+    @Mock
+    private ProductVariationRepository productVariationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SalesService salesService;
+
+    @Mock
+    private StockLedgerService stockLedgerService;
+
+    private UserDTO userDTO;
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        userDTO = new UserDTO();
+        userDTO.setId(1);
+        when(productVariationRepository.existsByIdAndProductUserId(3, 1)).thenReturn(true);
+        when(salesService.getSalesSummary(1, 3)).thenReturn(SalesSummary.builder().quantitySold(7).quantityRefunded(1).build());
+    }
+
+    private static Sales sale(int id, int quantitySold, int quantityRefunded) {
+        return Sales.builder()
+                .id(id)
+                .productVariationId(3)
+                .quantitySold(quantitySold)
+                .quantityRefunded(quantityRefunded)
+                .totalRevenue(new Money(2000L * quantitySold))
+                .totalCost(new Money(1000L * quantitySold))
+                .totalProfit(new Money(1000L * quantitySold))
+                .build();
+    }
+
+    /**
+     * Test case for a refund spread over two sales.
+     * Verifies that the newest sale is refunded first and that stock is restored once.
+     */
+    @Test
+    public void testRefundAcrossSales() {
+        when(salesRepository.findRefundable(eq(3), eq(1), any())).thenReturn(Arrays.asList(sale(9, 2, 0), sale(8, 5, 1)));
+        when(salesJdbcRepository.addRefundedQuantities(anyMap())).thenReturn(true);
+
+        List<Sales> refunds = refundService.refund(userDTO, 3, 4);
+
+        assertEquals(2, refunds.size());
+        assertEquals(-2, refunds.get(0).getQuantitySold());
+        assertEquals(-2, refunds.get(1).getQuantitySold());
+        assertEquals(Money.valueOf("-40"), refunds.get(1).getTotalRevenue());
+        verify(salesJdbcRepository, times(1)).addRefundedQuantities(Map.of(9, 2, 8, 2));
+        verify(salesJdbcRepository, times(1)).insertAll(anyList());
+        verify(productVariationRepository, times(1)).incrementQuantity(3, 4);
+        verify(salesJdbcRepository, times(1)).addToSalesSummaries(anyList());
+        verify(salesJdbcRepository, times(1)).addToDailyRollups(anyList());
+    }
+
+    /**
+     * Test case for refunding a sale whose total does not divide evenly by its quantity, one unit at a time.
+     * Verifies that the refunds add up to exactly the totals of the sale.
+     */
+    @Test
+    public void testRefundUnitsOfUnevenSale() {
+        when(salesJdbcRepository.addRefundedQuantities(anyMap())).thenReturn(true);
+
+        Money refundedRevenue = Money.ZERO;
+        Money refundedCost = Money.ZERO;
+        for (int refunded = 0; refunded < 3; refunded++) {
+            Sales sale = Sales.builder().id(9).productVariationId(3).quantitySold(3).quantityRefunded(refunded)
+                    .totalRevenue(Money.valueOf("10.00")).totalCost(Money.valueOf("5.00"))
+                    .totalProfit(Money.valueOf("5.00")).build();
+            when(salesRepository.findRefundable(eq(3), eq(1), any())).thenReturn(Collections.singletonList(sale));
+
+            Sales refund = refundService.refund(userDTO, 3, 1).get(0);
+            assertEquals(refund.getTotalRevenue().minus(refund.getTotalCost()), refund.getTotalProfit());
+            refundedRevenue = refundedRevenue.plus(refund.getTotalRevenue());
+            refundedCost = refundedCost.plus(refund.getTotalCost());
+        }
+
+        assertEquals(Money.valueOf("-10.00"), refundedRevenue);
+        assertEquals(Money.valueOf("-5.00"), refundedCost);
+    }
+
+    /**
+     * Test case for refunding more than the running totals allow.
+     * Verifies that the sales history is not read.
+     */
+    @Test
+    public void testRefundMoreThanSummary() {
+        assertThrows(IllegalArgumentException.class, () -> refundService.refund(userDTO, 3, 7));
+        verify(salesRepository, never()).findRefundable(any(), any(), any());
+    }
+
+    /**
+     * Test case for refunding more than is left to refund.
+     * Verifies that nothing is written.
+     */
+    @Test
+    public void testRefundMoreThanSold() {
+        when(salesRepository.findRefundable(eq(3), eq(1), any()))
+                .thenReturn(Collections.singletonList(sale(9, 2, 0)))
+                .thenReturn(Collections.emptyList());
+
+        assertThrows(IllegalArgumentException.class, () -> refundService.refund(userDTO, 3, 3));
+        verify(salesJdbcRepository, never()).insertAll(anyList());
+        verify(productVariationRepository, never()).incrementQuantity(anyInt(), anyInt());
+    }
+
+    /**
+     * Test case for refunding a product variation the user does not own.
+     */
+    @Test
+    public void testRefundUnknownVariation() {
+        assertThrows(IllegalArgumentException.class, () -> refundService.refund(userDTO, 4, 1));
+        verify(salesRepository, never()).findRefundable(any(), any(), any());
+    }
+}
@@ -0,0 +1,114 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.dto.ReportFormat;
+import dashboard.IMS.dto.SalesReportFilter;
+import dashboard.IMS.dto.SalesReportVersion;
+import dashboard.IMS.repository.SalesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ReportCacheService class.
+ * These tests validate the behavior of ReportCacheService methods.
+ * Mocking is used to isolate the class under test and focus on its logic independently.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+public class ReportCacheServiceTest {
+
+    @Mock
+    private SalesRepository salesRepository;
+
+    @Mock
+    private SalesService salesService;
+
+    @TempDir
+    Path cacheDirectory;
+
+    private ReportCacheService reportCacheService;
+
+    /**
+     * Initialize mocks before each test method execution.
+     */
+    @BeforeEach
+    public void init() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        reportCacheService = new ReportCacheService(salesRepository, salesService, cacheDirectory.toString(), Duration.ZERO);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("xlsx".getBytes());
+            return null;
+        }).when(salesService).writeSalesReportExcel(eq(1), any(), any(OutputStream.class));
+    }
+
+    /**
+     * Test case for a repeated download.
+     * Verifies that the report is generated once while the user's sales are unchanged.
+     */
+    @Test
+    public void testGetReportReusesCachedFile() throws Exception {
+        when(salesRepository.findReportVersionByUserId(1)).thenReturn(new SalesReportVersion(9, 4L));
+
+        ReportCacheService.CachedReport first = reportCacheService.getReport(1, ReportFormat.EXCEL, null);
+        ReportCacheService.CachedReport second = reportCacheService.getReport(1, ReportFormat.EXCEL, null);
+
+        assertEquals(first.etag(), second.etag());
+        assertEquals("xlsx", Files.readString(second.file()));
+        verify(salesService, times(1)).writeSalesReportExcel(eq(1), any(), any(OutputStream.class));
+    }
+
+    /**
+     * Test case for a download after a new sale.
+     * Verifies that a new report with a new ETag is generated, and the stale one is kept for downloads
+     * already under way until the cleanup deletes it.
+     */
+    @Test
+    public void testGetReportRegeneratesAfterNewSale() throws Exception {
+        when(salesRepository.findReportVersionByUserId(1))
+                .thenReturn(new SalesReportVersion(9, 4L))
+                .thenReturn(new SalesReportVersion(10, 5L));
+
+        ReportCacheService.CachedReport first = reportCacheService.getReport(1, ReportFormat.EXCEL, null);
+        ReportCacheService.CachedReport second = reportCacheService.getReport(1, ReportFormat.EXCEL, null);
+
+        assertNotEquals(first.etag(), second.etag());
+        assertTrue(Files.exists(first.file()));
+        assertEquals(1, reportCacheService.deleteStaleReports());
+        assertFalse(Files.exists(first.file()));
+        assertTrue(Files.exists(second.file()));
+        verify(salesService, times(2)).writeSalesReportExcel(eq(1), any(), any(OutputStream.class));
+    }
+
+    /**
+     * Test case for downloads with different filters.
+     * Verifies that each filter gets its own report, and both are kept while the user's sales are unchanged.
+     */
+    @Test
+    public void testGetReportKeepsOneReportPerFilter() throws Exception {
+        when(salesRepository.findReportVersionByUserId(1)).thenReturn(new SalesReportVersion(9, 4L));
+        SalesReportFilter march = SalesReportFilter.builder()
+                .from(LocalDate.of(2024, 3, 1)).to(LocalDate.of(2024, 3, 31)).build();
+
+        ReportCacheService.CachedReport all = reportCacheService.getReport(1, ReportFormat.EXCEL, null);
+        ReportCacheService.CachedReport filtered = reportCacheService.getReport(1, ReportFormat.EXCEL, march);
+
+        assertNotEquals(all.etag(), filtered.etag());
+        assertTrue(Files.exists(all.file()));
+        assertTrue(Files.exists(filtered.file()));
+        verify(salesService).writeSalesReportExcel(eq(1), eq(march), any(OutputStream.class));
+    }
+}
@@ -0,0 +1,136 @@
+package dashboard.IMS.service;
+
+import com.itextpdf.text.DocumentException;
+import dashboard.IMS.dto.ReportFormat;
+import dashboard.IMS.dto.ReportJobDTO;
+import dashboard.IMS.dto.SalesReportFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ReportJobService class.
+ * These tests validate the behavior of ReportJobService methods.
+ * Mocking is used to isolate the class under test and focus on its logic independently.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+public class ReportJobServiceTest {
+
+    @Mock
+    private SalesService salesService;
+
+    @TempDir
+    Path reportDirectory;
+
+    private ReportJobService reportJobService;
+
+    /**
+     * Initialize mocks before each test method execution.
+     * Jobs run on the calling thread so they are finished when submit returns.
+     */
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        reportJobService = new ReportJobService(salesService, new SyncTaskExecutor(), reportDirectory.toString(), Duration.ofHours(1));
+    }
+
+    /**
+     * Test case for submitting a report job.
+     * Verifies that the report is rendered to a file and the job is completed.
+     */
+    @Test
+    public void testSubmitCompletesJob() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("%PDF".getBytes());
+            return null;
+        }).when(salesService).writeSalesReportPdf(eq(1), any(), any(OutputStream.class));
+
+        ReportJobDTO job = reportJobService.submit(1, ReportFormat.PDF, null);
+
+        assertEquals(ReportJobDTO.Status.COMPLETED, job.getStatus());
+        assertEquals("%PDF", Files.readString(job.getFile()));
+        assertTrue(job.getFileName().endsWith(".pdf"));
+        assertSame(job, reportJobService.getJob(1, job.getId()).orElseThrow());
+        assertTrue(reportJobService.getJob(2, job.getId()).isEmpty());
+    }
+
+    /**
+     * Test case for a report job with filters.
+     * Verifies that the filters are passed to the report.
+     */
+    @Test
+    public void testSubmitPassesFilter() throws Exception {
+        SalesReportFilter march = SalesReportFilter.builder()
+                .from(LocalDate.of(2024, 3, 1)).to(LocalDate.of(2024, 3, 31)).build();
+
+        ReportJobDTO job = reportJobService.submit(1, ReportFormat.EXCEL, march);
+
+        assertSame(march, job.getFilter());
+        verify(salesService).writeSalesReportExcel(eq(1), same(march), any(OutputStream.class));
+    }
+
+    /**
+     * Test case for a report job that fails to render.
+     * Verifies that the job is marked failed and no file is left behind.
+     */
+    @Test
+    public void testSubmitMarksFailedJob() throws Exception {
+        doThrow(new DocumentException("broken")).when(salesService).writeSalesReportPdf(eq(1), any(), any(OutputStream.class));
+
+        ReportJobDTO job = reportJobService.submit(1, ReportFormat.PDF, null);
+
+        assertEquals(ReportJobDTO.Status.FAILED, job.getStatus());
+        assertNotNull(job.getError());
+        try (var files = Files.list(reportDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    /**
+     * Test case for submitting a report job while the executor is full.
+     * Verifies that the job is rejected and not kept.
+     */
+    @Test
+    public void testSubmitRejectedWhenBusy() {
+        TaskExecutor fullExecutor = task -> {
+            throw new TaskRejectedException("full");
+        };
+        reportJobService = new ReportJobService(salesService, fullExecutor, reportDirectory.toString(), Duration.ofHours(1));
+
+        assertThrows(IllegalStateException.class, () -> reportJobService.submit(1, ReportFormat.EXCEL, null));
+    }
+
+    /**
+     * Test case for the retention policy.
+     * Verifies that finished jobs past the retention period are forgotten and their files deleted.
+     */
+    @Test
+    public void testDeleteExpiredReports() throws Exception {
+        reportJobService = new ReportJobService(salesService, new SyncTaskExecutor(), reportDirectory.toString(), Duration.ZERO);
+        ReportJobDTO job = reportJobService.submit(1, ReportFormat.EXCEL, null);
+        Thread.sleep(5);
+
+        reportJobService.deleteExpiredReports();
+
+        assertTrue(reportJobService.getJob(1, job.getId()).isEmpty());
+        assertFalse(Files.exists(job.getFile()));
+    }
+}
@@ -0,0 +1,159 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.dto.SalesSliceDTO;
+import dashboard.IMS.repository.SalesJdbcRepository;
+import dashboard.IMS.utilities.SalesColumnStore;
+import dashboard.IMS.utilities.SalesColumnStore.Dimension;
+import dashboard.IMS.utilities.SalesColumnStore.Measure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the SalesAnalyticsEngine class.
+ * These tests validate the behavior of SalesAnalyticsEngine methods.
+ * Mocking is used to isolate the class under test and focus on its logic independently.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+public class SalesAnalyticsEngineTest {
+
+    private static final LocalDate MARCH_1 = LocalDate.of(2024, 3, 1);
+
+    private SalesAnalyticsEngine salesAnalyticsEngine;
+
+    @Mock
+    private SalesJdbcRepository salesJdbcRepository;
+
+    /**
+     * Initialize mocks before each test method execution.
+     * The first load returns two sales of variation 3 (red, small) and one of variation 4 (blue, small),
+     * followed by a refund of one unit of variation 3.
+     */
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        salesAnalyticsEngine = new SalesAnalyticsEngine(salesJdbcRepository, 10, Duration.ofHours(1), 2);
+        int march1 = (int) MARCH_1.toEpochDay();
+        doAnswer(invocation -> {
+            SalesColumnStore store = invocation.getArgument(2);
+            store.append(1, 3, 1, 7, 2, 2, 5000, 2000, 3000, march1);
+            store.append(2, 4, 1, 8, 2, 1, 2500, 1000, 1500, march1 + 4);
+            store.append(3, 3, 1, 7, 2, 1, 2500, 1000, 1500, march1 + 10);
+            store.append(4, 3, 1, 7, 2, -1, -2500, -1000, -1500, march1 + 10);
+            return null;
+        }).when(salesJdbcRepository).loadSalesColumns(eq(1), eq(0), any(SalesColumnStore.class));
+    }
+
+    /**
+     * Test case for grouping by color.
+     * Verifies that profit is summed per color in money and that refunds net out.
+     */
+    @Test
+    public void testGroupByColor() {
+        List<SalesSliceDTO> slices = salesAnalyticsEngine.groupBy(1, Dimension.COLOR, Measure.PROFIT, MARCH_1, MARCH_1.plusDays(30));
+
+        assertEquals(2, slices.size());
+        assertEquals(7, slices.get(0).getId());
+        assertEquals(new BigDecimal("30.00"), slices.get(0).getValue());
+        assertEquals(8, slices.get(1).getId());
+        assertEquals(new BigDecimal("15.00"), slices.get(1).getValue());
+        assertNull(slices.get(0).getPeriodStart());
+    }
+
+    /**
+     * Test case for grouping by week.
+     * Verifies that sales are grouped by the Monday of their week and limited to the range.
+     */
+    @Test
+    public void testGroupByWeek() {
+        List<SalesSliceDTO> slices = salesAnalyticsEngine.groupBy(1, Dimension.WEEK, Measure.QUANTITY, MARCH_1, MARCH_1.plusDays(5));
+
+        // March 1 2024 is a Friday and March 5 a Tuesday; the sales of March 11 are outside the range
+        assertEquals(2, slices.size());
+        assertEquals(LocalDate.of(2024, 2, 26), slices.get(0).getPeriodStart());
+        assertEquals(BigDecimal.valueOf(2), slices.get(0).getValue());
+        assertEquals(LocalDate.of(2024, 3, 4), slices.get(1).getPeriodStart());
+        assertEquals(BigDecimal.ONE, slices.get(1).getValue());
+    }
+
+    /**
+     * Test case for the top groups.
+     * Verifies that groups are ordered by their totals and cut to the limit.
+     */
+    @Test
+    public void testTopN() {
+        List<SalesSliceDTO> top = salesAnalyticsEngine.topN(1, Dimension.PRODUCT_VARIATION, Measure.REVENUE, 1, false,
+                MARCH_1, MARCH_1.plusDays(30));
+        List<SalesSliceDTO> bottom = salesAnalyticsEngine.topN(1, Dimension.PRODUCT_VARIATION, Measure.REVENUE, 1, true,
+                MARCH_1, MARCH_1.plusDays(30));
+
+        assertEquals(1, top.size());
+        assertEquals(3, top.get(0).getId());
+        assertEquals(new BigDecimal("50.00"), top.get(0).getValue());
+        assertEquals(4, bottom.get(0).getId());
+    }
+
+    /**
+     * Test case for a repeated query.
+     * Verifies that only the reload window below the highest loaded sales ID is read again,
+     * and that the sales already loaded from it are not added twice.
+     */
+    @Test
+    public void testRefreshLoadsOnlyNewSales() {
+        salesAnalyticsEngine.groupBy(1, Dimension.PRODUCT, Measure.QUANTITY, MARCH_1, MARCH_1.plusDays(30));
+        int march1 = (int) MARCH_1.toEpochDay();
+        doAnswer(invocation -> {
+            SalesColumnStore store = invocation.getArgument(2);
+            store.append(3, 3, 1, 7, 2, 1, 2500, 1000, 1500, march1 + 10);
+            store.append(4, 3, 1, 7, 2, -1, -2500, -1000, -1500, march1 + 10);
+            store.append(5, 4, 1, 8, 2, 3, 7500, 3000, 4500, march1);
+            return null;
+        }).when(salesJdbcRepository).loadSalesColumns(eq(1), eq(2), any(SalesColumnStore.class));
+
+        List<SalesSliceDTO> slices = salesAnalyticsEngine.groupBy(1, Dimension.PRODUCT, Measure.QUANTITY, MARCH_1, MARCH_1.plusDays(30));
+
+        assertEquals(BigDecimal.valueOf(6), slices.get(0).getValue());
+        verify(salesJdbcRepository, times(1)).loadSalesColumns(eq(1), eq(0), any(SalesColumnStore.class));
+        verify(salesJdbcRepository, times(1)).loadSalesColumns(eq(1), eq(2), any(SalesColumnStore.class));
+    }
+
+    /**
+     * Test case for a sale whose transaction committed after a sale with a higher ID was loaded.
+     * Verifies that it is picked up by the next query.
+     */
+    @Test
+    public void testRefreshLoadsLateCommittedSale() {
+        int march1 = (int) MARCH_1.toEpochDay();
+        doAnswer(invocation -> {
+            SalesColumnStore store = invocation.getArgument(2);
+            store.append(10, 3, 1, 7, 2, 1, 2500, 1000, 1500, march1);
+            store.append(12, 3, 1, 7, 2, 1, 2500, 1000, 1500, march1);
+            return null;
+        }).when(salesJdbcRepository).loadSalesColumns(eq(2), eq(0), any(SalesColumnStore.class));
+        doAnswer(invocation -> {
+            SalesColumnStore store = invocation.getArgument(2);
+            store.append(11, 3, 1, 7, 2, 4, 10000, 4000, 6000, march1);
+            store.append(12, 3, 1, 7, 2, 1, 2500, 1000, 1500, march1);
+            return null;
+        }).when(salesJdbcRepository).loadSalesColumns(eq(2), eq(10), any(SalesColumnStore.class));
+
+        salesAnalyticsEngine.groupBy(2, Dimension.PRODUCT, Measure.QUANTITY, MARCH_1, MARCH_1);
+        List<SalesSliceDTO> slices = salesAnalyticsEngine.groupBy(2, Dimension.PRODUCT, Measure.QUANTITY, MARCH_1, MARCH_1);
+
+        assertEquals(BigDecimal.valueOf(6), slices.get(0).getValue());
+    }
+}
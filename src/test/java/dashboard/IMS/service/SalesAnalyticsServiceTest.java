@@ -0,0 +1,178 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.dto.SalesPeriod;
+import dashboard.IMS.dto.SalesTotalsDTO;
+import dashboard.IMS.dto.VariationSalesDTO;
+import dashboard.IMS.repository.ProductVariationRepository;
+import dashboard.IMS.repository.SalesDailyRollupRepository;
+import dashboard.IMS.repository.SalesJdbcRepository;
+import dashboard.IMS.repository.SalesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the SalesAnalyticsService class.
+ * These tests validate the behavior of SalesAnalyticsService methods.
+ * Mocking is used to isolate the class under test and focus on its logic independently.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+public class SalesAnalyticsServiceTest {
+
+    @Mock
+    private SalesDailyRollupRepository salesDailyRollupRepository;
+
+    @Mock
+    private SalesJdbcRepository salesJdbcRepository;
+
+    @Mock
+    private SalesRepository salesRepository;
+
+    @Mock
+    private ProductVariationRepository productVariationRepository;
+
+    @Mock
+    private BackfillService backfillService;
+
+    private SalesAnalyticsService salesAnalyticsService;
+
+    /**
+     * Initialize mocks before each test method execution.
+     */
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        salesAnalyticsService = new SalesAnalyticsService(salesDailyRollupRepository, salesJdbcRepository,
+                salesRepository, productVariationRepository, backfillService, 20, 10, Duration.ofMinutes(1));
+        when(salesDailyRollupRepository.findDailyTotals(1, LocalDate.of(2024, 2, 26), LocalDate.of(2024, 3, 10)))
+                .thenReturn(Arrays.asList(
+                        totals(LocalDate.of(2024, 2, 28), 2, 0, "40"),
+                        totals(LocalDate.of(2024, 3, 1), 1, 0, "20"),
+                        totals(LocalDate.of(2024, 3, 4), 3, 1, "40")));
+    }
+
+    /**
+     * Test case for weekly totals.
+     * Verifies that days are summed into weeks starting on Monday.
+     */
+    @Test
+    public void testGetWeeklyTotals() {
+        List<SalesTotalsDTO> weeks = salesAnalyticsService.getWeeklyTotals(1, LocalDate.of(2024, 2, 26), LocalDate.of(2024, 3, 10));
+
+        assertEquals(2, weeks.size());
+        assertEquals(LocalDate.of(2024, 2, 26), weeks.get(0).getPeriodStart());
+        assertEquals(3L, weeks.get(0).getQuantitySold());
+        assertEquals(new BigDecimal("60"), weeks.get(0).getTotalRevenue());
+        assertEquals(LocalDate.of(2024, 3, 4), weeks.get(1).getPeriodStart());
+        assertEquals(1L, weeks.get(1).getQuantityRefunded());
+    }
+
+    /**
+     * Test case for monthly totals.
+     * Verifies that days are summed into calendar months.
+     */
+    @Test
+    public void testGetMonthlyTotals() {
+        List<SalesTotalsDTO> months = salesAnalyticsService.getMonthlyTotals(1, LocalDate.of(2024, 2, 26), LocalDate.of(2024, 3, 10));
+
+        assertEquals(2, months.size());
+        assertEquals(LocalDate.of(2024, 2, 1), months.get(0).getPeriodStart());
+        assertEquals(new BigDecimal("40"), months.get(0).getTotalRevenue());
+        assertEquals(LocalDate.of(2024, 3, 1), months.get(1).getPeriodStart());
+        assertEquals(4L, months.get(1).getQuantitySold());
+        assertEquals(new BigDecimal("60"), months.get(1).getTotalRevenue());
+    }
+
+    /**
+     * Test case for a range that ends before it starts.
+     * Verifies that IllegalArgumentException is thrown without reading the rollup.
+     */
+    @Test
+    public void testGetTotalsInvalidRange() {
+        assertThrows(IllegalArgumentException.class, () ->
+                salesAnalyticsService.getTotals(1, SalesPeriod.DAY, LocalDate.of(2024, 3, 10), LocalDate.of(2024, 3, 1)));
+        verify(salesDailyRollupRepository, never()).findDailyTotals(anyInt(), any(), any());
+    }
+
+    /**
+     * Test case for the startup rebuild.
+     * Verifies that the rollup is rebuilt from the sales history through its backfill marker.
+     */
+    @Test
+    public void testInitializeDailyRollups() {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        }).when(backfillService).runOnce(eq("sales_daily_rollup"), any());
+
+        salesAnalyticsService.afterSingletonsInstantiated();
+
+        verify(salesJdbcRepository, times(1)).rebuildDailyRollups();
+    }
+
+    /**
+     * Test case for the top sellers.
+     * Verifies that the limit is capped and a repeated request is served from the cache.
+     */
+    @Test
+    public void testGetTopSellersCached() {
+        List<VariationSalesDTO> topSellers = Collections.singletonList(VariationSalesDTO.builder()
+                .productVariationId(3).quantitySold(12L).build());
+        when(salesRepository.findTopSellers(eq(1), any(LocalDateTime.class), eq(PageRequest.of(0, 20)))).thenReturn(topSellers);
+
+        assertSame(topSellers, salesAnalyticsService.getTopSellers(1, 7, 500));
+        assertSame(topSellers, salesAnalyticsService.getTopSellers(1, 7, 500));
+
+        verify(salesRepository, times(1)).findTopSellers(1, LocalDate.now().minusDays(6).atStartOfDay(), PageRequest.of(0, 20));
+    }
+
+    /**
+     * Test case for the slow movers.
+     * Verifies that variations without sales in the window get zero totals.
+     */
+    @Test
+    public void testGetSlowMoversWithoutSales() {
+        when(productVariationRepository.findSlowMovers(eq(1), any(LocalDateTime.class), eq(PageRequest.of(0, 5))))
+                .thenReturn(Collections.singletonList(new VariationSalesDTO(4, 1, "Tee", "Red", "S", null, null, null, 9)));
+
+        List<VariationSalesDTO> slowMovers = salesAnalyticsService.getSlowMovers(1, 30, 5);
+
+        assertEquals(0L, slowMovers.get(0).getQuantitySold());
+        assertEquals(BigDecimal.ZERO, slowMovers.get(0).getTotalRevenue());
+        assertEquals(9, slowMovers.get(0).getQuantityInStock());
+    }
+
+    /**
+     * Test case for an invalid window.
+     * Verifies that IllegalArgumentException is thrown without querying.
+     */
+    @Test
+    public void testGetTopSellersInvalidWindow() {
+        assertThrows(IllegalArgumentException.class, () -> salesAnalyticsService.getTopSellers(1, 0, 10));
+        verify(salesRepository, never()).findTopSellers(anyInt(), any(), any());
+    }
+
+    private static SalesTotalsDTO totals(LocalDate day, long quantitySold, long quantityRefunded, String revenue) {
+        return new SalesTotalsDTO(day, quantitySold, quantityRefunded, new BigDecimal(revenue), BigDecimal.TEN, BigDecimal.TEN);
+    }
+}
@@ -1,18 +1,56 @@
 package dashboard.IMS.service;
 
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+import dashboard.IMS.entity.Money;
+import dashboard.IMS.entity.Product;
+import dashboard.IMS.entity.ProductVariation;
+import dashboard.IMS.dto.SaleLineDTO;
+import dashboard.IMS.dto.SalesReportCursor;
+import dashboard.IMS.dto.SalesReportFilter;
+import dashboard.IMS.dto.SalesReportPageDTO;
+import dashboard.IMS.dto.UserDTO;
 import dashboard.IMS.entity.Sales;
+import dashboard.IMS.entity.User;
+import dashboard.IMS.repository.ProductVariationRepository;
+import dashboard.IMS.repository.SalesJdbcRepository;
 import dashboard.IMS.repository.SalesRepository;
+import dashboard.IMS.repository.SalesSummaryRepository;
+import dashboard.IMS.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -30,9 +68,39 @@ public class SalesServiceTest {
     private SalesService salesService;
 
     // Mock the SalesRepository which is used by the SalesService
+    @Mock
+    private DashboardService dashboardService;
+
     @Mock
     private SalesRepository salesRepository;
 
+    // Mock the ProductVariationRepository used to decrement stock on a sale
+    @Mock
+    private ProductVariationRepository productVariationRepository;
+
+    // Mock the UserRepository used to reference the seller on a sale
+    @Mock
+    private UserRepository userRepository;
+
+    // Mock the SalesJdbcRepository used for batched cart sales
+    @Mock
+    private SalesJdbcRepository salesJdbcRepository;
+
+    // Mock the SalesSummaryRepository holding the running totals per product variation
+    @Mock
+    private SalesSummaryRepository salesSummaryRepository;
+
+    // Mock the StockLedgerService recording the stock movements of sales
+    @Mock
+    private StockLedgerService stockLedgerService;
+
+    // Mock the SalesWriteBehindService queuing single sales when write-behind is enabled
+    @Mock
+    private SalesWriteBehindService salesWriteBehindService;
+
+    @Mock
+    private BackfillService backfillService;
+
     // This method is executed before each test. It initializes the mock objects.
     @BeforeEach
     public void init() {
@@ -69,4 +137,270 @@ public class SalesServiceTest {
         // Verify that the deleteById method was called exactly once
         verify(salesRepository, times(1)).deleteById(1);
     }
-}
\ No newline at end of file
+
+    // Test case for the keyset-paginated getSalesReport method when more sales follow the page
+    @Test
+    public void testGetSalesReportPageHasNext() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(1);
+        LocalDateTime transactionDate = LocalDateTime.of(2024, 3, 1, 10, 0);
+        List<Sales> salesList = Arrays.asList(
+                Sales.builder().id(9).transactionDate(transactionDate).build(),
+                Sales.builder().id(8).transactionDate(transactionDate).build(),
+                Sales.builder().id(7).transactionDate(transactionDate.minusDays(1)).build());
+        when(salesRepository.findReportFirstPage(1, null, null, null, null, null, PageRequest.of(0, 3))).thenReturn(salesList);
+
+        SalesReportPageDTO page = salesService.getSalesReport(userDTO, null, null, 2, false);
+
+        assertEquals(2, page.getSales().size());
+        assertTrue(page.isHasNext());
+        assertNull(page.getTotalCount());
+        assertEquals(new SalesReportCursor(transactionDate, 8), SalesReportCursor.decode(page.getNextCursor()));
+        verify(salesRepository, never()).countReport(anyInt(), any(), any(), any(), any(), any());
+    }
+
+    // Test case for the keyset-paginated getSalesReport method when continuing after a cursor
+    @Test
+    public void testGetSalesReportPageAfterCursor() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(1);
+        LocalDateTime transactionDate = LocalDateTime.of(2024, 3, 1, 10, 0);
+        String cursor = new SalesReportCursor(transactionDate, 8).encode();
+        when(salesRepository.findReportPageAfter(1, transactionDate, 8, null, null, null, null, null, PageRequest.of(0, 3)))
+                .thenReturn(Collections.singletonList(Sales.builder().id(7).transactionDate(transactionDate).build()));
+        when(salesRepository.countReport(1, null, null, null, null, null)).thenReturn(3L);
+
+        SalesReportPageDTO page = salesService.getSalesReport(userDTO, null, cursor, 2, true);
+
+        assertEquals(1, page.getSales().size());
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+        assertEquals(3L, page.getTotalCount());
+    }
+
+    // Test case for a month-end report of one product's sales, whose filters are passed to the query
+    @Test
+    public void testGetSalesReportFiltered() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(1);
+        SalesReportFilter filter = SalesReportFilter.builder()
+                .from(LocalDate.of(2024, 3, 1)).to(LocalDate.of(2024, 3, 31)).productId(5).isRefund(false).build();
+        when(salesRepository.findReportFirstPage(1, LocalDateTime.of(2024, 3, 1, 0, 0), LocalDateTime.of(2024, 4, 1, 0, 0),
+                5, null, false, PageRequest.of(0, 3)))
+                .thenReturn(Collections.singletonList(Sales.builder().id(7).transactionDate(LocalDateTime.of(2024, 3, 31, 23, 0)).build()));
+        when(salesRepository.countReport(1, LocalDateTime.of(2024, 3, 1, 0, 0), LocalDateTime.of(2024, 4, 1, 0, 0), 5, null, false))
+                .thenReturn(1L);
+
+        SalesReportPageDTO page = salesService.getSalesReport(userDTO, filter, null, 2, true);
+
+        assertEquals(1, page.getSales().size());
+        assertFalse(page.isHasNext());
+        assertEquals(1L, page.getTotalCount());
+    }
+
+    // Test case for the keyset-paginated getSalesReport method with a cursor that was not issued by it
+    @Test
+    public void testGetSalesReportInvalidCursor() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(1);
+
+        assertThrows(IllegalArgumentException.class, () -> salesService.getSalesReport(userDTO, null, "not-a-cursor", null, false));
+    }
+
+    // Test case for the streaming Excel export, which writes each streamed sale and detaches it
+    @Test
+    public void testWriteSalesReportExcel() throws IOException {
+        EntityManager entityManager = mock(EntityManager.class);
+        ReflectionTestUtils.setField(salesService, "entityManager", entityManager);
+        List<Sales> salesList = Arrays.asList(
+                Sales.builder().id(1).quantitySold(2).totalCost(Money.valueOf("10")).totalRevenue(Money.valueOf("20"))
+                        .totalProfit(Money.valueOf("10")).transactionDate(LocalDateTime.of(2024, 3, 1, 10, 0)).build(),
+                Sales.builder().id(2).quantitySold(1).transactionDate(LocalDateTime.of(2024, 3, 2, 10, 0)).build());
+        when(salesRepository.streamReportByUserId(1, null, null, null, null, null)).thenReturn(salesList.stream());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        salesService.writeSalesReportExcel(1, null, outputStream);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            assertEquals(2, workbook.getSheetAt(0).getLastRowNum());
+            assertEquals(20.0, workbook.getSheetAt(0).getRow(1).getCell(3).getNumericCellValue());
+        }
+        verify(entityManager, times(2)).detach(any(Sales.class));
+    }
+
+    // Test case for the streaming PDF export, which writes more sales than fit in one table chunk
+    @Test
+    public void testWriteSalesReportPdf() throws Exception {
+        ReflectionTestUtils.setField(salesService, "entityManager", mock(EntityManager.class));
+        when(salesRepository.streamReportByUserId(1, null, null, null, null, null)).thenReturn(IntStream.rangeClosed(1, 250)
+                .mapToObj(id -> Sales.builder().id(id).quantitySold(1).transactionDate(LocalDateTime.of(2024, 3, 1, 10, 0)).build()));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        salesService.writeSalesReportPdf(1, null, outputStream);
+
+        PdfReader reader = new PdfReader(outputStream.toByteArray());
+        assertTrue(PdfTextExtractor.getTextFromPage(reader, reader.getNumberOfPages()).contains("250"));
+        reader.close();
+    }
+
+    // Test case for the CSV export, which filters by whole days and quotes product names with commas
+    @Test
+    public void testWriteSalesExportCsv() throws IOException {
+        ReflectionTestUtils.setField(salesService, "entityManager", mock(EntityManager.class));
+        Product product = new Product();
+        product.setProductName("Tee, Black");
+        ProductVariation productVariation = new ProductVariation();
+        productVariation.setProduct(product);
+        Sales sale = Sales.builder().id(4).productVariationId(2).productVariation(productVariation).quantitySold(1)
+                .quantityRefunded(0).totalRevenue(Money.valueOf("20")).totalCost(Money.valueOf("10"))
+                .totalProfit(Money.valueOf("10")).transactionDate(LocalDateTime.of(2024, 3, 1, 10, 0)).build();
+        when(salesRepository.streamReportByUserId(1, LocalDateTime.of(2024, 3, 1, 0, 0), LocalDateTime.of(2024, 4, 1, 0, 0), null, null, null))
+                .thenReturn(Stream.of(sale));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        salesService.writeSalesExportCsv(1, SalesReportFilter.builder()
+                .from(LocalDate.of(2024, 3, 1)).to(LocalDate.of(2024, 3, 31)).build(), outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("4,2024-03-01T10:00,2,\"Tee, Black\",1,0,20.00,10.00,10.00,false", lines[1]);
+    }
+
+    // Test case for the NDJSON export, which writes one JSON object per line
+    @Test
+    public void testWriteSalesExportNdjson() throws IOException {
+        ReflectionTestUtils.setField(salesService, "entityManager", mock(EntityManager.class));
+        when(salesRepository.streamReportByUserId(1, null, null, null, null, null)).thenReturn(Stream.of(
+                Sales.builder().id(1).quantitySold(1).build(),
+                Sales.builder().id(2).quantitySold(3).isRefund(true).build()));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        salesService.writeSalesExportNdjson(1, null, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].startsWith("{\"id\":2,"));
+        assertTrue(lines[1].endsWith("\"isRefund\":true}"));
+    }
+
+    // Test case for the sell method when enough stock is available
+    @Test
+    public void testSell() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(1);
+        Product product = new Product();
+        product.setCostPrice(Money.valueOf("10"));
+        product.setSellingPrice(Money.valueOf("25"));
+        ProductVariation productVariation = new ProductVariation();
+        productVariation.setProduct(product);
+        when(productVariationRepository.findByIdAndProductUserId(3, 1)).thenReturn(Optional.of(productVariation));
+        when(productVariationRepository.decrementQuantityIfAvailable(3, 2)).thenReturn(1);
+        when(userRepository.getReferenceById(1)).thenReturn(new User());
+        when(salesRepository.save(any(Sales.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Sales sale = salesService.sell(userDTO, 3, 2);
+
+        assertEquals(Money.valueOf("50"), sale.getTotalRevenue());
+        assertEquals(Money.valueOf("20"), sale.getTotalCost());
+        assertEquals(Money.valueOf("30"), sale.getTotalProfit());
+        verify(productVariationRepository, times(1)).decrementQuantityIfAvailable(3, 2);
+        verify(salesRepository, times(1)).save(any(Sales.class));
+        verify(salesJdbcRepository, times(1)).addToSalesSummaries(anyList());
+        verify(salesJdbcRepository, times(1)).addToDailyRollups(anyList());
+        verify(stockLedgerService, times(1)).record(anyList());
+    }
+
+    // Test case for the sell method with write-behind, which leaves the insert to the write-behind writer
+    @Test
+    public void testSellWriteBehind() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(1);
+        Product product = new Product();
+        product.setCostPrice(Money.valueOf("10"));
+        product.setSellingPrice(Money.valueOf("25"));
+        ProductVariation productVariation = new ProductVariation();
+        productVariation.setProduct(product);
+        when(productVariationRepository.findByIdAndProductUserId(3, 1)).thenReturn(Optional.of(productVariation));
+        when(productVariationRepository.decrementQuantityIfAvailable(3, 2)).thenReturn(1);
+        when(userRepository.getReferenceById(1)).thenReturn(new User());
+        when(salesWriteBehindService.isEnabled()).thenReturn(true);
+
+        Sales sale = salesService.sell(userDTO, 3, 2);
+
+        verify(salesWriteBehindService, times(1)).submit(sale);
+        verify(salesRepository, never()).save(any(Sales.class));
+        verify(salesJdbcRepository, never()).addToSalesSummaries(anyList());
+        verify(stockLedgerService, times(1)).record(anyList());
+    }
+
+    // Test case for the sell method when the conditional decrement finds too little stock
+    @Test
+    public void testSellInsufficientQuantity() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(1);
+        ProductVariation productVariation = new ProductVariation();
+        productVariation.setProduct(new Product());
+        when(productVariationRepository.findByIdAndProductUserId(3, 1)).thenReturn(Optional.of(productVariation));
+        when(productVariationRepository.decrementQuantityIfAvailable(3, 2)).thenReturn(0);
+
+        assertThrows(IllegalArgumentException.class, () -> salesService.sell(userDTO, 3, 2));
+        verify(salesRepository, never()).save(any(Sales.class));
+    }
+
+    // Test case for the sellBatch method, which merges duplicate lines and sells them with one batch
+    @Test
+    public void testSellBatch() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(1);
+        Product product = new Product();
+        product.setCostPrice(Money.valueOf("10"));
+        product.setSellingPrice(Money.valueOf("25"));
+        ProductVariation first = ProductVariation.builder().id(3).product(product).quantity(10).build();
+        ProductVariation second = ProductVariation.builder().id(4).product(product).quantity(10).build();
+        when(productVariationRepository.findAllWithProductByIdInAndUserId(any(), any())).thenReturn(Arrays.asList(first, second));
+        when(salesJdbcRepository.decrementQuantitiesIfAvailable(anyMap())).thenReturn(true);
+
+        int inserted = salesService.sellBatch(userDTO, Arrays.asList(
+                new SaleLineDTO(3, 1), new SaleLineDTO(4, 2), new SaleLineDTO(3, 1)));
+
+        assertEquals(2, inserted);
+        verify(productVariationRepository, times(1)).findAllWithProductByIdInAndUserId(any(), any());
+        verify(salesJdbcRepository, times(1)).insertAll(anyList());
+        verify(stockLedgerService, times(1)).record(anyList());
+    }
+
+    // Test case for the sellBatch method when one line has too little stock
+    @Test
+    public void testSellBatchInsufficientQuantity() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(1);
+        ProductVariation productVariation = ProductVariation.builder().id(3).product(new Product()).quantity(1).build();
+        when(productVariationRepository.findAllWithProductByIdInAndUserId(any(), any())).thenReturn(Collections.singletonList(productVariation));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> salesService.sellBatch(userDTO, Collections.singletonList(new SaleLineDTO(3, 2))));
+        verify(salesJdbcRepository, never()).insertAll(anyList());
+    }
+
+    // Test case for the getSalesSummary method when the variation has never been sold
+    @Test
+    public void testGetSalesSummaryNeverSold() {
+        when(salesSummaryRepository.findByUserIdAndProductVariationId(1, 3)).thenReturn(Optional.empty());
+
+        assertEquals(0, salesService.getSalesSummary(1, 3).getQuantityRefundable());
+        assertEquals(BigDecimal.ZERO, salesService.getSalesSummary(1, 3).getTotalProfit());
+    }
+
+    // Test case for the startup backfill of the sales summaries, which runs once through the backfill marker
+    @Test
+    public void testInitializeSalesSummaries() {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        }).when(backfillService).runOnce(eq("sales_summary"), any());
+
+        salesService.afterSingletonsInstantiated();
+
+        verify(salesJdbcRepository, times(1)).rebuildSalesSummaries();
+    }
+}
@@ -0,0 +1,202 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.entity.Money;
+import dashboard.IMS.entity.Sales;
+import dashboard.IMS.entity.User;
+import dashboard.IMS.repository.SalesJdbcRepository;
+import dashboard.IMS.repository.StockMovementJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the SalesWriteBehindService class.
+ * These tests validate the behavior of SalesWriteBehindService methods.
+ * Mocking is used to isolate the class under test and focus on its logic independently.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+public class SalesWriteBehindServiceTest {
+
+    @Mock
+    private SalesJdbcRepository salesJdbcRepository;
+
+    @Mock
+    private StockMovementJdbcRepository stockMovementJdbcRepository;
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    private Path journalFile;
+
+    private SalesWriteBehindService salesWriteBehindService;
+
+    /**
+     * Initialize mocks before each test method execution.
+     */
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        journalFile = tempDir.resolve("sales-journal.log");
+        salesWriteBehindService = new SalesWriteBehindService(salesJdbcRepository, stockMovementJdbcRepository, dashboardService, transactionManager,
+                true, 100, 2, journalFile.toString());
+    }
+
+    /**
+     * Stop the writer after each test method execution.
+     */
+    @AfterEach
+    public void stop() throws InterruptedException {
+        salesWriteBehindService.stop();
+    }
+
+    private static Sales sale(int userId, int quantity) {
+        User user = new User();
+        user.setId(userId);
+        return Sales.builder().productVariationId(3).quantitySold(quantity).quantityRefunded(0)
+                .totalRevenue(new Money(2500L * quantity)).totalCost(new Money(1000L * quantity))
+                .totalProfit(new Money(1500L * quantity)).transactionDate(LocalDateTime.of(2024, 3, 1, 12, 0))
+                .user(user).build();
+    }
+
+    /**
+     * Test case for submitting sales and writing them.
+     * Verifies that sales get sequence numbers, are journaled and written in batches, and the journal emptied.
+     */
+    @Test
+    public void testSubmitAndFlush() throws IOException {
+        Sales first = sale(1, 1);
+        salesWriteBehindService.submit(first);
+        salesWriteBehindService.submit(sale(1, 2));
+        salesWriteBehindService.submit(sale(2, 3));
+        assertEquals(1L, first.getJournalSequence());
+        assertEquals(3, Files.readAllLines(journalFile, StandardCharsets.UTF_8).size());
+
+        assertEquals(3, salesWriteBehindService.flush());
+
+        verify(salesJdbcRepository, times(2)).insertAll(anyList());
+        verify(dashboardService, times(1)).evict(2);
+        assertEquals(0, Files.size(journalFile));
+    }
+
+    /**
+     * Test case for submitting sales in transactions.
+     * Verifies that a sale is journaled before the commit, only queued after it, and dropped on rollback.
+     */
+    @Test
+    public void testSubmitInTransaction() throws IOException {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            salesWriteBehindService.submit(sale(1, 1));
+            salesWriteBehindService.submit(sale(1, 2));
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            assertEquals(0, Files.size(journalFile));
+
+            synchronizations.get(0).beforeCommit(false);
+            synchronizations.get(1).beforeCommit(false);
+            assertEquals(2, Files.readAllLines(journalFile, StandardCharsets.UTF_8).size());
+            assertEquals(0, salesWriteBehindService.flush());
+
+            synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            synchronizations.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, salesWriteBehindService.flush());
+        assertEquals(0, Files.size(journalFile));
+    }
+
+    /**
+     * Test case for starting after a crash.
+     * Verifies that only the journaled sales whose stock change committed and that are not inserted yet
+     * are written on the writer thread, a cut-short line is skipped, and new sales continue the sequence.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStartReplaysJournal() throws Exception {
+        Files.write(journalFile, Arrays.asList(
+                "1,1,3,1,2500,1000,1500,2024-03-01T12:00",
+                "2,1,3,2,5000,2000,3000,2024-03-01T12:00",
+                "4,2,3,4,10000,4000,6000,2024-03-01T12:00",
+                "3,1,3,1,2500,1000,1500,2024-03-01T12:00",
+                "5,2,3"), StandardCharsets.UTF_8);
+        // Sale 2 rolled back, and sale 1 was inserted before the crash
+        when(stockMovementJdbcRepository.findJournalSequences(1, 4)).thenReturn(new HashSet<>(Arrays.asList(1L, 3L, 4L)));
+        when(salesJdbcRepository.findJournalSequences(1, 4)).thenReturn(new HashSet<>(List.of(1L)));
+
+        salesWriteBehindService.start();
+
+        ArgumentCaptor<List<Sales>> captor = ArgumentCaptor.forClass(List.class);
+        verify(salesJdbcRepository, timeout(2000).times(1)).insertAll(captor.capture());
+        assertEquals(Arrays.asList(4L, 3L), captor.getValue().stream().map(Sales::getJournalSequence).collect(Collectors.toList()));
+        assertEquals(new Money(10000), captor.getValue().get(0).getTotalRevenue());
+        assertEquals(2, captor.getValue().get(0).getUser().getId());
+
+        Sales next = sale(1, 1);
+        salesWriteBehindService.submit(next);
+        salesWriteBehindService.stop();
+        assertEquals(5L, next.getJournalSequence());
+        verify(salesJdbcRepository, times(2)).insertAll(anyList());
+        assertTrue(Files.readAllLines(journalFile, StandardCharsets.UTF_8).isEmpty());
+    }
+
+    /**
+     * Test that a journal left from before write-behind was disabled is still replayed at startup.
+     */
+    @Test
+    public void testStartReplaysJournalWhenDisabled() throws Exception {
+        Files.write(journalFile, List.of("1,1,3,1,2500,1000,1500,2024-03-01T12:00"), StandardCharsets.UTF_8);
+        when(stockMovementJdbcRepository.findJournalSequences(1, 1)).thenReturn(new HashSet<>(List.of(1L)));
+        when(salesJdbcRepository.findJournalSequences(1, 1)).thenReturn(new HashSet<>());
+        salesWriteBehindService = new SalesWriteBehindService(salesJdbcRepository, stockMovementJdbcRepository, dashboardService, transactionManager,
+                false, 100, 2, journalFile.toString());
+
+        salesWriteBehindService.start();
+
+        ArgumentCaptor<List<Sales>> captor = ArgumentCaptor.forClass(List.class);
+        verify(salesJdbcRepository, timeout(2000).times(1)).insertAll(captor.capture());
+        assertEquals(List.of(1L), captor.getValue().stream().map(Sales::getJournalSequence).collect(Collectors.toList()));
+        salesWriteBehindService.stop();
+        assertTrue(Files.readAllLines(journalFile, StandardCharsets.UTF_8).isEmpty());
+    }
+
+    /**
+     * Test that write-behind cannot be enabled without a journal file.
+     */
+    @Test
+    public void testEnabledWithoutJournalFileFails() {
+        assertThrows(IllegalStateException.class, () -> new SalesWriteBehindService(salesJdbcRepository,
+                stockMovementJdbcRepository, dashboardService, transactionManager, true, 100, 2, ""));
+    }
+}
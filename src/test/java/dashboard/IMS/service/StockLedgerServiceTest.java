@@ -0,0 +1,159 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.dto.UserDTO;
+import dashboard.IMS.entity.Sales;
+import dashboard.IMS.entity.StockMovement;
+import dashboard.IMS.entity.StockMovementType;
+import dashboard.IMS.entity.StockSnapshot;
+import dashboard.IMS.entity.User;
+import dashboard.IMS.repository.ProductVariationRepository;
+import dashboard.IMS.repository.StockMovementJdbcRepository;
+import dashboard.IMS.repository.StockMovementRepository;
+import dashboard.IMS.repository.StockSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the StockLedgerService class.
+ * These tests validate the behavior of StockLedgerService methods.
+ * Mocking is used to isolate the class under test and focus on its logic independently.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+public class StockLedgerServiceTest {
+
+    @Mock
+    private StockMovementJdbcRepository stockMovementJdbcRepository;
+
+    @Mock
+    private StockMovementRepository stockMovementRepository;
+
+    @Mock
+    private StockSnapshotRepository stockSnapshotRepository;
+
+    @Mock
+    private ProductVariationRepository productVariationRepository;
+
+    @Mock
+    private BackfillService backfillService;
+
+    private StockLedgerService stockLedgerService;
+
+    private UserDTO userDTO;
+
+    /**
+     * Initialize mocks before each test method execution.
+     */
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        stockLedgerService = new StockLedgerService(stockMovementJdbcRepository, stockMovementRepository,
+                stockSnapshotRepository, productVariationRepository, backfillService, Duration.ofMinutes(1));
+        userDTO = new UserDTO();
+        userDTO.setId(1);
+        when(productVariationRepository.existsByIdAndProductUserId(3, 1)).thenReturn(true);
+    }
+
+    /**
+     * Test case for the movements of sales and refunds.
+     * Verifies that sales take stock out and refunds put it back.
+     */
+    @Test
+    public void testMovements() {
+        User user = new User();
+        user.setId(1);
+        LocalDateTime now = LocalDateTime.now();
+        List<StockMovement> movements = StockLedgerService.movements(Arrays.asList(
+                Sales.builder().productVariationId(3).quantitySold(2).isRefund(false).user(user).transactionDate(now).build(),
+                Sales.builder().productVariationId(3).quantitySold(-1).isRefund(true).user(user).transactionDate(now).build()));
+
+        assertEquals(StockMovementType.SALE, movements.get(0).getMovementType());
+        assertEquals(-2, movements.get(0).getQuantityChange());
+        assertEquals(StockMovementType.REFUND, movements.get(1).getMovementType());
+        assertEquals(1, movements.get(1).getQuantityChange());
+        assertEquals(1, movements.get(1).getUserId());
+    }
+
+    /**
+     * Test case for the stock at a time after a snapshot.
+     * Verifies that only the movements after the snapshot are summed.
+     */
+    @Test
+    public void testGetStockAsOfWithSnapshot() {
+        LocalDateTime asOf = LocalDateTime.of(2024, 3, 1, 12, 0);
+        when(stockSnapshotRepository.findFirstByProductVariationIdAndSnapshotAtLessThanEqualOrderByLastMovementIdDesc(3, asOf))
+                .thenReturn(Optional.of(StockSnapshot.builder().productVariationId(3).quantity(10).lastMovementId(40)
+                        .snapshotAt(asOf.minusHours(1)).build()));
+        when(stockMovementRepository.sumQuantityChanges(3, 40, asOf)).thenReturn(-4L);
+
+        assertEquals(6, stockLedgerService.getStockAsOf(userDTO, 3, asOf));
+    }
+
+    /**
+     * Test case for the stock at a time before any snapshot.
+     * Verifies that the movements are summed from the start of the ledger.
+     */
+    @Test
+    public void testGetStockAsOfWithoutSnapshot() {
+        LocalDateTime asOf = LocalDateTime.of(2024, 3, 1, 12, 0);
+        when(stockSnapshotRepository.findFirstByProductVariationIdAndSnapshotAtLessThanEqualOrderByLastMovementIdDesc(3, asOf))
+                .thenReturn(Optional.empty());
+        when(stockMovementRepository.sumQuantityChanges(3, 0, asOf)).thenReturn(5L);
+
+        assertEquals(5, stockLedgerService.getStockAsOf(userDTO, 3, asOf));
+    }
+
+    /**
+     * Test case for the stock of a product variation the user does not own.
+     */
+    @Test
+    public void testGetStockAsOfUnknownVariation() {
+        assertThrows(IllegalArgumentException.class, () -> stockLedgerService.getStockAsOf(userDTO, 4, LocalDateTime.now()));
+    }
+
+    /**
+     * Test case for taking snapshots.
+     * Verifies that snapshots include the settled movements only, and are skipped when there are none.
+     */
+    @Test
+    public void testTakeSnapshots() {
+        when(stockMovementJdbcRepository.findSettledMovementId(any())).thenReturn(120, 0);
+        when(stockMovementJdbcRepository.insertSnapshots(120)).thenReturn(3);
+
+        assertEquals(3, stockLedgerService.takeSnapshots());
+        assertEquals(0, stockLedgerService.takeSnapshots());
+        verify(stockMovementJdbcRepository, times(1)).insertSnapshots(anyInt());
+    }
+
+    /**
+     * Test case for starting the ledger.
+     * Verifies that opening balances are recorded through their backfill marker.
+     */
+    @Test
+    public void testInitializeLedger() {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        }).when(backfillService).runOnce(eq("stock_movement_opening_balances"), any());
+
+        stockLedgerService.afterSingletonsInstantiated();
+
+        verify(stockMovementJdbcRepository, times(1)).insertOpeningBalances(any());
+    }
+}
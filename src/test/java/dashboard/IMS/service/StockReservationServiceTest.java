@@ -0,0 +1,170 @@
+package dashboard.IMS.service;
+
+import dashboard.IMS.dto.UserDTO;
+import dashboard.IMS.entity.ProductVariation;
+import dashboard.IMS.entity.StockReservation;
+import dashboard.IMS.repository.ProductVariationRepository;
+import dashboard.IMS.repository.StockReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the StockReservationService class.
+ * These tests validate the behavior of StockReservationService methods.
+ * Mocking is used to isolate the class under test and focus on its logic independently.
+ *
+ * Author: Amiel De Los Reyes
+ * Date: 10/18/2026
+ */
+public class StockReservationServiceTest {
+
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+
+    @Mock
+    private ProductVariationRepository productVariationRepository;
+
+    @Mock
+    private SalesService salesService;
+
+    private StockReservationService stockReservationService;
+
+    private UserDTO userDTO;
+
+    /**
+     * Initialize mocks before each test method execution.
+     */
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        stockReservationService = new StockReservationService(stockReservationRepository, productVariationRepository,
+                salesService, Duration.ofMinutes(15), Duration.ofHours(1), 100);
+        userDTO = new UserDTO();
+        userDTO.setId(1);
+        when(productVariationRepository.existsByIdAndProductUserId(3, 1)).thenReturn(true);
+        when(stockReservationRepository.save(any(StockReservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private static StockReservation reservation(int id, LocalDateTime expiresAt) {
+        return StockReservation.builder().id(id).userId(1).productVariationId(3).quantity(2)
+                .createdAt(expiresAt.minusMinutes(15)).expiresAt(expiresAt).build();
+    }
+
+    /**
+     * Test case for reserving stock with the default time to live.
+     * Verifies that the quantity is held on the variation and the reservation expires after the default.
+     */
+    @Test
+    public void testReserve() {
+        when(productVariationRepository.reserveQuantityIfAvailable(3, 2)).thenReturn(1);
+
+        StockReservation reservation = stockReservationService.reserve(userDTO, 3, 2, null);
+
+        assertEquals(2, reservation.getQuantity());
+        assertEquals(Duration.ofMinutes(15), Duration.between(reservation.getCreatedAt(), reservation.getExpiresAt()));
+        verify(productVariationRepository, times(1)).reserveQuantityIfAvailable(3, 2);
+    }
+
+    /**
+     * Test case for reserving more than is available to sell.
+     * Verifies that no reservation is saved.
+     */
+    @Test
+    public void testReserveInsufficient() {
+        when(productVariationRepository.reserveQuantityIfAvailable(3, 5)).thenReturn(0);
+
+        assertThrows(IllegalArgumentException.class, () -> stockReservationService.reserve(userDTO, 3, 5, null));
+        verify(stockReservationRepository, never()).save(any());
+    }
+
+    /**
+     * Test case for reserving longer than the maximum time to live.
+     */
+    @Test
+    public void testReserveTooLong() {
+        assertThrows(IllegalArgumentException.class, () -> stockReservationService.reserve(userDTO, 3, 1, Duration.ofHours(2)));
+        verify(productVariationRepository, never()).reserveQuantityIfAvailable(anyInt(), anyInt());
+    }
+
+    /**
+     * Test case for committing a reservation.
+     * Verifies that the reservation is removed and its quantity sold from the held stock.
+     */
+    @Test
+    public void testCommit() {
+        when(stockReservationRepository.findByIdAndUserId(7, 1)).thenReturn(Optional.of(reservation(7, LocalDateTime.now().plusMinutes(5))));
+        when(stockReservationRepository.deleteReservation(7)).thenReturn(1);
+
+        stockReservationService.commit(userDTO, 7);
+
+        verify(salesService, times(1)).sellReserved(userDTO, 3, 2);
+    }
+
+    /**
+     * Test case for committing an expired reservation.
+     * Verifies that nothing is sold.
+     */
+    @Test
+    public void testCommitExpired() {
+        when(stockReservationRepository.findByIdAndUserId(7, 1)).thenReturn(Optional.of(reservation(7, LocalDateTime.now().minusSeconds(1))));
+
+        assertThrows(IllegalArgumentException.class, () -> stockReservationService.commit(userDTO, 7));
+        verify(stockReservationRepository, never()).deleteReservation(anyInt());
+        verify(salesService, never()).sellReserved(any(), any(), any());
+    }
+
+    /**
+     * Test case for releasing a reservation.
+     * Verifies that its quantity is no longer held.
+     */
+    @Test
+    public void testRelease() {
+        when(stockReservationRepository.findByIdAndUserId(7, 1)).thenReturn(Optional.of(reservation(7, LocalDateTime.now().plusMinutes(5))));
+        when(stockReservationRepository.deleteReservation(7)).thenReturn(1);
+
+        stockReservationService.release(userDTO, 7);
+
+        verify(productVariationRepository, times(1)).releaseReservedQuantity(3, 2);
+    }
+
+    /**
+     * Test case for the stock available to sell.
+     * Verifies that held units are subtracted from the quantity.
+     */
+    @Test
+    public void testGetAvailableQuantity() {
+        ProductVariation productVariation = ProductVariation.builder().id(3).quantity(10).reservedQuantity(4).build();
+        when(productVariationRepository.findByIdAndProductUserId(3, 1)).thenReturn(Optional.of(productVariation));
+
+        assertEquals(6, stockReservationService.getAvailableQuantity(userDTO, 3));
+    }
+
+    /**
+     * Test case for the reaper.
+     * Verifies that only reservations it removed itself have their quantity released.
+     */
+    @Test
+    public void testReleaseExpiredReservations() {
+        LocalDateTime expiredAt = LocalDateTime.now().minusMinutes(1);
+        when(stockReservationRepository.findExpired(any(), any())).thenReturn(Arrays.asList(reservation(7, expiredAt), reservation(8, expiredAt)));
+        when(stockReservationRepository.deleteReservation(7)).thenReturn(1);
+        // Reservation 8 was committed while the reaper was running
+        when(stockReservationRepository.deleteReservation(8)).thenReturn(0);
+
+        assertEquals(1, stockReservationService.releaseExpiredReservations());
+        verify(productVariationRepository, times(1)).releaseReservedQuantity(3, 2);
+    }
+}